@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Compara el arranque de la build JVM (bootJar) y de la imagen nativa ejecutando el mismo job.
+# Mide tiempo de pared y RSS máximo con /usr/bin/time (GNU time) y escribe un CSV en build/benchmark/.
+#
+#   scripts/benchmark-startup.sh                 # LSCommand, 10 ejecuciones por variante
+#   JOB=SieveEratosthenes RUNS=20 scripts/benchmark-startup.sh
+#   SKIP_BUILD=1 scripts/benchmark-startup.sh    # reutilizar los artefactos ya construidos
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JOB="${JOB:-LSCommand}"
+RUNS="${RUNS:-10}"
+OUT_DIR="build/benchmark"
+CSV="$OUT_DIR/startup-$(date +%Y%m%d-%H%M%S).csv"
+TIME_BIN="${TIME_BIN:-/usr/bin/time}"
+
+if ! "$TIME_BIN" -f "%e" true 2>/dev/null; then
+  echo "GNU time is required (set TIME_BIN if it is not at /usr/bin/time)" >&2
+  exit 1
+fi
+
+if [[ -z "${SKIP_BUILD:-}" ]]; then
+  ./gradlew --quiet bootJar nativeCompile
+fi
+
+JAR="$(ls build/libs/*.jar | grep -v -- '-plain.jar' | head -n 1)"
+NATIVE="build/native/nativeCompile/orchid"
+[[ -f "$JAR" ]] || { echo "bootJar not found under build/libs" >&2; exit 1; }
+[[ -x "$NATIVE" ]] || { echo "Native image not found at $NATIVE" >&2; exit 1; }
+
+mkdir -p "$OUT_DIR"
+echo "variant,run,seconds,max_rss_kb" > "$CSV"
+
+# Una ejecución de calentamiento (caché de disco) que no se cuenta, y después RUNS ejecuciones medidas
+measure() {
+  local variant="$1"; shift
+  "$@" --jobs="$JOB" > /dev/null 2>&1 || { echo "$variant failed running job $JOB" >&2; exit 1; }
+  for run in $(seq 1 "$RUNS"); do
+    local sample
+    sample="$("$TIME_BIN" -f "%e,%M" "$@" --jobs="$JOB" 2>&1 > /dev/null | tail -n 1)"
+    echo "$variant,$run,$sample" >> "$CSV"
+  done
+}
+
+measure jvm java -jar "$JAR"
+measure native "$NATIVE"
+
+echo "Job: $JOB  Runs: $RUNS"
+echo "JVM:    $(java -version 2>&1 | head -n 1)"
+echo "Native: $("$NATIVE" --version 2>/dev/null | head -n 1 || echo "$NATIVE")"
+echo
+awk -F, 'NR > 1 {
+    n[$1]++; t[$1] += $3; r[$1] += $4
+    if (!($1 in tmin) || $3 < tmin[$1]) tmin[$1] = $3
+    if ($4 > rmax[$1]) rmax[$1] = $4
+  }
+  END {
+    printf "%-8s %10s %10s %14s %14s\n", "variant", "mean s", "min s", "mean RSS MB", "max RSS MB"
+    for (v in n) printf "%-8s %10.3f %10.3f %14.1f %14.1f\n", v, t[v] / n[v], tmin[v], r[v] / n[v] / 1024, rmax[v] / 1024
+  }' "$CSV"
+echo
+echo "Raw samples: $CSV"
@@ -0,0 +1,12 @@
+package com.ggar.orchid.bench;
+
+import java.util.Map;
+
+// Resultado exportado como JSON; es también el formato de --bench.baseline. Latencias por ejecución de job en ms.
+public record BenchmarkResult(String name, String timestamp, Map<String, Object> shape, Map<String, Object> environment,
+                              long runs, long failedRuns, long actionsPerRun, double durationSeconds,
+                              double runsPerSecond, double actionsPerSecond,
+                              double latencyMeanMillis, double latencyP50Millis, double latencyP90Millis,
+                              double latencyP99Millis, double latencyMaxMillis,
+                              long heapHighWaterBytes, long gcCount, long gcTimeMillis) {
+}
@@ -0,0 +1,12 @@
+package com.ggar.orchid.bench;
+
+// Plugin local para las acciones javaMethod de los jobs sintéticos: trabajo de CPU pequeño y determinista,
+// así el coste medido es el del motor (resolución de la clase, instanciación, coerción y reflexión).
+public class StubPlugin {
+
+    public int checksum(String value) {
+        int hash = 7;
+        for (int i = 0; i < value.length(); i++) hash = hash * 31 + value.charAt(i);
+        return hash;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ggar.orchid.bench;
+
+import com.ggar.orchid.model.*;
+
+import java.util.*;
+
+// Genera un JobDefinition a partir de un WorkloadShape, igual que si se hubiera leído de un job.yml.
+// Cada stage es un nido de loop-depth loops de loop-size iteraciones; el cuerpo más interno tiene actions-per-stage
+// acciones hoja repartidas por turnos según los pesos de mix. Las acciones leen claves del contexto inicial
+// (bench.k<n>) y las variables de los loops, y algunas devuelven su resultado al contexto.
+public final class SyntheticJobGenerator {
+    public static final Set<String> LEAF_TYPES = Set.of("spel", "javaMethod", "command");
+    static final String KEY_PREFIX = "bench.k";
+
+    private SyntheticJobGenerator() {
+    }
+
+    public record SyntheticJob(JobDefinition definition, Map<String, Object> initialParameters, long actionsPerRun) {
+    }
+
+    public static SyntheticJob generate(WorkloadShape shape) {
+        List<String> leafSequence = leafSequence(shape.mix());
+        JobDefinition definition = new JobDefinition();
+        definition.setId("bench-" + shape.name());
+        definition.setDescription("Synthetic workload " + shape);
+        List<StageDefinition> stages = new ArrayList<>();
+        for (int s = 0; s < shape.stages(); s++) {
+            StageDefinition stage = new StageDefinition();
+            stage.setName("stage" + s);
+            List<Action> leaves = new ArrayList<>();
+            for (int a = 0; a < shape.actionsPerStage(); a++) {
+                int ordinal = s * shape.actionsPerStage() + a;
+                leaves.add(leafAction(leafSequence.get(ordinal % leafSequence.size()), s, a, ordinal, shape));
+            }
+            stage.setSubActions(List.of(nest(leaves, shape.loopDepth(), s, shape)));
+            stages.add(stage);
+        }
+        definition.setStages(stages);
+
+        Map<String, Object> initialParameters = new LinkedHashMap<>();
+        List<String> parameterNames = new ArrayList<>();
+        for (int k = 0; k < shape.contextKeys(); k++) {
+            initialParameters.put(KEY_PREFIX + k, value(k, shape.valueSize()));
+            parameterNames.add(KEY_PREFIX + k);
+        }
+        definition.setInitialContextParameters(parameterNames);
+        long actionsPerStage = shape.loopDepth() == 0 ? 1 + shape.actionsPerStage() : actionsPerStage(shape, shape.loopDepth());
+        return new SyntheticJob(definition, initialParameters, shape.stages() * actionsPerStage);
+    }
+
+    // Acciones ejecutadas por un stage, contando los propios loops (OrchestratorService los ejecuta como acciones)
+    private static long actionsPerStage(WorkloadShape shape, int depth) {
+        if (depth == 0) return shape.actionsPerStage();
+        return 1 + (long) shape.loopSize() * actionsPerStage(shape, depth - 1);
+    }
+
+    private static Action nest(List<Action> leaves, int depth, int stageIndex, WorkloadShape shape) {
+        if (depth == 0) {
+            // Sin loops, las hojas van directamente en un loop de una sola iteración para conservar la estructura
+            return loop("s" + stageIndex + "_root", "i0", "1", "1", leaves, 1);
+        }
+        Action body = null;
+        List<Action> inner = leaves;
+        for (int level = depth; level >= 1; level--) {
+            body = loop("s" + stageIndex + "_loop" + level, "i" + level, "1", String.valueOf(shape.loopSize()), inner, shape.loopParallelism());
+            inner = List.of(body);
+        }
+        return body;
+    }
+
+    private static LoopAction loop(String name, String iteratorVariable, String from, String to, List<Action> body, int parallelism) {
+        LoopAction loop = new LoopAction();
+        loop.setType("loop");
+        loop.setName(name);
+        loop.setIteratorVariable(iteratorVariable);
+        if (parallelism > 1) {
+            // parallelism solo se aplica a loops sobre colecciones
+            loop.setCollection("T(java.util.stream.IntStream).rangeClosed(" + from + ", " + to + ").boxed().toList()");
+            loop.setParallelism(parallelism);
+        } else {
+            loop.setFrom(from);
+            loop.setTo(to);
+        }
+        loop.setBody(body);
+        return loop;
+    }
+
+    private static Action leafAction(String type, int stageIndex, int actionIndex, int ordinal, WorkloadShape shape) {
+        String key = "#jobContext['" + KEY_PREFIX + (ordinal * 7919 % shape.contextKeys()) + "']";
+        String iterator = "#i" + Math.max(shape.loopDepth(), 0);
+        String name = "s" + stageIndex + "_a" + actionIndex + "_" + type;
+        // Una de cada tres acciones escribe en el contexto
+        String resultKey = ordinal % 3 == 0 ? "bench.r" + stageIndex + "_" + actionIndex : null;
+        return switch (type) {
+            case "spel" -> {
+                SpelAction action = new SpelAction();
+                action.setType("spel");
+                action.setExpression(key + ".length() * " + iterator + " + " + key + ".hashCode() % 97");
+                action.setName(name);
+                action.setReturnToContextAs(resultKey);
+                yield action;
+            }
+            case "javaMethod" -> {
+                JavaMethodAction action = new JavaMethodAction();
+                action.setType("javaMethod");
+                action.setBeanName(StubPlugin.class.getName());
+                action.setMethod("checksum");
+                action.setArgs(List.of(key));
+                action.setName(name);
+                action.setReturnToContextAs(resultKey);
+                yield action;
+            }
+            case "command" -> {
+                CommandAction action = new CommandAction();
+                action.setType("command");
+                action.setCommand("echo");
+                action.setArgs(List.of("'orchid-bench'", iterator));
+                action.setCaptureOutput(true);
+                action.setName(name);
+                action.setReturnToContextAs(resultKey);
+                yield action;
+            }
+            default -> throw new IllegalArgumentException("Unsupported leaf action type: " + type);
+        };
+    }
+
+    // Secuencia de tipos intercalada según los pesos (spel=2,javaMethod=1 -> spel, javaMethod, spel)
+    private static List<String> leafSequence(Map<String, Integer> mix) {
+        List<String> sequence = new ArrayList<>();
+        Map<String, Integer> remaining = new LinkedHashMap<>(mix);
+        while (!remaining.isEmpty()) {
+            Iterator<Map.Entry<String, Integer>> it = remaining.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Integer> entry = it.next();
+                sequence.add(entry.getKey());
+                if (entry.getValue() == 1) it.remove();
+                else entry.setValue(entry.getValue() - 1);
+            }
+        }
+        return sequence;
+    }
+
+    private static String value(int key, int size) {
+        StringBuilder value = new StringBuilder(size);
+        for (int i = 0; i < size; i++) value.append((char) ('a' + (key + i) % 26));
+        return value.toString();
+    }
+}
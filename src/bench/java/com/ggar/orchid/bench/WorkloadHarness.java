@@ -0,0 +1,207 @@
+package com.ggar.orchid.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ggar.orchid.bootstrap.OrchidEngine;
+import com.ggar.orchid.bootstrap.OrchidLauncher;
+import com.ggar.orchid.service.OrchestratorService;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Harness de carga sostenida: genera un job sintético (SyntheticJobGenerator), lo ejecuta con el motor ligero
+// (OrchidEngine) durante bench.warmup segundos sin medir y después durante bench.duration segundos con
+// bench.concurrency hilos, y exporta runs/s, acciones/s, percentiles de latencia por ejecución, el máximo de heap
+// usado y el tiempo de GC a un JSON (bench.output). Con bench.baseline compara con un JSON anterior y, si además se
+// indica bench.max-regression-percent, termina con código 1 cuando el throughput o el p99 empeoran más de ese %.
+public final class WorkloadHarness {
+    private static final long HEAP_SAMPLE_MILLIS = 20;
+
+    private WorkloadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        StandardEnvironment environment = OrchidLauncher.createEnvironment(args);
+        // El log del motor por acción distorsiona la medida; se puede subir con --logging.level.root=INFO
+        environment.getPropertySources().addLast(new MapPropertySource("benchDefaults", Map.of("logging.level.root", "WARN")));
+        OrchidLauncher.initializeLogging(environment);
+
+        WorkloadShape shape = WorkloadShape.from(environment);
+        SyntheticJobGenerator.SyntheticJob job = SyntheticJobGenerator.generate(shape);
+        System.out.printf("Workload %s: %d actions per run, %d context keys%n", shape.name(), job.actionsPerRun(), shape.contextKeys());
+
+        BenchmarkResult result;
+        try (OrchidEngine engine = OrchidEngine.create(environment)) {
+            OrchestratorService orchestrator = engine.getOrchestratorService();
+            if (shape.warmupSeconds() > 0) {
+                System.out.printf("Warming up for %d s%n", shape.warmupSeconds());
+                run(orchestrator, job, shape.concurrency(), shape.warmupSeconds());
+            }
+            System.out.printf("Measuring for %d s with %d thread(s)%n", shape.durationSeconds(), shape.concurrency());
+            result = measure(orchestrator, job, shape);
+        }
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        Path output = Path.of(environment.getProperty("bench.output",
+                "build/bench/" + shape.name() + "-" + result.timestamp().replace(':', '-') + ".json"));
+        if (output.getParent() != null) Files.createDirectories(output.getParent());
+        mapper.writeValue(output.toFile(), result);
+        printSummary(result);
+        System.out.printf("Result written to %s%n", output.toAbsolutePath());
+
+        String baselinePath = environment.getProperty("bench.baseline");
+        if (baselinePath != null && !baselinePath.isBlank()) {
+            BenchmarkResult baseline = mapper.readValue(Path.of(baselinePath).toFile(), BenchmarkResult.class);
+            Double maxRegression = environment.getProperty("bench.max-regression-percent", Double.class);
+            if (!compare(baseline, result, maxRegression)) System.exit(1);
+        }
+    }
+
+    private static BenchmarkResult measure(OrchestratorService orchestrator, SyntheticJobGenerator.SyntheticJob job, WorkloadShape shape) throws Exception {
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+        AtomicLong heapHighWater = new AtomicLong(memoryBean.getHeapMemoryUsage().getUsed());
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                heapHighWater.accumulateAndGet(memoryBean.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(HEAP_SAMPLE_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "orchid-bench-heap-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        RunStats stats = run(orchestrator, job, shape.concurrency(), shape.durationSeconds());
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        sampling.set(false);
+        sampler.join();
+
+        long[] latencies = stats.latencies();
+        Arrays.sort(latencies);
+        long runs = latencies.length;
+        double mean = runs == 0 ? 0 : Arrays.stream(latencies).average().orElse(0);
+        Map<String, Object> environmentInfo = new LinkedHashMap<>();
+        environmentInfo.put("javaVersion", System.getProperty("java.version"));
+        environmentInfo.put("javaVm", System.getProperty("java.vm.name"));
+        environmentInfo.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        environmentInfo.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        environmentInfo.put("gcCollectors", ManagementFactory.getGarbageCollectorMXBeans().stream().map(GarbageCollectorMXBean::getName).toList());
+        return new BenchmarkResult(shape.name(), LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                new ObjectMapper().convertValue(shape, new TypeReference<Map<String, Object>>() {}), environmentInfo,
+                runs, stats.failed(), job.actionsPerRun(), elapsedSeconds,
+                runs / elapsedSeconds, runs * job.actionsPerRun() / elapsedSeconds,
+                millis(mean), millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.90)),
+                millis(percentile(latencies, 0.99)), millis(runs == 0 ? 0 : latencies[latencies.length - 1]),
+                heapHighWater.get(), gcCount() - gcCountBefore, gcTime() - gcTimeBefore);
+    }
+
+    private record RunStats(long[] latencies, long failed) {
+    }
+
+    // Cada hilo ejecuta el job en bucle hasta que vence el plazo; cada ejecución parte de una copia de los parámetros
+    private static RunStats run(OrchestratorService orchestrator, SyntheticJobGenerator.SyntheticJob job, int concurrency, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ClassLoader classLoader = WorkloadHarness.class.getClassLoader();
+        ExecutorService threads = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "orchid-bench-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<RunStats>> futures = new ArrayList<>();
+            for (int t = 0; t < concurrency; t++) {
+                futures.add(threads.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    long failed = 0;
+                    while (System.nanoTime() < deadline) {
+                        long runStart = System.nanoTime();
+                        try {
+                            orchestrator.executeJob(job.definition(), new HashMap<>(job.initialParameters()), classLoader);
+                        } catch (RuntimeException e) {
+                            failed++;
+                            continue;
+                        }
+                        if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+                        latencies[count++] = System.nanoTime() - runStart;
+                    }
+                    return new RunStats(Arrays.copyOf(latencies, count), failed);
+                }));
+            }
+            long[] all = new long[0];
+            long failed = 0;
+            for (Future<RunStats> future : futures) {
+                RunStats stats = future.get();
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + stats.latencies().length);
+                System.arraycopy(stats.latencies(), 0, all, offset, stats.latencies().length);
+                failed += stats.failed();
+            }
+            return new RunStats(all, failed);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private static boolean compare(BenchmarkResult baseline, BenchmarkResult current, Double maxRegressionPercent) {
+        double throughputChange = percentChange(baseline.actionsPerSecond(), current.actionsPerSecond());
+        double p99Change = percentChange(baseline.latencyP99Millis(), current.latencyP99Millis());
+        System.out.printf("Baseline %s (%s): actions/s %+.1f%%, p99 %+.1f%%%n", baseline.name(), baseline.timestamp(), throughputChange, p99Change);
+        if (maxRegressionPercent == null) return true;
+        boolean regressed = -throughputChange > maxRegressionPercent || p99Change > maxRegressionPercent;
+        if (regressed) System.out.printf("Regression above %.1f%%%n", maxRegressionPercent);
+        return !regressed;
+    }
+
+    private static void printSummary(BenchmarkResult result) {
+        System.out.printf("Runs: %d (%d failed) in %.1f s -> %.1f runs/s, %.0f actions/s%n",
+                result.runs(), result.failedRuns(), result.durationSeconds(), result.runsPerSecond(), result.actionsPerSecond());
+        System.out.printf("Latency ms: mean %.3f, p50 %.3f, p90 %.3f, p99 %.3f, max %.3f%n", result.latencyMeanMillis(),
+                result.latencyP50Millis(), result.latencyP90Millis(), result.latencyP99Millis(), result.latencyMaxMillis());
+        System.out.printf("Heap high-water %.1f MB, GC: %d collections, %d ms%n",
+                result.heapHighWaterBytes() / (1024.0 * 1024), result.gcCount(), result.gcTimeMillis());
+    }
+
+    private static double percentChange(double baseline, double current) {
+        return baseline == 0 ? 0 : (current - baseline) * 100.0 / baseline;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static double millis(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(gc -> Math.max(0, gc.getCollectionCount())).sum();
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(gc -> Math.max(0, gc.getCollectionTime())).sum();
+    }
+}
@@ -0,0 +1,57 @@
+package com.ggar.orchid.bench;
+
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Forma del job sintético y de la ejecución. Se lee de propiedades bench.* (--bench.stages=8 ...):
+//   stages, actions-per-stage  anchura del job
+//   loop-depth, loop-size      loops anidados por stage; el cuerpo más interno repite las acciones del stage
+//   loop-parallelism           parallelism de los loops (1 = secuencial)
+//   context-keys, value-size   claves iniciales del jobContext y tamaño de cada valor
+//   mix                        pesos de las acciones hoja, p. ej. spel=6,javaMethod=3,command=1
+//   duration, warmup           segundos de medida y de calentamiento
+//   concurrency                ejecuciones del job en paralelo
+public record WorkloadShape(String name, int stages, int actionsPerStage, int loopDepth, int loopSize, int loopParallelism,
+                            int contextKeys, int valueSize, Map<String, Integer> mix,
+                            int durationSeconds, int warmupSeconds, int concurrency) {
+
+    public static WorkloadShape from(Environment environment) {
+        return new WorkloadShape(
+                environment.getProperty("bench.name", "default"),
+                positive(environment, "bench.stages", 4),
+                positive(environment, "bench.actions-per-stage", 4),
+                Math.max(0, environment.getProperty("bench.loop-depth", Integer.class, 1)),
+                positive(environment, "bench.loop-size", 10),
+                positive(environment, "bench.loop-parallelism", 1),
+                positive(environment, "bench.context-keys", 100),
+                positive(environment, "bench.value-size", 32),
+                parseMix(environment.getProperty("bench.mix", "spel=6,javaMethod=3,command=0")),
+                positive(environment, "bench.duration", 30),
+                Math.max(0, environment.getProperty("bench.warmup", Integer.class, 5)),
+                positive(environment, "bench.concurrency", 1));
+    }
+
+    private static int positive(Environment environment, String key, int defaultValue) {
+        int value = environment.getProperty(key, Integer.class, defaultValue);
+        if (value < 1) throw new IllegalArgumentException(key + " must be >= 1: " + value);
+        return value;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) throw new IllegalArgumentException("bench.mix entries must be type=weight: " + entry);
+            String type = parts[0].trim();
+            if (!SyntheticJobGenerator.LEAF_TYPES.contains(type)) {
+                throw new IllegalArgumentException("bench.mix supports " + SyntheticJobGenerator.LEAF_TYPES + ": " + type);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) weights.put(type, weight);
+        }
+        if (weights.isEmpty()) throw new IllegalArgumentException("bench.mix needs at least one positive weight: " + mix);
+        return weights;
+    }
+}
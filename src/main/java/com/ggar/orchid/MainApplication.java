@@ -1,12 +1,27 @@
 package com.ggar.orchid;
 
+import com.ggar.orchid.bootstrap.OrchidLauncher;
+import com.ggar.orchid.config.OrchidRuntimeHints;
+import com.ggar.orchid.worker.LoopWorker;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(OrchidRuntimeHints.class)
 public class MainApplication {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // --lite: mismo motor sin arrancar Spring Boot, para ejecuciones cortas desde la línea de comandos
+        // --orchid.worker.connect: proceso worker de un loop con 'workers', lanzado por DistributedLoopCoordinator
+        if (LoopWorker.isRequested(args)) {
+            LoopWorker.main(args);
+            return;
+        }
+        if (OrchidLauncher.isRequested(args)) {
+            OrchidLauncher.main(args);
+            return;
+        }
         SpringApplication.run(MainApplication.class, args);
     }
 
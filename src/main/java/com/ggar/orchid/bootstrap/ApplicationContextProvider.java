@@ -0,0 +1,52 @@
+package com.ggar.orchid.bootstrap;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.function.Supplier;
+
+// Acceso al ApplicationContext para las búsquedas de beans de javaMethod. Con Spring Boot el contexto ya existe;
+// con OrchidLauncher se crea la primera vez que un job lo pide, así los jobs que no buscan beans no lo pagan.
+public final class ApplicationContextProvider implements Supplier<ApplicationContext> {
+    private final Supplier<? extends ApplicationContext> factory;
+    private volatile ApplicationContext applicationContext;
+
+    private ApplicationContextProvider(ApplicationContext applicationContext, Supplier<? extends ApplicationContext> factory) {
+        this.applicationContext = applicationContext;
+        this.factory = factory;
+    }
+
+    public static ApplicationContextProvider of(ApplicationContext applicationContext) {
+        return new ApplicationContextProvider(applicationContext, null);
+    }
+
+    public static ApplicationContextProvider lazy(Supplier<? extends ApplicationContext> factory) {
+        return new ApplicationContextProvider(null, factory);
+    }
+
+    @Override
+    public ApplicationContext get() {
+        ApplicationContext current = applicationContext;
+        if (current == null) {
+            synchronized (this) {
+                current = applicationContext;
+                if (current == null) {
+                    current = factory.get();
+                    applicationContext = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public boolean isInitialized() {
+        return applicationContext != null;
+    }
+
+    // Solo cierra el contexto si lo creó este proveedor; el de Spring Boot lo gestiona SpringApplication
+    public void closeIfCreated() {
+        if (factory != null && applicationContext instanceof ConfigurableApplicationContext configurable) {
+            configurable.close();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.ggar.orchid.bootstrap;
+
+import com.ggar.orchid.cache.ActionCacheService;
+import com.ggar.orchid.config.ExecutionConfig;
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.config.JobAutoLoaderConfig;
+import com.ggar.orchid.context.LargeValueStore;
+import com.ggar.orchid.context.LargeValueStoreFactory;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.factory.ActionExecutorFactory;
+import com.ggar.orchid.profiling.ExpressionProfiler;
+import com.ggar.orchid.registry.JobRegistry;
+import com.ggar.orchid.service.FileWriteService;
+import com.ggar.orchid.service.HttpClientService;
+import com.ggar.orchid.service.I18nService;
+import com.ggar.orchid.service.OrchestratorService;
+import com.ggar.orchid.service.ResourcePoolService;
+import com.ggar.orchid.worker.DistributedLoopCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.net.http.HttpClient;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+// Los servicios del motor cableados a mano, sin Spring Boot: lo usan OrchidLauncher y el harness de carga sintética.
+// Las propiedades se resuelven con los mismos placeholders y valores por defecto que los @Value de cada servicio.
+public final class OrchidEngine implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(OrchidEngine.class);
+    private final I18nService i18n;
+    private final ExecutorService workerPool;
+    private final ForkJoinPool pipelinePool;
+    private final FileWriteService fileWriteService;
+    private final ExpressionProfiler expressionProfiler;
+    private final OrchestratorService orchestratorService;
+    private final JobRegistry jobRegistry;
+    private final JobAutoLoaderConfig jobAutoLoader;
+    private final ApplicationContextProvider applicationContextProvider;
+
+    private OrchidEngine(ConfigurableEnvironment environment) {
+        MessageSource messageSource = new I18nConfig().messageSource();
+        this.i18n = new I18nService(messageSource, environment.resolvePlaceholders("${app.locale:}"));
+        ExecutionConfig executionConfig = new ExecutionConfig();
+        this.workerPool = executionConfig.orchidWorkerPool();
+        this.pipelinePool = executionConfig.orchidPipelinePool(intProperty(environment, "${orchid.pipeline.parallelism:0}"));
+        this.fileWriteService = new FileWriteService(i18n,
+                intProperty(environment, "${orchid.file.write-behind.threads:2}"),
+                intProperty(environment, "${orchid.file.write-behind.queue-capacity:32}"));
+        HttpClientService httpClientService = new HttpClientService(i18n,
+                Long.parseLong(environment.resolvePlaceholders("${orchid.http.connect-timeout-seconds:10}").trim()),
+                HttpClient.Version.valueOf(environment.resolvePlaceholders("${orchid.http.version:HTTP_2}").trim()));
+        LargeValueStoreFactory largeValueStoreFactory = new LargeValueStoreFactory(
+                Long.parseLong(environment.resolvePlaceholders("${orchid.context.offheap.threshold-bytes:1048576}").trim()),
+                LargeValueStore.Mode.valueOf(environment.resolvePlaceholders("${orchid.context.offheap.mode:DIRECT}").trim()),
+                environment.resolvePlaceholders("${orchid.context.offheap.spill-dir:}"));
+        ActionCacheService actionCacheService = new ActionCacheService(i18n, environment.resolvePlaceholders("${orchid.cache.dir:${java.io.tmpdir}/orchid-cache}"));
+        this.expressionProfiler = new ExpressionProfiler(i18n,
+                booleanProperty(environment, "${orchid.profiling.expressions.enabled:false}"),
+                intProperty(environment, "${orchid.profiling.expressions.top:20}"));
+        SpelExpressionEvaluator spelEvaluator = new SpelExpressionEvaluator(i18n, expressionProfiler);
+        ResourcePoolService resourcePoolService = new ResourcePoolService(i18n,
+                Long.parseLong(environment.resolvePlaceholders("${orchid.resources.acquire-timeout-seconds:300}").trim()));
+        DistributedLoopCoordinator distributedLoopCoordinator = new DistributedLoopCoordinator(i18n,
+                environment.resolvePlaceholders("${orchid.workers.transport:unix}"),
+                Long.parseLong(environment.resolvePlaceholders("${orchid.workers.start-timeout-seconds:60}").trim()),
+                environment.resolvePlaceholders("${orchid.workers.jvm-args:}"),
+                intProperty(environment, "${orchid.workers.max-restarts:2}"),
+                Long.parseLong(environment.resolvePlaceholders("${orchid.workers.task-timeout-seconds:600}").trim()));
+
+        // Los beans se registran en el contexto perezoso con los nombres que tendrían en Spring Boot
+        Map<String, Object> beans = new LinkedHashMap<>();
+        this.applicationContextProvider = ApplicationContextProvider.lazy(() -> {
+            log.info(i18n.getMessage("launcher.applicationContextStarting"));
+            GenericApplicationContext applicationContext = new GenericApplicationContext();
+            applicationContext.setEnvironment(environment);
+            beans.forEach(applicationContext.getBeanFactory()::registerSingleton);
+            applicationContext.refresh();
+            return applicationContext;
+        });
+        this.jobRegistry = new JobRegistry(i18n, spelEvaluator, actionCacheService);
+        ActionExecutorFactory actionExecutorFactory = new ActionExecutorFactory(applicationContextProvider, spelEvaluator, i18n,
+                workerPool, pipelinePool, fileWriteService, httpClientService, jobRegistry, distributedLoopCoordinator);
+        this.orchestratorService = new OrchestratorService(actionExecutorFactory, i18n, spelEvaluator,
+                largeValueStoreFactory, fileWriteService, actionCacheService, expressionProfiler, resourcePoolService);
+        this.jobAutoLoader = new JobAutoLoaderConfig(i18n, jobRegistry, resourcePoolService,
+                environment.resolvePlaceholders("${orchid.jobs.dir:}"),
+                booleanProperty(environment, "${orchid.jobs.watch:false}"),
+                Long.parseLong(environment.resolvePlaceholders("${orchid.jobs.watch.debounce-millis:300}").trim()));
+
+        beans.put("messageSource", messageSource);
+        beans.put("i18nService", i18n);
+        beans.put("orchidWorkerPool", workerPool);
+        beans.put("orchidPipelinePool", pipelinePool);
+        beans.put("fileWriteService", fileWriteService);
+        beans.put("httpClientService", httpClientService);
+        beans.put("largeValueStoreFactory", largeValueStoreFactory);
+        beans.put("actionCacheService", actionCacheService);
+        beans.put("expressionProfiler", expressionProfiler);
+        beans.put("resourcePoolService", resourcePoolService);
+        beans.put("distributedLoopCoordinator", distributedLoopCoordinator);
+        beans.put("spelExpressionEvaluator", spelEvaluator);
+        beans.put("actionExecutorFactory", actionExecutorFactory);
+        beans.put("orchestratorService", orchestratorService);
+        beans.put("jobRegistry", jobRegistry);
+    }
+
+    public static OrchidEngine create(ConfigurableEnvironment environment) {
+        return new OrchidEngine(environment);
+    }
+
+    public I18nService getI18n() { return i18n; }
+    public OrchestratorService getOrchestratorService() { return orchestratorService; }
+    public JobRegistry getJobRegistry() { return jobRegistry; }
+    public JobAutoLoaderConfig getJobAutoLoader() { return jobAutoLoader; }
+    public ExpressionProfiler getExpressionProfiler() { return expressionProfiler; }
+
+    @Override
+    public void close() {
+        applicationContextProvider.closeIfCreated();
+        fileWriteService.shutdown();
+        pipelinePool.shutdown();
+        workerPool.shutdown();
+    }
+
+    private static int intProperty(ConfigurableEnvironment environment, String placeholder) {
+        return Integer.parseInt(environment.resolvePlaceholders(placeholder).trim());
+    }
+
+    private static boolean booleanProperty(ConfigurableEnvironment environment, String placeholder) {
+        return Boolean.parseBoolean(environment.resolvePlaceholders(placeholder).trim());
+    }
+}
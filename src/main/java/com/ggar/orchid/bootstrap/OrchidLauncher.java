@@ -0,0 +1,67 @@
+package com.ggar.orchid.bootstrap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+// Arranque ligero para ejecuciones de línea de comandos (--lite): OrchidEngine construye a mano los mismos servicios
+// que Spring Boot inyectaría, sin escaneo del classpath ni autoconfiguración. Las propiedades se leen de los
+// argumentos --clave=valor, de las propiedades del sistema, de las variables de entorno y de application.properties.
+// El ApplicationContext solo se crea si un javaMethod busca un bean por nombre.
+public final class OrchidLauncher {
+    public static final String LITE_FLAG = "--lite";
+    private static final Logger log = LoggerFactory.getLogger(OrchidLauncher.class);
+
+    private OrchidLauncher() {
+    }
+
+    public static boolean isRequested(String[] args) {
+        return Arrays.asList(args).contains(LITE_FLAG);
+    }
+
+    public static void main(String[] args) {
+        StandardEnvironment environment = createEnvironment(args);
+        initializeLogging(environment);
+        try (OrchidEngine engine = OrchidEngine.create(environment)) {
+            ProcessHandle.current().info().startInstant().ifPresent(start ->
+                    log.info(engine.getI18n().getMessage("launcher.ready", Duration.between(start, Instant.now()).toMillis())));
+            engine.getJobAutoLoader().runJobs(args, engine.getOrchestratorService());
+        }
+    }
+
+    public static StandardEnvironment createEnvironment(String[] args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        ClassPathResource applicationProperties = new ClassPathResource("application.properties");
+        if (applicationProperties.exists()) {
+            try {
+                environment.getPropertySources().addLast(new ResourcePropertySource(applicationProperties));
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read " + applicationProperties.getDescription(), e);
+            }
+        }
+        return environment;
+    }
+
+    // Misma configuración por defecto de logback que con Spring Boot; logging.level.root cambia el nivel raíz
+    public static void initializeLogging(StandardEnvironment environment) {
+        LoggingSystem loggingSystem = LoggingSystem.get(OrchidLauncher.class.getClassLoader());
+        loggingSystem.beforeInitialize();
+        loggingSystem.initialize(new LoggingInitializationContext(environment), null, null);
+        String rootLevel = environment.getProperty("logging.level.root");
+        if (rootLevel != null) {
+            loggingSystem.setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.valueOf(rootLevel.trim().toUpperCase()));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ggar.orchid.cache;
+
+import com.ggar.orchid.model.CacheDefinition;
+import com.ggar.orchid.service.I18nService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Registro de las cachés de resultados por ámbito: RUN vive lo que dura una ejecución de job,
+// PROCESS lo que dura el proceso y PERSISTENT además se guarda en disco bajo orchid.cache.dir/<job>/<caché>.
+// Los nombres son por job: dos jobs con una caché 'lookup' no comparten entradas. En memoria además son por
+// ClassLoader del job, así que una versión recargada con sus propios plugins nunca recibe instancias de las
+// clases de la anterior. La primera definición que crea una caché fija su TTL y tamaño.
+@Service
+public class ActionCacheService {
+    private final I18nService i18n;
+    private final Path persistentRoot;
+    private final Map<CacheKey, ActionResultCache> processCaches = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, ActionResultCache>> runCaches = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ActionCacheService(I18nService i18n, @Value("${orchid.cache.dir:${java.io.tmpdir}/orchid-cache}") String persistentRoot) {
+        this.i18n = i18n;
+        this.persistentRoot = Path.of(persistentRoot);
+    }
+
+    private record CacheKey(String jobId, ClassLoader classLoader, String cacheName, boolean persistent) {
+    }
+
+    public ActionResultCache cacheFor(String jobId, ClassLoader jobClassLoader, String jobRunId, String cacheName, CacheDefinition definition) {
+        String scopedName = jobId + "/" + cacheName;
+        switch (definition.getScope()) {
+            case PROCESS:
+                return processCaches.computeIfAbsent(new CacheKey(jobId, jobClassLoader, cacheName, false),
+                        key -> new ActionResultCache(scopedName, definition, null, i18n));
+            case PERSISTENT:
+                return processCaches.computeIfAbsent(new CacheKey(jobId, jobClassLoader, cacheName, true),
+                        key -> new ActionResultCache(scopedName, definition, persistentRoot.resolve(fileName(jobId)).resolve(fileName(cacheName)), i18n));
+            default:
+                return runCaches.computeIfAbsent(jobRunId, id -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(cacheName, name -> new ActionResultCache(name, definition, null, i18n));
+        }
+    }
+
+    // Descarta de memoria las cachés PROCESS y PERSISTENT que usó un job con ese ClassLoader (las entradas en disco
+    // se conservan) y devuelve cuántas había. JobRegistry lo usa al retirar una versión; las de otros jobs no se tocan
+    public int invalidate(String jobId, ClassLoader jobClassLoader) {
+        int before = processCaches.size();
+        processCaches.keySet().removeIf(key -> key.jobId().equals(jobId) && key.classLoader() == jobClassLoader);
+        return before - processCaches.size();
+    }
+
+    // Descarta las cachés RUN de una ejecución y devuelve sus estadísticas finales
+    public List<CacheStats> releaseRun(String jobRunId) {
+        Map<String, ActionResultCache> caches = runCaches.remove(jobRunId);
+        if (caches == null) return Collections.emptyList();
+        return caches.values().stream().map(ActionResultCache::stats).toList();
+    }
+
+    private static String fileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    // Estadísticas de las cachés PROCESS y PERSISTENT y de las RUN de ejecuciones en curso
+    public List<CacheStats> getStatistics() {
+        List<CacheStats> stats = new ArrayList<>();
+        processCaches.values().forEach(cache -> stats.add(cache.stats()));
+        runCaches.values().forEach(caches -> caches.values().forEach(cache -> stats.add(cache.stats())));
+        return stats;
+    }
+}
@@ -0,0 +1,195 @@
+package com.ggar.orchid.cache;
+
+import com.ggar.orchid.model.CacheDefinition;
+import com.ggar.orchid.service.I18nService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Caché LRU con TTL para los resultados de una acción determinista. Con persistentDirectory las entradas
+// también se guardan en disco (serialización Java, un fichero por clave) y sobreviven al proceso; la parte
+// en memoria actúa como primer nivel y maxSize solo limita esa parte.
+public class ActionResultCache {
+    private static final Logger log = LoggerFactory.getLogger(ActionResultCache.class);
+
+    // Un resultado cacheado; value puede ser null
+    public record Entry(Object value, long expiresAtMillis) {
+        boolean isExpired(long nowMillis) {
+            return expiresAtMillis > 0 && nowMillis >= expiresAtMillis;
+        }
+    }
+
+    private final String name;
+    private final CacheDefinition.Scope scope;
+    private final long ttlMillis;
+    private final Path persistentDirectory;
+    private final I18nService i18n;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LinkedHashMap<Object, Entry> entries;
+
+    public ActionResultCache(String name, CacheDefinition definition, Path persistentDirectory, I18nService i18n) {
+        this.name = name;
+        this.scope = definition.getScope();
+        this.ttlMillis = Math.max(0, definition.getTtlSeconds()) * 1000;
+        this.persistentDirectory = persistentDirectory;
+        this.i18n = i18n;
+        int maxSize = Math.max(1, definition.getMaxSize());
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (size() <= maxSize) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isPersistent() {
+        return persistentDirectory != null;
+    }
+
+    // Devuelve la entrada vigente para la clave, o null si no hay (o ha caducado)
+    public Entry get(Object key, ClassLoader classLoader) {
+        Object normalizedKey = normalize(key);
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(normalizedKey);
+            if (entry != null && entry.isExpired(now)) {
+                entries.remove(normalizedKey);
+                expirations.increment();
+                entry = null;
+            }
+        }
+        if (entry == null && persistentDirectory != null) {
+            entry = readPersisted(normalizedKey, classLoader);
+            if (entry != null && entry.isExpired(now)) {
+                expirations.increment();
+                deletePersisted(normalizedKey);
+                entry = null;
+            } else if (entry != null) {
+                synchronized (entries) {
+                    entries.put(normalizedKey, entry);
+                }
+            }
+        }
+        if (entry == null) misses.increment(); else hits.increment();
+        return entry;
+    }
+
+    public void put(Object key, Object value) {
+        Object normalizedKey = normalize(key);
+        Entry entry = new Entry(value, ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : 0);
+        synchronized (entries) {
+            entries.put(normalizedKey, entry);
+        }
+        if (persistentDirectory != null) writePersisted(normalizedKey, entry);
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(name, scope, hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size);
+    }
+
+    // Los arrays no tienen equals por contenido: se comparan como listas
+    private static Object normalize(Object key) {
+        return key instanceof Object[] array ? Arrays.asList(array) : key;
+    }
+
+    private Path persistedFile(Object key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(String.valueOf(key).getBytes(StandardCharsets.UTF_8));
+            return persistentDirectory.resolve(HexFormat.of().formatHex(digest) + ".bin");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Entry readPersisted(Object key, ClassLoader classLoader) {
+        Path file = persistedFile(key);
+        if (!Files.isRegularFile(file)) return null;
+        try (ObjectInputStream in = new ClassLoaderObjectInputStream(new BufferedInputStream(Files.newInputStream(file)), classLoader)) {
+            long expiresAt = in.readLong();
+            String storedKey = (String) in.readObject();
+            // Dos claves con el mismo hash: la entrada en disco no es la nuestra
+            if (!storedKey.equals(String.valueOf(key))) return null;
+            return new Entry(in.readObject(), expiresAt);
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.warn(i18n.getMessage("cache.persistent.readError", name, file, e.getMessage()));
+            return null;
+        }
+    }
+
+    private void writePersisted(Object key, Entry entry) {
+        if (entry.value() != null && !(entry.value() instanceof Serializable)) {
+            log.debug(i18n.getMessage("cache.persistent.notSerializable", name, entry.value().getClass().getName()));
+            return;
+        }
+        Path file = persistedFile(key);
+        try {
+            Files.createDirectories(persistentDirectory);
+            Path temp = Files.createTempFile(persistentDirectory, ".entry-", ".tmp");
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeLong(entry.expiresAtMillis());
+                out.writeObject(String.valueOf(key));
+                out.writeObject(entry.value());
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn(i18n.getMessage("cache.persistent.writeError", name, file, e.getMessage()));
+        }
+    }
+
+    private void deletePersisted(Object key) {
+        try {
+            Files.deleteIfExists(persistedFile(key));
+        } catch (IOException e) {
+            log.debug(i18n.getMessage("cache.persistent.writeError", name, persistedFile(key), e.getMessage()));
+        }
+    }
+
+    // Resuelve las clases de los valores con el classloader del job (plugins en lib/)
+    private static class ClassLoaderObjectInputStream extends ObjectInputStream {
+        private final ClassLoader classLoader;
+
+        ClassLoaderObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+            super(in);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (classLoader == null) return super.resolveClass(desc);
+            try {
+                return Class.forName(desc.getName(), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+}
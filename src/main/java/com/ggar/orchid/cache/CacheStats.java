@@ -0,0 +1,10 @@
+package com.ggar.orchid.cache;
+
+import com.ggar.orchid.model.CacheDefinition;
+
+public record CacheStats(String name, CacheDefinition.Scope scope, long hits, long misses, long evictions, long expirations, int size) {
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
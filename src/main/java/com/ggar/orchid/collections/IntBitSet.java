@@ -0,0 +1,149 @@
+package com.ggar.orchid.collections;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+// Conjunto de enteros no negativos sobre un java.util.BitSet: un bit por valor posible hasta el mayor
+// elemento, así que 10^8 números ocupan ~12 MB. Itera en orden ascendente con nextSetBit.
+public class IntBitSet extends AbstractSet<Integer> {
+    private final BitSet bits;
+    private int size;
+
+    public IntBitSet() {
+        this.bits = new BitSet();
+    }
+
+    public IntBitSet(int maxValueHint) {
+        this.bits = new BitSet(Math.max(0, maxValueHint) + 1);
+    }
+
+    private IntBitSet(BitSet bits, int size) {
+        this.bits = bits;
+        this.size = size;
+    }
+
+    public static IntBitSet rangeClosed(int fromInclusive, int toInclusive) {
+        IntBitSet set = new IntBitSet(toInclusive);
+        if (toInclusive >= fromInclusive) {
+            set.bits.set(requireNonNegative(fromInclusive), toInclusive + 1);
+            set.size = toInclusive - fromInclusive + 1;
+        }
+        return set;
+    }
+
+    public boolean addInt(int value) {
+        if (bits.get(requireNonNegative(value))) return false;
+        bits.set(value);
+        size++;
+        return true;
+    }
+
+    public boolean containsInt(int value) {
+        return value >= 0 && bits.get(value);
+    }
+
+    public boolean removeInt(int value) {
+        if (!containsInt(value)) return false;
+        bits.clear(value);
+        size--;
+        return true;
+    }
+
+    public boolean removeIfInt(IntPredicate filter) {
+        int before = size;
+        for (int value = bits.nextSetBit(0); value >= 0; value = bits.nextSetBit(value + 1)) {
+            if (filter.test(value)) {
+                bits.clear(value);
+                size--;
+            }
+            if (value == Integer.MAX_VALUE) break;
+        }
+        return size != before;
+    }
+
+    public PrimitiveIterator.OfInt intIterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int next = bits.nextSetBit(0);
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next < 0) throw new NoSuchElementException();
+                last = next;
+                next = next == Integer.MAX_VALUE ? -1 : bits.nextSetBit(next + 1);
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) throw new IllegalStateException();
+                removeInt(last);
+                last = -1;
+            }
+        };
+    }
+
+    public IntStream intStream() {
+        return bits.stream();
+    }
+
+    public IntBitSet copy() {
+        return new IntBitSet((BitSet) bits.clone(), size);
+    }
+
+    private static int requireNonNegative(int value) {
+        if (value < 0) throw new IllegalArgumentException("IntBitSet only holds non-negative values: " + value);
+        return value;
+    }
+
+    // SpEL entrega los enteros como Integer o Long: se acepta cualquier Number entero dentro del rango de int
+    private static int toIndex(Object value) {
+        if (value instanceof Number number && IntegralNumbers.isInt(number) && number.intValue() >= 0) return number.intValue();
+        return -1;
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        return addInt(value);
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        int index = toIndex(value);
+        return index >= 0 && bits.get(index);
+    }
+
+    @Override
+    public boolean remove(Object value) {
+        int index = toIndex(value);
+        return index >= 0 && removeInt(index);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Integer> filter) {
+        return removeIfInt(filter::test);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return intIterator();
+    }
+
+    @Override
+    public void clear() {
+        bits.clear();
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
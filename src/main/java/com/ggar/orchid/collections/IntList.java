@@ -0,0 +1,217 @@
+package com.ggar.orchid.collections;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+// Variante de LongList para int: 4 bytes por elemento frente a los ~20 (referencia + Integer) de un ArrayList<Integer>.
+// Los métodos *Int evitan el boxing cuando se llaman desde Java o plugins.
+public class IntList extends AbstractList<Integer> implements RandomAccess {
+    private int[] elements;
+    private int size;
+
+    public IntList() {
+        this(10);
+    }
+
+    public IntList(int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        this.elements = new int[initialCapacity];
+    }
+
+    public static IntList rangeClosed(int fromInclusive, int toInclusive) {
+        long count = Math.max(0, (long) toInclusive - fromInclusive + 1);
+        if (count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Range " + fromInclusive + ".." + toInclusive + " has more than " + (Integer.MAX_VALUE - 8) + " elements");
+        }
+        IntList list = new IntList((int) count);
+        for (long value = fromInclusive; value <= toInclusive; value++) list.addInt((int) value);
+        return list;
+    }
+
+    public boolean addInt(int value) {
+        if (size == elements.length) grow(size + 1);
+        elements[size++] = value;
+        modCount++;
+        return true;
+    }
+
+    public int getInt(int index) {
+        Objects.checkIndex(index, size);
+        return elements[index];
+    }
+
+    public int setInt(int index, int value) {
+        Objects.checkIndex(index, size);
+        int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    public int removeIntAt(int index) {
+        Objects.checkIndex(index, size);
+        int previous = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    public int indexOfInt(int value) {
+        for (int i = 0; i < size; i++) if (elements[i] == value) return i;
+        return -1;
+    }
+
+    public boolean containsInt(int value) {
+        return indexOfInt(value) >= 0;
+    }
+
+    // Compacta en una sola pasada, sin desplazar el array por cada elemento eliminado
+    public boolean removeIfInt(IntPredicate filter) {
+        int kept = 0;
+        int i = 0;
+        try {
+            for (; i < size; i++) {
+                int value = elements[i];
+                if (!filter.test(value)) elements[kept++] = value;
+            }
+        } finally {
+            // Si el predicado lanza, los elementos aún no evaluados se conservan
+            if (i < size) {
+                System.arraycopy(elements, i, elements, kept, size - i);
+                kept += size - i;
+            }
+        }
+        boolean removed = kept != size;
+        if (removed) {
+            size = kept;
+            modCount++;
+        }
+        return removed;
+    }
+
+    public PrimitiveIterator.OfInt intIterator() {
+        return new PrimitiveIterator.OfInt() {
+            private final int expectedModCount = modCount;
+            private int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                if (cursor >= size) throw new NoSuchElementException();
+                return elements[cursor++];
+            }
+        };
+    }
+
+    public IntStream intStream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    public int[] toIntArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public IntList copy() {
+        IntList copy = new IntList(0);
+        copy.elements = toIntArray();
+        copy.size = size;
+        return copy;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) grow(minCapacity);
+    }
+
+    public void trimToSize() {
+        if (elements.length > size) elements = Arrays.copyOf(elements, size);
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, elements.length + (elements.length >> 1) + 1);
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        return addInt(value);
+    }
+
+    @Override
+    public void add(int index, Integer value) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        if (size == elements.length) grow(size + 1);
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = value;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public Integer set(int index, Integer value) {
+        return setInt(index, value);
+    }
+
+    @Override
+    public Integer remove(int index) {
+        return removeIntAt(index);
+    }
+
+    @Override
+    public boolean remove(Object value) {
+        int index = indexOf(value);
+        if (index < 0) return false;
+        removeIntAt(index);
+        return true;
+    }
+
+    @Override
+    public int indexOf(Object value) {
+        // Solo números enteros que caben en un int pueden estar en la lista
+        return value instanceof Number number && IntegralNumbers.isInt(number) ? indexOfInt(number.intValue()) : -1;
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return indexOf(value) >= 0;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Integer> filter) {
+        return removeIfInt(filter::test);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return intIterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] boxed = new Object[size];
+        for (int i = 0; i < size; i++) boxed[i] = elements[i];
+        return boxed;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,39 @@
+package com.ggar.orchid.collections;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Las colecciones primitivas solo contienen enteros: un Double 2.5 no puede estar en una LongList aunque
+// su longValue() sea 2. Un número con decimales, fuera del rango de long o NaN nunca coincide.
+final class IntegralNumbers {
+    private static final double LONG_RANGE_END = 0x1p63;
+
+    private IntegralNumbers() {
+    }
+
+    // true si number representa exactamente el long number.longValue()
+    static boolean isIntegral(Number number) {
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte
+                || number instanceof AtomicLong || number instanceof AtomicInteger) {
+            return true;
+        }
+        if (number instanceof BigInteger bigInteger) return bigInteger.bitLength() < Long.SIZE;
+        if (number instanceof BigDecimal bigDecimal) {
+            try {
+                bigDecimal.longValueExact();
+                return true;
+            } catch (ArithmeticException e) {
+                return false;
+            }
+        }
+        double value = number.doubleValue();
+        return value == Math.rint(value) && value >= -LONG_RANGE_END && value < LONG_RANGE_END;
+    }
+
+    // true si number es entero y cabe en un int
+    static boolean isInt(Number number) {
+        return isIntegral(number) && number.longValue() == number.intValue();
+    }
+}
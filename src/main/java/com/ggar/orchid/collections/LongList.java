@@ -0,0 +1,223 @@
+package com.ggar.orchid.collections;
+
+import java.util.*;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+
+// Lista creciente de long sobre un long[]: ocupa 8 bytes por elemento frente a los ~24 (referencia + Long)
+// de un ArrayList<Long>. Implementa List<Long> para que SpEL, returnToContextAs y los executors la traten
+// como cualquier colección; los métodos *Long evitan el boxing cuando se llaman desde Java o plugins.
+public class LongList extends AbstractList<Long> implements RandomAccess {
+    private static final int MAX_RANGE_SIZE = Integer.MAX_VALUE - 8;
+    private long[] elements;
+    private int size;
+
+    public LongList() {
+        this(10);
+    }
+
+    public LongList(int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        this.elements = new long[initialCapacity];
+    }
+
+    // Se recorre por número de elementos: un bucle hasta toInclusive no terminaría con Long.MAX_VALUE
+    public static LongList rangeClosed(long fromInclusive, long toInclusive) {
+        if (toInclusive < fromInclusive) return new LongList(0);
+        // Con toInclusive >= fromInclusive la resta sin signo es exacta aunque desborde long
+        if (Long.compareUnsigned(toInclusive - fromInclusive, MAX_RANGE_SIZE - 1) > 0) {
+            throw new IllegalArgumentException("Range " + fromInclusive + ".." + toInclusive + " has more than " + MAX_RANGE_SIZE + " elements");
+        }
+        int count = (int) (toInclusive - fromInclusive + 1);
+        LongList list = new LongList(count);
+        for (int i = 0; i < count; i++) list.elements[i] = fromInclusive + i;
+        list.size = count;
+        return list;
+    }
+
+    public boolean addLong(long value) {
+        if (size == elements.length) grow(size + 1);
+        elements[size++] = value;
+        modCount++;
+        return true;
+    }
+
+    public long getLong(int index) {
+        Objects.checkIndex(index, size);
+        return elements[index];
+    }
+
+    public long setLong(int index, long value) {
+        Objects.checkIndex(index, size);
+        long previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    public long removeLongAt(int index) {
+        Objects.checkIndex(index, size);
+        long previous = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    public int indexOfLong(long value) {
+        for (int i = 0; i < size; i++) if (elements[i] == value) return i;
+        return -1;
+    }
+
+    public boolean containsLong(long value) {
+        return indexOfLong(value) >= 0;
+    }
+
+    // Compacta en una sola pasada, sin desplazar el array por cada elemento eliminado
+    public boolean removeIfLong(LongPredicate filter) {
+        int kept = 0;
+        int i = 0;
+        try {
+            for (; i < size; i++) {
+                long value = elements[i];
+                if (!filter.test(value)) elements[kept++] = value;
+            }
+        } finally {
+            // Si el predicado lanza, los elementos aún no evaluados se conservan
+            if (i < size) {
+                System.arraycopy(elements, i, elements, kept, size - i);
+                kept += size - i;
+            }
+        }
+        boolean removed = kept != size;
+        if (removed) {
+            size = kept;
+            modCount++;
+        }
+        return removed;
+    }
+
+    public PrimitiveIterator.OfLong longIterator() {
+        return new PrimitiveIterator.OfLong() {
+            private final int expectedModCount = modCount;
+            private int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public long nextLong() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                if (cursor >= size) throw new NoSuchElementException();
+                return elements[cursor++];
+            }
+        };
+    }
+
+    public LongStream longStream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    public long[] toLongArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public LongList copy() {
+        LongList copy = new LongList(0);
+        copy.elements = toLongArray();
+        copy.size = size;
+        return copy;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) grow(minCapacity);
+    }
+
+    public void trimToSize() {
+        if (elements.length > size) elements = Arrays.copyOf(elements, size);
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, elements.length + (elements.length >> 1) + 1);
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    @Override
+    public boolean add(Long value) {
+        return addLong(value);
+    }
+
+    @Override
+    public void add(int index, Long value) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        if (size == elements.length) grow(size + 1);
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = value;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    @Override
+    public Long set(int index, Long value) {
+        return setLong(index, value);
+    }
+
+    @Override
+    public Long remove(int index) {
+        return removeLongAt(index);
+    }
+
+    @Override
+    public boolean remove(Object value) {
+        int index = indexOf(value);
+        if (index < 0) return false;
+        removeLongAt(index);
+        return true;
+    }
+
+    @Override
+    public int indexOf(Object value) {
+        // Solo números enteros pueden estar en la lista: 2.5 no coincide con 2
+        return value instanceof Number number && IntegralNumbers.isIntegral(number) ? indexOfLong(number.longValue()) : -1;
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return indexOf(value) >= 0;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Long> filter) {
+        return removeIfLong(filter::test);
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return longIterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] boxed = new Object[size];
+        for (int i = 0; i < size; i++) boxed[i] = elements[i];
+        return boxed;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,165 @@
+package com.ggar.orchid.collections;
+
+import com.ggar.orchid.context.OffHeapBytes;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.*;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+// Array creciente de long fuera del heap, en segmentos directos de SEGMENT_LONGS elementos: crecer añade un
+// segmento sin copiar los anteriores y el GC no recorre los datos. La memoria se libera con close() (o, si no
+// se llama, cuando el Cleaner de cada buffer lo recoja). No es thread-safe.
+public class OffHeapLongArray extends AbstractList<Long> implements RandomAccess, AutoCloseable {
+    private static final int SEGMENT_SHIFT = 20;
+    private static final int SEGMENT_LONGS = 1 << SEGMENT_SHIFT; // 8 MB por segmento
+    private static final int SEGMENT_MASK = SEGMENT_LONGS - 1;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final List<LongBuffer> views = new ArrayList<>();
+    private int size;
+    private boolean closed;
+
+    public boolean addLong(long value) {
+        ensureOpen();
+        int segment = size >>> SEGMENT_SHIFT;
+        if (segment == views.size()) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(SEGMENT_LONGS * Long.BYTES).order(ByteOrder.nativeOrder());
+            segments.add(buffer);
+            views.add(buffer.asLongBuffer());
+        }
+        views.get(segment).put(size & SEGMENT_MASK, value);
+        size++;
+        modCount++;
+        return true;
+    }
+
+    public long getLong(int index) {
+        ensureOpen();
+        Objects.checkIndex(index, size);
+        return views.get(index >>> SEGMENT_SHIFT).get(index & SEGMENT_MASK);
+    }
+
+    public long setLong(int index, long value) {
+        long previous = getLong(index);
+        views.get(index >>> SEGMENT_SHIFT).put(index & SEGMENT_MASK, value);
+        return previous;
+    }
+
+    public int indexOfLong(long value) {
+        ensureOpen();
+        for (int i = 0; i < size; i++) if (views.get(i >>> SEGMENT_SHIFT).get(i & SEGMENT_MASK) == value) return i;
+        return -1;
+    }
+
+    public boolean containsLong(long value) {
+        return indexOfLong(value) >= 0;
+    }
+
+    // Compacta en una sola pasada; los segmentos sobrantes no se liberan hasta close()
+    public boolean removeIfLong(LongPredicate filter) {
+        ensureOpen();
+        int kept = 0;
+        int i = 0;
+        try {
+            for (; i < size; i++) {
+                long value = getLong(i);
+                if (!filter.test(value)) setLong(kept++, value);
+            }
+        } finally {
+            for (; i < size; i++) setLong(kept++, getLong(i));
+        }
+        boolean removed = kept != size;
+        if (removed) {
+            size = kept;
+            modCount++;
+        }
+        return removed;
+    }
+
+    // Itera hasta el tamaño que tenía el array al crear el iterador
+    public PrimitiveIterator.OfLong longIterator() {
+        ensureOpen();
+        int limit = size;
+        return new PrimitiveIterator.OfLong() {
+            private int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < limit && cursor < size;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return getLong(cursor++);
+            }
+        };
+    }
+
+    public long offHeapBytes() {
+        return (long) segments.size() * SEGMENT_LONGS * Long.BYTES;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        segments.forEach(OffHeapBytes::freeDirectBuffer);
+        segments.clear();
+        views.clear();
+        size = 0;
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("OffHeapLongArray was closed");
+    }
+
+    @Override
+    public boolean add(Long value) {
+        return addLong(value);
+    }
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    @Override
+    public Long set(int index, Long value) {
+        return setLong(index, value);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Long> filter) {
+        return removeIfLong(filter::test);
+    }
+
+    @Override
+    public int indexOf(Object value) {
+        // Como en LongList: cualquier número entero coincide, 2.5 no coincide con 2
+        return value instanceof Number number && IntegralNumbers.isIntegral(number) ? indexOfLong(number.longValue()) : -1;
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return indexOf(value) >= 0;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return longIterator();
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
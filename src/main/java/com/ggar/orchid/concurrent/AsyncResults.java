@@ -0,0 +1,64 @@
+package com.ggar.orchid.concurrent;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// Utilidades para los resultados asíncronos de las acciones (CompletionStage). Los futuros viajan por el jobContext
+// sin bloquear a nadie y solo se esperan cuando algo necesita su valor: una acción await, el primer acceso #var
+// desde SpEL o el final del job.
+public final class AsyncResults {
+    private AsyncResults() {
+    }
+
+    public static boolean isAsync(Object value) {
+        return value instanceof CompletionStage<?>;
+    }
+
+    // Espera el valor del futuro; los Optional se desenrollan igual que los resultados síncronos
+    public static Object join(CompletionStage<?> stage) {
+        try {
+            return unwrapOptional(stage.toCompletableFuture().join());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    public static Object join(CompletionStage<?> stage, long timeout, TimeUnit unit) throws TimeoutException {
+        if (timeout <= 0) return join(stage);
+        try {
+            return unwrapOptional(stage.toCompletableFuture().get(timeout, unit));
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for an asynchronous result");
+        }
+    }
+
+    // Espera a la vez todos los futuros de la colección; los elementos que no son futuros se devuelven tal cual
+    public static List<Object> joinAll(Collection<?> values, long timeout, TimeUnit unit) throws TimeoutException {
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+        for (Object value : values) {
+            if (value instanceof CompletionStage<?> stage) pending.add(stage.toCompletableFuture());
+        }
+        if (!pending.isEmpty()) {
+            CompletableFuture<Void> all = CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
+            // Si alguno falla, join/get propagan el error del primero que se consulte
+            try {
+                if (timeout > 0) all.get(timeout, unit); else all.join();
+            } catch (ExecutionException | CompletionException e) {
+                // Se relanza abajo al consultar el futuro concreto
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for asynchronous results");
+            }
+        }
+        List<Object> resolved = new ArrayList<>(values.size());
+        for (Object value : values) resolved.add(value instanceof CompletionStage<?> stage ? join(stage) : value);
+        return resolved;
+    }
+
+    private static Object unwrapOptional(Object value) {
+        return value instanceof Optional<?> optional ? optional.orElse(null) : value;
+    }
+}
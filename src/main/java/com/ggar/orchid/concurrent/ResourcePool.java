@@ -0,0 +1,139 @@
+package com.ggar.orchid.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Recurso con nombre compartido por todos los jobs: hasta capacity permisos en uso a la vez (0 = sin límite) y,
+// opcionalmente, un ritmo máximo de adquisiciones (TokenBucket). acquire() no bloquea: devuelve un futuro que se
+// completa cuando los permisos se conceden. Las esperas se atienden en orden de llegada; una petición grande no
+// puede ser adelantada indefinidamente por otras pequeñas. Cancelar el futuro abandona la espera: la petición sale
+// de la cola y, si los permisos ya se habían concedido, se devuelven.
+public class ResourcePool {
+    private final String name;
+    private final int capacity;
+    private final double permitsPerSecond;
+    private final TokenBucket rateLimiter;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private final long createdNanos = System.nanoTime();
+    private int inUse;
+    private int peakInUse;
+    private long acquisitions;
+    private long delayedAcquisitions;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private long busyPermitNanos; // Integral de los permisos en uso a lo largo del tiempo
+    private long lastChangeNanos = createdNanos;
+
+    private record Waiter(int permits, long requestedNanos, CompletableFuture<Void> granted) {
+    }
+
+    public ResourcePool(String name, int capacity, double permitsPerSecond, int burst) {
+        this.name = name;
+        this.capacity = Math.max(0, capacity);
+        this.permitsPerSecond = permitsPerSecond;
+        this.rateLimiter = permitsPerSecond > 0 ? new TokenBucket(permitsPerSecond, burst) : null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CompletableFuture<Void> acquire(int permits) {
+        if (permits < 1) throw new IllegalArgumentException("permits must be >= 1: " + permits);
+        if (capacity > 0 && permits > capacity) {
+            throw new IllegalArgumentException("Resource '" + name + "' has capacity " + capacity + ", cannot acquire " + permits);
+        }
+        long requestedNanos = System.nanoTime();
+        // Primero el ritmo y después la capacidad: mientras se espera un token no se retiene ningún permiso
+        long rateDelayNanos = rateLimiter != null ? rateLimiter.reserve(permits) : 0;
+        if (rateDelayNanos == 0) return acquirePermits(permits, requestedNanos);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(rateDelayNanos, TimeUnit.NANOSECONDS).execute(() -> {
+            if (result.isDone()) return;
+            CompletableFuture<Void> permitsGranted = acquirePermits(permits, requestedNanos);
+            result.whenComplete((ignored, error) -> { if (error != null) permitsGranted.cancel(false); });
+            permitsGranted.thenRun(() -> { if (!result.complete(null)) release(permits); });
+        });
+        return result;
+    }
+
+    public void release(int permits) {
+        List<Waiter> granted;
+        synchronized (this) {
+            changeInUse(-permits);
+            granted = pollGrantable();
+        }
+        complete(granted);
+    }
+
+    public synchronized ResourceStats stats() {
+        long now = System.nanoTime();
+        long busy = busyPermitNanos + (long) inUse * (now - lastChangeNanos);
+        double averageInUse = busy / (double) Math.max(1, now - createdNanos);
+        return new ResourceStats(name, capacity, permitsPerSecond, inUse, peakInUse, waiters.size(), acquisitions,
+                delayedAcquisitions, totalWaitNanos, maxWaitNanos, averageInUse, capacity > 0 ? averageInUse / capacity : 0);
+    }
+
+    private synchronized CompletableFuture<Void> acquirePermits(int permits, long requestedNanos) {
+        if (waiters.isEmpty() && fits(permits)) {
+            grant(permits, requestedNanos);
+            return CompletableFuture.completedFuture(null);
+        }
+        Waiter waiter = new Waiter(permits, requestedNanos, new CompletableFuture<>());
+        waiters.addLast(waiter);
+        waiter.granted().whenComplete((ignored, error) -> { if (error != null) abandon(waiter); });
+        return waiter.granted();
+    }
+
+    // Una petición grande que abandona la cabeza de la cola puede dejar pasar a las siguientes
+    private void abandon(Waiter waiter) {
+        List<Waiter> granted;
+        synchronized (this) {
+            if (!waiters.remove(waiter)) return;
+            granted = pollGrantable();
+        }
+        complete(granted);
+    }
+
+    private List<Waiter> pollGrantable() {
+        List<Waiter> granted = new ArrayList<>();
+        while (!waiters.isEmpty() && fits(waiters.peekFirst().permits())) {
+            Waiter waiter = waiters.pollFirst();
+            grant(waiter.permits(), waiter.requestedNanos());
+            granted.add(waiter);
+        }
+        return granted;
+    }
+
+    // Fuera del monitor: lo que dependa de cada futuro puede continuar en este mismo hilo. Si la espera se canceló
+    // justo cuando se concedía, los permisos vuelven al pool
+    private void complete(List<Waiter> granted) {
+        granted.forEach(waiter -> { if (!waiter.granted().complete(null)) release(waiter.permits()); });
+    }
+
+    private boolean fits(int permits) {
+        return capacity == 0 || inUse + permits <= capacity;
+    }
+
+    private void grant(int permits, long requestedNanos) {
+        long waitNanos = System.nanoTime() - requestedNanos;
+        changeInUse(permits);
+        peakInUse = Math.max(peakInUse, inUse);
+        acquisitions++;
+        // Por debajo de 1 ms se considera concesión inmediata (el coste propio de la llamada)
+        if (waitNanos >= TimeUnit.MILLISECONDS.toNanos(1)) delayedAcquisitions++;
+        totalWaitNanos += waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    private void changeInUse(int delta) {
+        long now = System.nanoTime();
+        busyPermitNanos += (long) inUse * (now - lastChangeNanos);
+        lastChangeNanos = now;
+        inUse += delta;
+    }
+}
@@ -0,0 +1,7 @@
+package com.ggar.orchid.concurrent;
+
+// Estado de un ResourcePool: utilisation es la media de permisos en uso desde su creación entre la capacidad
+public record ResourceStats(String name, int capacity, double permitsPerSecond, int inUse, int peakInUse, int waiting,
+                            long acquisitions, long delayedAcquisitions, long totalWaitNanos, long maxWaitNanos,
+                            double averageInUse, double utilisation) {
+}
@@ -0,0 +1,39 @@
+package com.ggar.orchid.concurrent;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Coalescing de llamadas idénticas en vuelo: la primera llamada con una clave (el líder) ejecuta la operación y las
+// que llegan mientras tanto con la misma clave esperan y reciben su resultado, o su excepción. La entrada se
+// retira en cuanto termina el líder, así que no es una caché: una llamada posterior vuelve a ejecutarse.
+public class SingleFlight<K> {
+    private final Map<K, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // onCoalesced se ejecuta cuando la llamada se une a otra en vuelo en lugar de ejecutarse
+    public Object execute(K key, Supplier<Object> call, Runnable onCoalesced) {
+        CompletableFuture<Object> leader = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            onCoalesced.run();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+        try {
+            Object result = call.get();
+            leader.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Cualquier fallo, incluidas excepciones checked lanzadas por reflexión, libera a los que esperan
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+}
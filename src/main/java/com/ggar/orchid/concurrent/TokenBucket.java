@@ -0,0 +1,39 @@
+package com.ggar.orchid.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+// Token bucket por reservas: cada llamada a reserve() consume un token (aunque la cuenta quede en negativo) y
+// devuelve cuánto hay que esperar hasta que ese token exista. Así los llamantes asíncronos pueden programar la
+// espera sin bloquear un hilo y los síncronos simplemente duermen ese tiempo.
+public class TokenBucket {
+    private final double permitsPerNano;
+    private final double capacity;
+    private double availableTokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) throw new IllegalArgumentException("permitsPerSecond must be > 0");
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, burst);
+        this.availableTokens = this.capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    // Nanosegundos que debe esperar el llamante antes de usar el permiso reservado (0 si está disponible ya)
+    public synchronized long reserve(int permits) {
+        refill();
+        availableTokens -= permits;
+        return availableTokens >= 0 ? 0 : (long) Math.ceil(-availableTokens / permitsPerNano);
+    }
+
+    public void acquire(int permits) throws InterruptedException {
+        long waitNanos = reserve(permits);
+        if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        availableTokens = Math.min(capacity, availableTokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ggar.orchid.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutionConfig {
+
+    // Pool compartido para la ejecución paralela de acciones (iteraciones de loops, ramas...).
+    // Cada acción limita su propio paralelismo; el pool solo reutiliza los hilos.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService orchidWorkerPool() {
+        return Executors.newCachedThreadPool(namedDaemonThreads("orchid-worker-"));
+    }
+
+    // Pool dedicado a los pipelines paralelos: no compiten con el common pool de la JVM ni con orchidWorkerPool
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool orchidPipelinePool(@Value("${orchid.pipeline.parallelism:0}") int parallelism) {
+        AtomicInteger counter = new AtomicInteger();
+        ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("orchid-pipeline-" + counter.incrementAndGet());
+            return thread;
+        };
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), threadFactory, null, false);
+    }
+
+    static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -4,14 +4,23 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.ggar.orchid.model.JobDefinition;
+import com.ggar.orchid.model.OrchestrationConfig;
+import com.ggar.orchid.model.ResourceDefinition;
+import com.ggar.orchid.registry.JobDirectoryWatcher;
+import com.ggar.orchid.registry.JobRegistry;
+import com.ggar.orchid.registry.LoadedJob;
 import com.ggar.orchid.service.I18nService;
 import com.ggar.orchid.service.OrchestratorService;
+import com.ggar.orchid.service.ResourcePoolService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
@@ -21,20 +30,39 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class JobAutoLoaderConfig {
     private static final Logger log = LoggerFactory.getLogger(JobAutoLoaderConfig.class);
     private final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
     private static final String JOB_LIBS_DIR_NAME = "lib";
+    private static final String RESOURCES_FILE_NAME = "resources.yml";
     private final I18nService i18n;
+    private final JobRegistry jobRegistry;
+    private final ResourcePoolService resourcePoolService;
+    private final String externalJobsDirectory;
+    private final boolean watch;
+    private final long watchDebounceMillis;
 
     @Autowired
-    public JobAutoLoaderConfig(I18nService i18n) {
+    public JobAutoLoaderConfig(I18nService i18n, JobRegistry jobRegistry, ResourcePoolService resourcePoolService,
+                               @Value("${orchid.jobs.dir:}") String externalJobsDirectory,
+                               @Value("${orchid.jobs.watch:false}") boolean watch,
+                               @Value("${orchid.jobs.watch.debounce-millis:300}") long watchDebounceMillis) {
         this.i18n = i18n;
+        this.jobRegistry = jobRegistry;
+        this.resourcePoolService = resourcePoolService;
+        this.externalJobsDirectory = externalJobsDirectory;
+        this.watch = watch;
+        this.watchDebounceMillis = watchDebounceMillis;
     }
 
     private Set<String> parseJobsToRunArgument(String[] cliArgs) {
@@ -56,87 +84,198 @@ public class JobAutoLoaderConfig {
 
     @Bean
     public CommandLineRunner jobAutoLoadRunner(OrchestratorService orchestratorService) {
-        return args -> {
-            log.info(i18n.getMessage("job.autoloader.starting"));
-
-            Set<String> jobsToRun = parseJobsToRunArgument(args);
-            if (jobsToRun != null && jobsToRun.isEmpty() && Arrays.stream(args).anyMatch(a -> a.startsWith("--jobs="))) {
-                // Esto cubre el caso donde --jobs= fue provisto pero sin valor.
-                log.info(i18n.getMessage("job.autoloader.noJobsSpecifiedToRun"));
-                log.info(i18n.getMessage("job.autoloader.finished"));
-                return;
-            }
-            if (jobsToRun != null) {
-                log.info(i18n.getMessage("job.autoloader.specificJobsRequested", String.join(", ", jobsToRun)));
-            } else {
-                log.info(i18n.getMessage("job.autoloader.runningAllJobs"));
+        return args -> runJobs(args, orchestratorService);
+    }
+
+    // Compartido por el CommandLineRunner de Spring Boot y por OrchidLauncher
+    public void runJobs(String[] args, OrchestratorService orchestratorService) {
+        log.info(i18n.getMessage("job.autoloader.starting"));
+
+        Set<String> jobsToRun = parseJobsToRunArgument(args);
+        if (jobsToRun != null && jobsToRun.isEmpty() && Arrays.stream(args).anyMatch(a -> a.startsWith("--jobs="))) {
+            // Esto cubre el caso donde --jobs= fue provisto pero sin valor.
+            log.info(i18n.getMessage("job.autoloader.noJobsSpecifiedToRun"));
+            log.info(i18n.getMessage("job.autoloader.finished"));
+            return;
+        }
+        if (jobsToRun != null) {
+            log.info(i18n.getMessage("job.autoloader.specificJobsRequested", String.join(", ", jobsToRun)));
+        } else {
+            log.info(i18n.getMessage("job.autoloader.runningAllJobs"));
+        }
+
+
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(getClass().getClassLoader());
+        loadResourceDefinitions(resolver);
+        try {
+            List<Resource> jobResources = new ArrayList<>(Arrays.asList(resolver.getResources("classpath*:jobs/**/job.yml")));
+            if (StringUtils.hasText(externalJobsDirectory)) {
+                jobResources.addAll(Arrays.asList(resolver.getResources("file:" + Path.of(externalJobsDirectory).toAbsolutePath().normalize() + "/**/job.yml")));
+            }
+            if (jobResources.isEmpty()) {
+                log.warn(i18n.getMessage("job.autoloader.noJobFilesFound")); return;
             }
 
+            // Todos los jobs quedan registrados (un job puede invocar a otro); solo se ejecutan los pedidos
+            List<String> jobIdsToRun = new ArrayList<>();
+            Set<Path> jobDirectories = new LinkedHashSet<>();
+            for (Resource jobResource : jobResources) {
+                String jobResourcePath = "N/A";
+                try {
+                    jobResourcePath = jobResource.getURL().getPath();
+                } catch (IOException e) {
+                    log.warn(i18n.getMessage("job.autoloader.cannotGetJobResourcePath", jobResource.getDescription()));
+                }
+                log.info(i18n.getMessage("job.autoloader.processingJobFile", jobResourcePath));
 
-            ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(getClass().getClassLoader());
-            try {
-                Resource[] jobResources = resolver.getResources("classpath*:jobs/**/job.yml");
-                if (jobResources.length == 0) {
-                    log.warn(i18n.getMessage("job.autoloader.noJobFilesFound")); return;
+                JobDefinition jobDefinition;
+                try (InputStream jobInputStream = jobResource.getInputStream()) {
+                    jobDefinition = yamlMapper.readValue(jobInputStream, JobDefinition.class);
+                } catch (Exception e) {
+                    log.error(i18n.getMessage("job.autoloader.errorParsingJobFile", jobResourcePath, e.getMessage()), e); continue;
                 }
 
-                boolean anyJobExecuted = false;
-                for (Resource jobResource : jobResources) {
-                    String jobResourcePath = "N/A";
-                    try {
-                        jobResourcePath = jobResource.getURL().getPath();
-                    } catch (IOException e) {
-                        log.warn(i18n.getMessage("job.autoloader.cannotGetJobResourcePath", jobResource.getDescription()));
-                    }
-                    log.info(i18n.getMessage("job.autoloader.processingJobFile", jobResourcePath));
+                LoadedJob loadedJob = loadJob(jobResource, jobDefinition);
+                jobRegistry.register(loadedJob);
+                if (loadedJob.getSourceDirectory() != null) jobDirectories.add(loadedJob.getSourceDirectory());
 
-                    JobDefinition jobDefinition;
-                    try (InputStream jobInputStream = jobResource.getInputStream()) {
-                        jobDefinition = yamlMapper.readValue(jobInputStream, JobDefinition.class);
-                    } catch (Exception e) {
-                        log.error(i18n.getMessage("job.autoloader.errorParsingJobFile", jobResourcePath, e.getMessage()), e); continue;
-                    }
+                // FILTRADO DE JOBS
+                if (jobsToRun != null && !jobsToRun.contains(jobDefinition.getId())) {
+                    log.info(i18n.getMessage("job.autoloader.skippingJobNotRequested", jobDefinition.getId()));
+                    continue; // Saltar este job si no está en la lista de jobs a ejecutar
+                }
+                jobIdsToRun.add(jobDefinition.getId());
+            }
 
-                    // FILTRADO DE JOBS
-                    if (jobsToRun != null && !jobsToRun.contains(jobDefinition.getId())) {
-                        log.info(i18n.getMessage("job.autoloader.skippingJobNotRequested", jobDefinition.getId()));
-                        continue; // Saltar este job si no está en la lista de jobs a ejecutar
-                    }
+            for (String jobId : jobIdsToRun) {
+                runRegisteredJob(jobId, orchestratorService);
+            }
+            resourcePoolService.logStatistics();
+            if (jobsToRun != null && !jobsToRun.isEmpty() && jobIdsToRun.isEmpty()) {
+                log.warn(i18n.getMessage("job.autoloader.noMatchingJobsFound", String.join(", ", jobsToRun)));
+            }
 
-                    anyJobExecuted = true;
-                    Map<String, Object> initialParameters = loadAndFlattenInitialParameters(jobResource, jobDefinition);
-                    ClassLoader jobSpecificClassLoader = createJobSpecificClassLoader(jobResource, jobDefinition.getId());
+            if (watch) {
+                watchJobDirectories(jobDirectories, jobsToRun, orchestratorService);
+            }
+        } catch (FileNotFoundException e) {
+            log.warn(i18n.getMessage("job.autoloader.baseDirNotFound", e.getMessage()));
+        } catch (IOException e) {
+            log.error(i18n.getMessage("job.autoloader.errorScanningJobDirs", e.getMessage()), e);
+        }
+        log.info(i18n.getMessage("job.autoloader.finished"));
+    }
 
-                    if (jobDefinition.getInitialContextParameters() != null) {
-                        for (String requiredParam : jobDefinition.getInitialContextParameters()) {
-                            if (!initialParameters.containsKey(requiredParam)) {
-                                log.warn(i18n.getMessage("job.autoloader.missingRequiredParameter", jobDefinition.getId(), requiredParam));
-                            }
-                        }
-                    }
-                    log.info(i18n.getMessage("job.autoloader.executingJobWithLoader",
-                            Optional.ofNullable(jobDefinition.getDescription()).orElse(i18n.getMessage("job.autoloader.noDescription")),
-                            jobDefinition.getId(),
-                            jobSpecificClassLoader.toString()));
-                    try {
-                        orchestratorService.executeJob(jobDefinition, initialParameters, jobSpecificClassLoader);
-                        log.info(i18n.getMessage("job.autoloader.jobCompletedSuccessfully", jobDefinition.getId()));
-                    } catch (Exception e) {
-                        log.error(i18n.getMessage("job.autoloader.errorDuringJobExecution", jobDefinition.getId(), e.getMessage()), e);
-                    }
-                    log.info(i18n.getMessage("job.autoloader.jobSeparator"));
-                }
-                if (jobsToRun != null && !jobsToRun.isEmpty() && !anyJobExecuted) {
-                    log.warn(i18n.getMessage("job.autoloader.noMatchingJobsFound", String.join(", ", jobsToRun)));
+    // jobs/resources.yml del classpath y, si existe, el de orchid.jobs.dir, que redefine los recursos con el mismo nombre
+    private void loadResourceDefinitions(ResourcePatternResolver resolver) {
+        List<Resource> configResources = new ArrayList<>();
+        try {
+            configResources.addAll(Arrays.asList(resolver.getResources("classpath*:jobs/" + RESOURCES_FILE_NAME)));
+            if (StringUtils.hasText(externalJobsDirectory)) {
+                configResources.add(resolver.getResource("file:" + Path.of(externalJobsDirectory, RESOURCES_FILE_NAME).toAbsolutePath().normalize()));
+            }
+        } catch (IOException e) {
+            log.error(i18n.getMessage("resources.configError", "classpath*:jobs/" + RESOURCES_FILE_NAME, e.getMessage()), e);
+        }
+        Map<String, ResourceDefinition> definitions = new LinkedHashMap<>();
+        for (Resource configResource : configResources) {
+            if (!configResource.exists()) continue;
+            try (InputStream configInputStream = configResource.getInputStream()) {
+                OrchestrationConfig config = yamlMapper.readValue(configInputStream, OrchestrationConfig.class);
+                if (config != null && config.getResources() != null) definitions.putAll(config.getResources());
+            } catch (IOException e) {
+                log.error(i18n.getMessage("resources.configError", configResource.getDescription(), e.getMessage()), e);
+            }
+        }
+        resourcePoolService.configure(definitions);
+    }
+
+    private LoadedJob loadJob(Resource jobResource, JobDefinition jobDefinition) {
+        Map<String, Object> initialParameters = loadAndFlattenInitialParameters(jobResource, jobDefinition);
+        ClassLoader jobSpecificClassLoader = createJobSpecificClassLoader(jobResource, jobDefinition.getId());
+
+        if (jobDefinition.getInitialContextParameters() != null) {
+            for (String requiredParam : jobDefinition.getInitialContextParameters()) {
+                if (!initialParameters.containsKey(requiredParam)) {
+                    log.warn(i18n.getMessage("job.autoloader.missingRequiredParameter", jobDefinition.getId(), requiredParam));
                 }
+            }
+        }
+        return new LoadedJob(jobDefinition, jobRegistry.nextVersion(), initialParameters, jobSpecificClassLoader,
+                jobSpecificClassLoader != getClass().getClassLoader(), jobDirectoryOf(jobResource));
+    }
 
-            } catch (FileNotFoundException e) {
-                log.warn(i18n.getMessage("job.autoloader.baseDirNotFound", e.getMessage()));
-            } catch (IOException e) {
-                log.error(i18n.getMessage("job.autoloader.errorScanningJobDirs", e.getMessage()), e);
+    // La ejecución reserva la versión vigente: si el job se recarga mientras tanto, termina con la que empezó
+    private void runRegisteredJob(String jobId, OrchestratorService orchestratorService) {
+        try (JobRegistry.Lease lease = jobRegistry.acquire(jobId)) {
+            LoadedJob loadedJob = lease.job();
+            JobDefinition jobDefinition = loadedJob.getDefinition();
+            log.info(i18n.getMessage("job.autoloader.executingJobWithLoader",
+                    Optional.ofNullable(jobDefinition.getDescription()).orElse(i18n.getMessage("job.autoloader.noDescription")),
+                    jobDefinition.getId(),
+                    loadedJob.getClassLoader().toString()));
+            try {
+                orchestratorService.executeJob(jobDefinition, new HashMap<>(loadedJob.getInitialParameters()), loadedJob.getClassLoader());
+                log.info(i18n.getMessage("job.autoloader.jobCompletedSuccessfully", jobDefinition.getId()));
+            } catch (Exception e) {
+                log.error(i18n.getMessage("job.autoloader.errorDuringJobExecution", jobDefinition.getId(), e.getMessage()), e);
             }
-            log.info(i18n.getMessage("job.autoloader.finished"));
-        };
+        }
+        log.info(i18n.getMessage("job.autoloader.jobSeparator"));
+    }
+
+    // Modo de larga duración (orchid.jobs.watch=true): recarga solo el job cuyo directorio cambia y, si estaba
+    // entre los pedidos, lo vuelve a ejecutar con la versión nueva en otro hilo. Bloquea hasta que el proceso termina.
+    private void watchJobDirectories(Set<Path> jobDirectories, Set<String> jobsToRun, OrchestratorService orchestratorService) {
+        if (jobDirectories.isEmpty()) {
+            log.warn(i18n.getMessage("job.watcher.nothingToWatch"));
+            return;
+        }
+        ExecutorService jobRunner = Executors.newCachedThreadPool(ExecutionConfig.namedDaemonThreads("orchid-job-run-"));
+        try (JobDirectoryWatcher watcher = new JobDirectoryWatcher(i18n, jobDirectories, watchDebounceMillis, jobDirectory -> {
+            String reloadedJobId = reloadJobDirectory(jobDirectory);
+            if (reloadedJobId != null && (jobsToRun == null || jobsToRun.contains(reloadedJobId))) {
+                jobRunner.execute(() -> runRegisteredJob(reloadedJobId, orchestratorService));
+            }
+        })) {
+            watcher.awaitTermination();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            jobRunner.shutdown();
+        }
+    }
+
+    // Devuelve el id de la versión nueva, o null si el job se ha borrado o no se puede cargar (sigue la anterior)
+    private String reloadJobDirectory(Path jobDirectory) {
+        Optional<LoadedJob> current = jobRegistry.findBySourceDirectory(jobDirectory);
+        Path jobFile = jobDirectory.resolve("job.yml");
+        if (!Files.isRegularFile(jobFile)) {
+            current.ifPresent(job -> jobRegistry.unregister(job.getId()));
+            return null;
+        }
+        Resource jobResource = new FileSystemResource(jobFile);
+        JobDefinition jobDefinition;
+        try (InputStream jobInputStream = jobResource.getInputStream()) {
+            jobDefinition = yamlMapper.readValue(jobInputStream, JobDefinition.class);
+        } catch (Exception e) {
+            log.error(i18n.getMessage("job.watcher.reloadRejected", jobFile, e.getMessage()));
+            return null;
+        }
+        LoadedJob reloaded = loadJob(jobResource, jobDefinition);
+        jobRegistry.register(reloaded);
+        // Si ha cambiado el id, la versión anterior se retira con su id antiguo
+        current.filter(job -> !job.getId().equals(reloaded.getId())).ifPresent(job -> jobRegistry.unregister(job.getId()));
+        return reloaded.getId();
+    }
+
+    private Path jobDirectoryOf(Resource jobResource) {
+        try {
+            URL jobUrl = jobResource.getURL();
+            return "file".equals(jobUrl.getProtocol()) ? Path.of(jobUrl.toURI()).getParent() : null;
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
     private Map<String, Object> loadAndFlattenInitialParameters(Resource jobResource, JobDefinition jobDefinition) {
@@ -185,6 +324,11 @@ public class JobAutoLoaderConfig {
     }
 
     private ClassLoader createJobSpecificClassLoader(Resource jobResource, String jobId) {
+        if (NativeDetector.inNativeImage()) {
+            // Mundo cerrado: una imagen nativa no puede definir clases nuevas, los plugins van compilados dentro de ella
+            log.info(i18n.getMessage("job.classloader.nativeClosedWorld", jobId));
+            return getClass().getClassLoader();
+        }
         List<URL> pluginUrls = new ArrayList<>();
         String jobResourceDescription = jobResource.getDescription();
         log.debug(i18n.getMessage("job.classloader.creatingForJob", jobId, jobResourceDescription));
@@ -0,0 +1,67 @@
+package com.ggar.orchid.config;
+
+import com.ggar.orchid.collections.IntBitSet;
+import com.ggar.orchid.collections.IntList;
+import com.ggar.orchid.collections.LongList;
+import com.ggar.orchid.collections.OffHeapLongArray;
+import com.ggar.orchid.context.MergePolicy;
+import com.ggar.orchid.io.ReadMode;
+import com.ggar.orchid.io.RecordFormat;
+import com.ggar.orchid.io.RecordSource;
+import com.ggar.orchid.model.*;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+// Metadatos de alcanzabilidad para la imagen nativa (Spring AOT). Jackson instancia el modelo de los job.yml por
+// reflexión, SpEL resuelve T()/new/métodos en tiempo de ejecución y JavaMethodActionExecutor invoca métodos de plugins:
+// nada de eso lo ve el análisis estático de GraalVM. Las clases de plugins del modo de mundo cerrado se pasan al
+// procesado AOT con la propiedad orchid.native.plugin-classes (lista separada por comas).
+public class OrchidRuntimeHints implements RuntimeHintsRegistrar {
+    public static final String PLUGIN_CLASSES_PROPERTY = "orchid.native.plugin-classes";
+
+    private static final MemberCategory[] JSON_MODEL = {
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS
+    };
+    private static final MemberCategory[] SPEL_ACCESSIBLE = {
+            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.PUBLIC_FIELDS
+    };
+
+    private static final List<Class<?>> MODEL_TYPES = List.of(
+            JobDefinition.class, StageDefinition.class, OrchestrationConfig.class, Action.class,
+            SpelAction.class, LoopAction.class, ConditionalAction.class, CommandAction.class, JavaMethodAction.class,
+            FileAction.class, HttpAction.class, HttpAction.ResponseType.class, FilterAction.class, FilterAction.Mode.class,
+            PipelineAction.class, PipelineAction.Collector.class, PipelineStage.class, SwitchAction.class, SwitchCase.class,
+            AwaitAction.class, JobAction.class, CacheDefinition.class, CacheDefinition.Scope.class, MergePolicy.class,
+            ResourceDefinition.class, SourceAction.class, RecordFormat.class, ReadMode.class);
+
+    // Tipos que los jobs incluidos usan desde SpEL (new java.util.ArrayList(), T(java.lang.System)...)
+    private static final List<Class<?>> SPEL_TYPES = List.of(
+            LongList.class, IntList.class, IntBitSet.class, OffHeapLongArray.class, RecordSource.class,
+            java.util.ArrayList.class, java.util.LinkedList.class, java.util.HashMap.class, java.util.LinkedHashMap.class,
+            java.util.HashSet.class, java.util.Arrays.class, java.util.Collections.class,
+            java.lang.System.class, java.lang.Math.class, java.lang.String.class, java.lang.Long.class, java.lang.Integer.class,
+            java.lang.Double.class, java.lang.Boolean.class, java.nio.file.Path.class, java.nio.file.Paths.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern("i18n/*.properties");
+        hints.resources().registerPattern("jobs/**");
+        MODEL_TYPES.forEach(type -> hints.reflection().registerType(type, JSON_MODEL));
+        SPEL_TYPES.forEach(type -> hints.reflection().registerType(type, SPEL_ACCESSIBLE));
+
+        String pluginClasses = System.getProperty(PLUGIN_CLASSES_PROPERTY);
+        if (StringUtils.hasText(pluginClasses)) {
+            for (String className : StringUtils.commaDelimitedListToStringArray(pluginClasses)) {
+                if (!StringUtils.hasText(className)) continue;
+                hints.reflection().registerType(TypeReference.of(className.trim()),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.PUBLIC_FIELDS);
+            }
+        }
+    }
+}
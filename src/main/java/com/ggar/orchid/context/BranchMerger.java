@@ -0,0 +1,63 @@
+package com.ggar.orchid.context;
+
+import com.ggar.orchid.service.I18nService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Aplica las escrituras de las ramas sobre el contexto padre, una rama cada vez y en orden.
+// Recuerda qué rama escribió cada clave durante todo el join para poder aplicar la MergePolicy.
+public class BranchMerger {
+    private final Map<String, Object> target;
+    private final MergePolicy policy;
+    private final I18nService i18n;
+    private final Map<String, Integer> writtenBy = new HashMap<>();
+    private int branchCount = 0;
+
+    public BranchMerger(Map<String, Object> target, MergePolicy policy, I18nService i18n) {
+        this.target = target;
+        this.policy = policy != null ? policy : MergePolicy.LAST_WRITER_WINS;
+        this.i18n = i18n;
+    }
+
+    public void merge(ContextBranch branch) {
+        try {
+            apply(branch);
+        } finally {
+            branch.releaseRetained();
+        }
+    }
+
+    // Descarta una rama sin aplicarla (falló o no llegó a unirse). Repetirlo, o hacerlo tras merge, no tiene efecto
+    public void discard(ContextBranch branch) {
+        branch.releaseRetained();
+    }
+
+    private void apply(ContextBranch branch) {
+        int branchIndex = branchCount++;
+        if (policy == MergePolicy.FAIL_ON_CONFLICT) {
+            // Validar antes de aplicar nada para no dejar el contexto a medio unir
+            for (String key : branch.getWrites().keySet()) checkConflict(key, branchIndex);
+            for (String key : branch.getRemovals()) checkConflict(key, branchIndex);
+        }
+        branch.getWrites().forEach((key, value) -> {
+            if (policy == MergePolicy.FIRST_WRITER_WINS && writtenBy.containsKey(key)) return;
+            writtenBy.put(key, branchIndex);
+            // ConcurrentHashMap no admite null: una escritura null en la rama equivale a eliminar la clave
+            if (value != null) target.put(key, value);
+            else target.remove(key);
+        });
+        for (String key : branch.getRemovals()) {
+            if (policy == MergePolicy.FIRST_WRITER_WINS && writtenBy.containsKey(key)) continue;
+            writtenBy.put(key, branchIndex);
+            target.remove(key);
+        }
+    }
+
+    private void checkConflict(String key, int branchIndex) {
+        Integer previousWriter = writtenBy.get(key);
+        if (previousWriter != null && previousWriter != branchIndex) {
+            throw new ContextMergeConflictException(i18n.getMessage("context.merge.conflict.runtime", key, previousWriter, branchIndex));
+        }
+    }
+}
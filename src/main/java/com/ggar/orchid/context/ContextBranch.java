@@ -0,0 +1,76 @@
+package com.ggar.orchid.context;
+
+import java.util.*;
+
+// Rama copy-on-write del jobContext para ejecución paralela. Las lecturas van sin bloqueo al contexto
+// base salvo que la rama haya escrito o borrado la clave; las escrituras quedan en la rama hasta que un
+// BranchMerger las aplica sobre el contexto padre en el punto de join. Mientras haya ramas vivas el
+// contexto base no debe modificarse: así cada rama ve una instantánea consistente sin copiarla.
+// Solo se aíslan las claves del contexto: los objetos mutables compartidos (listas, clientes...) no se clonan.
+// Un OffHeapBytes escrito en la rama se retiene hasta el merge, por si otra rama sobrescribe antes su clave de origen.
+public class ContextBranch extends AbstractMap<String, Object> {
+    private final Map<String, Object> base;
+    private final Map<String, Object> writes = new HashMap<>();
+    private final Set<String> removals = new HashSet<>();
+    private final List<OffHeapBytes> retained = new ArrayList<>();
+
+    public ContextBranch(Map<String, Object> base) {
+        this.base = Objects.requireNonNull(base, "base");
+    }
+
+    public Map<String, Object> getWrites() {
+        return Collections.unmodifiableMap(writes);
+    }
+
+    public Set<String> getRemovals() {
+        return Collections.unmodifiableSet(removals);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (writes.containsKey(key)) return writes.get(key);
+        if (removals.contains(key)) return null;
+        return base.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (writes.containsKey(key)) return true;
+        return !removals.contains(key) && base.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object previous = get(key);
+        removals.remove(key);
+        writes.put(key, value);
+        if (value instanceof OffHeapBytes handle && handle.retain()) retained.add(handle);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        Object previous = get(key);
+        if (key instanceof String stringKey) {
+            writes.remove(stringKey);
+            if (base.containsKey(stringKey)) removals.add(stringKey);
+        }
+        return previous;
+    }
+
+    // BranchMerger, una vez aplicadas (o descartadas) las escrituras de la rama
+    void releaseRetained() {
+        retained.forEach(OffHeapBytes::release);
+        retained.clear();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        base.forEach((key, value) -> {
+            if (!removals.contains(key)) view.put(key, value);
+        });
+        view.putAll(writes);
+        return Collections.unmodifiableMap(view).entrySet();
+    }
+}
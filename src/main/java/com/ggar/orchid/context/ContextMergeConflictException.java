@@ -0,0 +1,9 @@
+package com.ggar.orchid.context;
+
+public class ContextMergeConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ContextMergeConflictException(String message) {
+        super(message);
+    }
+}
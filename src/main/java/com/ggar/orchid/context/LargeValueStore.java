@@ -0,0 +1,99 @@
+package com.ggar.orchid.context;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Almacén por ejecución de job para valores grandes del contexto. Los byte[] y ByteBuffer de heap que superan el
+// umbral se mueven a memoria nativa o a un fichero temporal mapeado. Cada valor se libera cuando deja de estar
+// referenciado (OffHeapBytes cuenta sus referencias) y los que sigan vivos se liberan al cerrar el almacén.
+public class LargeValueStore implements AutoCloseable {
+    public enum Mode { DIRECT, MAPPED_FILE }
+
+    private final String jobId;
+    private final long thresholdBytes;
+    private final Mode mode;
+    private final Path spillDirectory;
+    private final Set<OffHeapBytes> liveHandles = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger offloadedCount = new AtomicInteger();
+    private final AtomicLong offloadedBytes = new AtomicLong();
+
+    public LargeValueStore(String jobId, long thresholdBytes, Mode mode, Path spillDirectory) {
+        this.jobId = jobId;
+        this.thresholdBytes = thresholdBytes;
+        this.mode = mode;
+        this.spillDirectory = spillDirectory;
+    }
+
+    // Devuelve el propio valor si no hay que moverlo, o un OffHeapBytes con su contenido
+    public Object offload(Object value) {
+        if (thresholdBytes <= 0) return value;
+        if (value instanceof byte[] bytes && bytes.length >= thresholdBytes) {
+            return store(ByteBuffer.wrap(bytes));
+        }
+        if (value instanceof ByteBuffer byteBuffer && !byteBuffer.isDirect() && byteBuffer.remaining() >= thresholdBytes) {
+            return store(byteBuffer.duplicate());
+        }
+        return value;
+    }
+
+    private OffHeapBytes store(ByteBuffer source) {
+        OffHeapBytes handle = mode == Mode.MAPPED_FILE ? mapToFile(source) : copyToDirect(source);
+        liveHandles.add(handle);
+        offloadedCount.incrementAndGet();
+        offloadedBytes.addAndGet(handle.size());
+        return handle;
+    }
+
+    private OffHeapBytes copyToDirect(ByteBuffer source) {
+        ByteBuffer direct = ByteBuffer.allocateDirect(source.remaining());
+        direct.put(source).flip();
+        return new OffHeapBytes(direct, null, this);
+    }
+
+    private OffHeapBytes mapToFile(ByteBuffer source) {
+        try {
+            Files.createDirectories(spillDirectory);
+            Path file = Files.createTempFile(spillDirectory, "orchid-" + jobId.replaceAll("[^A-Za-z0-9_.-]", "_") + "-", ".bin");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                int size = source.remaining();
+                while (source.hasRemaining()) channel.write(source);
+                // El mapeo sigue siendo válido después de cerrar el canal
+                return new OffHeapBytes(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), file, this);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill context value of job '" + jobId + "' to " + spillDirectory, e);
+        }
+    }
+
+    void forget(OffHeapBytes handle) {
+        liveHandles.remove(handle);
+    }
+
+    // Valores movidos fuera del heap durante la ejecución (liberados o no)
+    public int getOffloadedCount() {
+        return offloadedCount.get();
+    }
+
+    public int getLiveCount() {
+        return liveHandles.size();
+    }
+
+    public long getOffloadedBytes() {
+        return offloadedBytes.get();
+    }
+
+    @Override
+    public void close() {
+        for (OffHeapBytes handle : List.copyOf(liveHandles)) handle.free();
+    }
+}
@@ -0,0 +1,28 @@
+package com.ggar.orchid.context;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+
+@Component
+public class LargeValueStoreFactory {
+    private final long thresholdBytes;
+    private final LargeValueStore.Mode mode;
+    private final Path spillDirectory;
+
+    @Autowired
+    public LargeValueStoreFactory(@Value("${orchid.context.offheap.threshold-bytes:1048576}") long thresholdBytes,
+                                  @Value("${orchid.context.offheap.mode:DIRECT}") LargeValueStore.Mode mode,
+                                  @Value("${orchid.context.offheap.spill-dir:}") String spillDirectory) {
+        this.thresholdBytes = thresholdBytes;
+        this.mode = mode;
+        this.spillDirectory = StringUtils.hasText(spillDirectory) ? Path.of(spillDirectory) : Path.of(System.getProperty("java.io.tmpdir"), "orchid-spill");
+    }
+
+    public LargeValueStore open(String jobId) {
+        return new LargeValueStore(jobId, thresholdBytes, mode, spillDirectory);
+    }
+}
@@ -0,0 +1,9 @@
+package com.ggar.orchid.context;
+
+// Cómo resolver las claves escritas por más de una rama al unirlas (join) en el contexto padre.
+// Las ramas se unen siempre en orden de declaración/iteración, por lo que el resultado es determinista.
+public enum MergePolicy {
+    LAST_WRITER_WINS,  // la rama posterior sobrescribe a la anterior
+    FIRST_WRITER_WINS, // se conserva el valor de la primera rama que escribió la clave
+    FAIL_ON_CONFLICT   // dos ramas escribiendo la misma clave aborta el join
+}
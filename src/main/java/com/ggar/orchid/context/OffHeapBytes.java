@@ -0,0 +1,135 @@
+package com.ggar.orchid.context;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Handle a un bloque de bytes guardado fuera del heap (ByteBuffer directo o fichero temporal mapeado en memoria).
+// Es lo que ven las expresiones SpEL en lugar del byte[] original: #page.size(), #page.toByteArray(), #page.inputStream()...
+// Lleva un contador de referencias: cada clave del jobContext que lo contiene cuenta una, y quien lo use más allá
+// (una escritura write-behind, una petición asíncrona) la toma con retain() y la devuelve con release(). La memoria
+// se libera en cuanto nadie lo referencia, p. ej. al sobrescribir la clave, o como muy tarde al terminar el job.
+// Quien necesite los bytes después de sobrescribir o borrar su clave debe copiarlos con toByteArray().
+public final class OffHeapBytes {
+    private final ByteBuffer buffer;
+    private final Path backingFile;
+    private final LargeValueStore owner;
+    private final AtomicInteger references = new AtomicInteger(1); // la del jobContext que lo crea
+    private volatile boolean released = false;
+
+    OffHeapBytes(ByteBuffer buffer, Path backingFile, LargeValueStore owner) {
+        this.buffer = buffer;
+        this.backingFile = backingFile;
+        this.owner = owner;
+    }
+
+    public int size() {
+        return buffer.capacity();
+    }
+
+    public boolean isFileBacked() {
+        return backingFile != null;
+    }
+
+    // Vista de solo lectura con posición propia; no copia los datos
+    public ByteBuffer asByteBuffer() {
+        checkNotReleased();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[size()];
+        asByteBuffer().get(bytes);
+        return bytes;
+    }
+
+    public InputStream inputStream() {
+        ByteBuffer view = asByteBuffer();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return view.hasRemaining() ? view.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] target, int offset, int length) {
+                if (!view.hasRemaining()) return -1;
+                int count = Math.min(length, view.remaining());
+                view.get(target, offset, count);
+                return count;
+            }
+
+            @Override
+            public int available() {
+                return view.remaining();
+            }
+        };
+    }
+
+    public long writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer view = asByteBuffer();
+        long written = 0;
+        while (view.hasRemaining()) written += channel.write(view);
+        return written;
+    }
+
+    // false si ya se ha liberado: el valor no se puede usar
+    public boolean retain() {
+        while (true) {
+            int current = references.get();
+            if (current <= 0) return false;
+            if (references.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    public void release() {
+        if (references.decrementAndGet() == 0) free();
+    }
+
+    // Libera la memoria aunque queden referencias: LargeValueStore al cerrar la ejecución
+    void free() {
+        references.set(0);
+        synchronized (this) {
+            if (released) return;
+            released = true;
+        }
+        if (owner != null) owner.forget(this);
+        freeDirectBuffer(buffer);
+        if (backingFile != null) {
+            try {
+                Files.deleteIfExists(backingFile);
+            } catch (IOException ignored) {
+                backingFile.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    private void checkNotReleased() {
+        if (released) throw new IllegalStateException("Off-heap value was released: its context key was overwritten or removed, or its job finished");
+    }
+
+    // Libera la memoria nativa / el mapeo sin esperar al GC. Si la JVM no lo permite, se deja en manos del Cleaner.
+    public static void freeDirectBuffer(ByteBuffer buffer) {
+        if (!buffer.isDirect()) return;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            // El Cleaner del buffer liberará la memoria cuando deje de ser alcanzable
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapBytes[size=" + size() + (backingFile != null ? ", file=" + backingFile : ", direct") + (released ? ", released" : "") + "]";
+    }
+}
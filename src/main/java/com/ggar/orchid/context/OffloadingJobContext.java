@@ -0,0 +1,67 @@
+package com.ggar.orchid.context;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// jobContext raíz de una ejecución: un ConcurrentHashMap cuyos put pasan por el LargeValueStore, de modo que tanto
+// returnToContextAs como las asignaciones SpEL (#jobContext['x'] = ...) mueven los valores grandes fuera del heap.
+// Un put con valor null elimina la clave, ya que ConcurrentHashMap no admite nulls.
+// Cada clave que contiene un OffHeapBytes cuenta como una referencia: sobrescribir o eliminar la clave la devuelve,
+// así que un loop que reescribe la misma clave en cada iteración mantiene un solo valor fuera del heap.
+public class OffloadingJobContext extends AbstractMap<String, Object> {
+    private final Map<String, Object> delegate = new ConcurrentHashMap<>();
+    private final LargeValueStore largeValueStore;
+
+    public OffloadingJobContext(LargeValueStore largeValueStore) {
+        this.largeValueStore = largeValueStore;
+    }
+
+    @Override
+    public Object get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (value == null) return remove(key);
+        Object stored = largeValueStore.offload(value);
+        // Un handle que ya estaba en el contexto (#jobContext['b'] = #jobContext['a']) suma una referencia
+        if (stored == value && value instanceof OffHeapBytes handle) handle.retain();
+        Object previous = delegate.put(key, stored);
+        releaseIfHandle(previous);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        Object previous = delegate.remove(key);
+        releaseIfHandle(previous);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        for (String key : delegate.keySet()) remove(key);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return delegate.entrySet();
+    }
+
+    private static void releaseIfHandle(Object value) {
+        if (value instanceof OffHeapBytes handle) handle.release();
+    }
+}
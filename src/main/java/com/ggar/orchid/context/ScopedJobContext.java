@@ -0,0 +1,87 @@
+package com.ggar.orchid.context;
+
+import java.util.*;
+
+// Vista del jobContext con un frame léxico de variables locales (p.ej. las variables de un loop).
+// Las lecturas buscan primero en el frame y después en el contexto padre (que puede ser otro frame);
+// las escrituras de claves que no pertenecen al frame van directamente al padre, por lo que solo las
+// escrituras explícitas (returnToContextAs, #jobContext[...] = ...) llegan al jobContext compartido.
+// Un frame pertenece al hilo que ejecuta su loop y no es thread-safe por sí mismo.
+public class ScopedJobContext extends AbstractMap<String, Object> {
+    private final Map<String, Object> parent;
+    private final Map<String, Object> frame = new HashMap<>(4);
+
+    public ScopedJobContext(Map<String, Object> parent) {
+        this.parent = Objects.requireNonNull(parent, "parent");
+    }
+
+    // Declara o actualiza una variable local del frame; no toca el contexto padre
+    public void define(String name, Object value) {
+        frame.put(name, value);
+    }
+
+    public Map<String, Object> getParent() {
+        return parent;
+    }
+
+    // El contexto raíz (no-frame) sobre el que se apilan todos los frames
+    public Map<String, Object> root() {
+        Map<String, Object> current = parent;
+        while (current instanceof ScopedJobContext scoped) current = scoped.parent;
+        return current;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (frame.containsKey(key)) return frame.get(key);
+        return parent.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return frame.containsKey(key) || parent.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (frame.containsKey(key)) return frame.put(key, value);
+        return parent.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (frame.containsKey(key)) return frame.remove(key);
+        return parent.remove(key);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                Iterator<Entry<String, Object>> frameEntries = frame.entrySet().iterator();
+                Iterator<Entry<String, Object>> parentEntries = parent.entrySet().stream()
+                        .filter(e -> !frame.containsKey(e.getKey()))
+                        .iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return frameEntries.hasNext() || parentEntries.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        return frameEntries.hasNext() ? frameEntries.next() : parentEntries.next();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                int shadowed = 0;
+                for (String key : frame.keySet()) if (parent.containsKey(key)) shadowed++;
+                return frame.size() + parent.size() - shadowed;
+            }
+        };
+    }
+}
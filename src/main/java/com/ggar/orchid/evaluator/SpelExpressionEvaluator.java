@@ -1,35 +1,51 @@
 package com.ggar.orchid.evaluator;
 
+import com.ggar.orchid.concurrent.AsyncResults;
+import com.ggar.orchid.jfr.ExpressionEvaluationEvent;
+import com.ggar.orchid.profiling.ExpressionProfiler;
 import com.ggar.orchid.service.I18nService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.support.StandardTypeLocator;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 @Component
 public class SpelExpressionEvaluator {
     private static final Logger log = LoggerFactory.getLogger(SpelExpressionEvaluator.class);
+    private static final int MAX_CACHED_EXPRESSIONS = 4096;
     private final SpelExpressionParser spelParser = new SpelExpressionParser();
+    // Parsed expressions are immutable and thread-safe, but their AST nodes remember the methods and constructors they
+    // resolved, so they are cached per job class loader: retiring a job version drops only its own entries
+    private final ExpressionCache<ExpressionKey> expressionCache = new ExpressionCache<>(MAX_CACHED_EXPRESSIONS);
+    // prepare(): one MIXED-mode parser per class loader, and the expressions it parsed (and SpEL later compiled)
+    private final Map<ClassLoader, SpelExpressionParser> compilingParsers = new ConcurrentHashMap<>();
+    private final ExpressionCache<ExpressionKey> compiledExpressions = new ExpressionCache<>(MAX_CACHED_EXPRESSIONS);
     private final I18nService i18n;
-    @Autowired public SpelExpressionEvaluator(I18nService i18n) { this.i18n = i18n; }
+    private final ExpressionProfiler profiler;
+    @Autowired public SpelExpressionEvaluator(I18nService i18n, ExpressionProfiler profiler) { this.i18n = i18n; this.profiler = profiler; }
 
     public Object evaluate(String expression, Map<String, Object> contextMap, Map<String, Object> additionalVariables, ClassLoader jobSpecificClassLoader) {
         if (expression == null || expression.trim().isEmpty()) {
             log.trace(i18n.getMessage("spel.evaluator.emptyExpression")); return null;
         }
-        StandardEvaluationContext evalContext = new StandardEvaluationContext();
-        evalContext.setVariable("jobContext", contextMap);
-        if (contextMap != null) {
-            contextMap.forEach((key, value) -> {
-                if (!"jobContext".equals(key)) evalContext.setVariable(key, value);
-                else log.warn(i18n.getMessage("spel.evaluator.reservedKeyWarning", key));
-            });
+        if (contextMap != null && contextMap.containsKey("jobContext")) {
+            log.warn(i18n.getMessage("spel.evaluator.reservedKeyWarning", "jobContext"));
         }
+        JobContextEvaluationContext evalContext = new JobContextEvaluationContext(contextMap);
+        evalContext.setVariable("jobContext", contextMap);
         // Add additional variables, these can include #previousResult or #actionResult
         if (additionalVariables != null) {
             additionalVariables.forEach(evalContext::setVariable);
@@ -43,8 +59,8 @@ public class SpelExpressionEvaluator {
             } else {
                 log.trace(i18n.getMessage("spel.evaluator.tclDefault", originalContextClassLoader));
             }
-            Expression expr = spelParser.parseExpression(expression);
-            return expr.getValue(evalContext);
+            Expression expr = expressionCache.get(new ExpressionKey(jobSpecificClassLoader, expression), key -> spelParser.parseExpression(key.expression()));
+            return instrumentedGetValue(expression, expr, evalContext, profiler.currentAction());
         } catch (Exception e) {
             log.error(i18n.getMessage("spel.evaluator.evaluationError", expression, Thread.currentThread().getContextClassLoader(), e.getMessage()), e);
             throw new RuntimeException(i18n.getMessage("spel.evaluator.evaluationError.runtime", expression), e);
@@ -54,6 +70,15 @@ public class SpelExpressionEvaluator {
         }
     }
 
+    // Drops the expressions parsed for a job class loader (e.g. that of a retired job version): cached AST nodes and
+    // compiled expressions keep the last resolved methods and constructors, which would otherwise pin it.
+    // Expressions of other class loaders stay cached.
+    public int evictClassLoader(ClassLoader classLoader) {
+        compilingParsers.remove(classLoader);
+        return expressionCache.removeIf(key -> key.classLoader() == classLoader)
+                + compiledExpressions.removeIf(key -> key.classLoader() == classLoader);
+    }
+
     public <T> T evaluate(String expression, Map<String, Object> contextMap, Map<String, Object> additionalVariables, Class<T> expectedType, ClassLoader jobSpecificClassLoader) {
         Object value = evaluate(expression, contextMap, additionalVariables, jobSpecificClassLoader);
         if (value == null) {
@@ -85,4 +110,188 @@ public class SpelExpressionEvaluator {
         log.error(i18n.getMessage("spel.evaluator.typeConversionError", expression, value.getClass().getName(), expectedType.getName()));
         throw new ClassCastException(i18n.getMessage("spel.evaluator.typeConversionError.runtime", expression, value.getClass().getName(), expectedType.getName()));
     }
+
+    // Prepares an expression that is evaluated many times with a few per-element variables (pipeline stages, reducers).
+    // It is parsed in MIXED compiler mode, so SpEL compiles it to bytecode after the first evaluations, and the parsed
+    // expression is cached per class loader, so every pipeline using it shares the compiled code. Evaluation contexts
+    // are reused from a small pool owned by the PreparedExpression instead of being built per element; nothing is left
+    // behind on the worker threads. T() types are resolved with the job class loader through the type locator, so the
+    // thread context class loader is left untouched.
+    public PreparedExpression prepare(String expression, Map<String, Object> contextMap, Map<String, Object> additionalVariables, ClassLoader jobSpecificClassLoader) {
+        ClassLoader classLoader = jobSpecificClassLoader != null ? jobSpecificClassLoader : Thread.currentThread().getContextClassLoader();
+        try {
+            SpelExpressionParser compilingParser = compilingParsers.computeIfAbsent(classLoader,
+                    loader -> new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.MIXED, loader)));
+            Expression parsed = compiledExpressions.get(new ExpressionKey(classLoader, expression), key -> compilingParser.parseExpression(key.expression()));
+            return new PreparedExpression(expression, parsed, contextMap, additionalVariables, classLoader);
+        } catch (Exception e) {
+            log.error(i18n.getMessage("spel.evaluator.evaluationError", expression, classLoader, e.getMessage()), e);
+            throw new RuntimeException(i18n.getMessage("spel.evaluator.evaluationError.runtime", expression), e);
+        }
+    }
+
+    // classLoader is null for evaluations outside a job
+    private record ExpressionKey(ClassLoader classLoader, String expression) {
+    }
+
+    // Number of expressions parsed through prepare() that are still cached
+    int compiledExpressionCount() {
+        return compiledExpressions.size();
+    }
+
+    public final class PreparedExpression {
+        private final String source;
+        private final Expression expression;
+        private final Map<String, Object> contextMap;
+        private final Map<String, Object> additionalVariables;
+        private final ClassLoader classLoader;
+        // One context per concurrent evaluation at most; the pool goes away with the PreparedExpression
+        private final Queue<JobContextEvaluationContext> idleContexts = new ConcurrentLinkedQueue<>();
+        private final ExpressionProfiler.ActionScope profiledAction; // Las etapas se evalúan en otros hilos
+
+        private PreparedExpression(String source, Expression expression, Map<String, Object> contextMap, Map<String, Object> additionalVariables, ClassLoader classLoader) {
+            this.source = source;
+            this.expression = expression;
+            this.contextMap = contextMap;
+            this.additionalVariables = additionalVariables;
+            this.classLoader = classLoader;
+            this.profiledAction = profiler.currentAction();
+        }
+
+        public Object evaluate(String variable, Object value) {
+            JobContextEvaluationContext evalContext = borrowContext();
+            try {
+                evalContext.setVariable(variable, value);
+                return getValue(evalContext);
+            } finally {
+                idleContexts.offer(evalContext);
+            }
+        }
+
+        public Object evaluate(String firstVariable, Object firstValue, String secondVariable, Object secondValue) {
+            JobContextEvaluationContext evalContext = borrowContext();
+            try {
+                evalContext.setVariable(firstVariable, firstValue);
+                evalContext.setVariable(secondVariable, secondValue);
+                return getValue(evalContext);
+            } finally {
+                idleContexts.offer(evalContext);
+            }
+        }
+
+        private JobContextEvaluationContext borrowContext() {
+            JobContextEvaluationContext evalContext = idleContexts.poll();
+            if (evalContext != null) return evalContext;
+            evalContext = new JobContextEvaluationContext(contextMap);
+            evalContext.setTypeLocator(new StandardTypeLocator(classLoader));
+            evalContext.setVariable("jobContext", contextMap);
+            if (additionalVariables != null) additionalVariables.forEach(evalContext::setVariable);
+            return evalContext;
+        }
+
+        private Object getValue(JobContextEvaluationContext evalContext) {
+            try {
+                return instrumentedGetValue(source, expression, evalContext, profiledAction);
+            } catch (Exception e) {
+                log.error(i18n.getMessage("spel.evaluator.evaluationError", source, classLoader, e.getMessage()), e);
+                throw new RuntimeException(i18n.getMessage("spel.evaluator.evaluationError.runtime", source), e);
+            }
+        }
+    }
+
+    // Single evaluation point for both paths: emits the JFR event (dropped below its threshold) and feeds the profiler
+    private Object instrumentedGetValue(String source, Expression expression, StandardEvaluationContext evalContext, ExpressionProfiler.ActionScope profiledAction) {
+        ExpressionEvaluationEvent event = new ExpressionEvaluationEvent();
+        event.begin();
+        boolean failed = true;
+        try {
+            Object value = profiler.isEnabled() ? profiler.profile(source, profiledAction, () -> expression.getValue(evalContext)) : expression.getValue(evalContext);
+            failed = false;
+            return value;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.expression = source;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    // Parsed expressions, least recently used first. Expressions built per item (string concatenation in a
+    // loop) would otherwise grow the cache without limit; an evicted expression is simply parsed again.
+    private static final class ExpressionCache<K> {
+        private final Map<K, Expression> entries;
+
+        private ExpressionCache(int maxEntries) {
+            this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Expression> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        // Parsing happens outside the lock; two threads may parse the same new expression, and either result is valid
+        private Expression get(K key, Function<K, Expression> parser) {
+            synchronized (entries) {
+                Expression cached = entries.get(key);
+                if (cached != null) return cached;
+            }
+            Expression parsed = parser.apply(key);
+            synchronized (entries) {
+                Expression raced = entries.putIfAbsent(key, parsed);
+                return raced != null ? raced : parsed;
+            }
+        }
+
+        private int removeIf(Predicate<K> filter) {
+            synchronized (entries) {
+                int before = entries.size();
+                entries.keySet().removeIf(filter);
+                return before - entries.size();
+            }
+        }
+
+        private int size() {
+            synchronized (entries) {
+                return entries.size();
+            }
+        }
+    }
+
+    // Resolves #variables lazily (explicit variables first, then the context map) instead of copying the whole
+    // context into every evaluation context. Explicit variables live in StandardEvaluationContext's own table, so
+    // functions registered through the regular API stay visible; a variable set to null (#previousResult of an
+    // action that returned nothing) hides any context key with the same name.
+    // A pending CompletionStage found in the context map is joined on first access and replaced by its value, so
+    // later lookups (and other actions) see the plain result. #jobContext['key'] goes straight to the map and still
+    // returns the future itself.
+    static class JobContextEvaluationContext extends StandardEvaluationContext {
+        private final Map<String, Object> contextMap;
+        private final Set<String> nullVariables = new HashSet<>(); // StandardEvaluationContext no guarda valores null
+
+        JobContextEvaluationContext(Map<String, Object> contextMap) { this.contextMap = contextMap; }
+
+        @Override
+        public void setVariable(String name, Object value) {
+            super.setVariable(name, value);
+            if (value == null) nullVariables.add(name);
+            else nullVariables.remove(name);
+        }
+
+        @Override
+        public Object lookupVariable(String name) {
+            Object variable = super.lookupVariable(name);
+            if (variable != null || nullVariables.contains(name)) return variable;
+            if (contextMap == null) return null;
+            Object value = contextMap.get(name);
+            if (value instanceof CompletionStage<?> stage) {
+                Object resolved = AsyncResults.join(stage);
+                contextMap.replace(name, value, resolved);
+                return resolved;
+            }
+            return value;
+        }
+    }
 }
\ No newline at end of file
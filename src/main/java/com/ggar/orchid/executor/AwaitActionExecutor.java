@@ -0,0 +1,62 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.concurrent.AsyncResults;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.model.Action;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.AwaitAction;
+import com.ggar.orchid.service.I18nService;
+import com.ggar.orchid.service.OrchestratorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class AwaitActionExecutor implements ActionExecutor {
+    private static final Logger log = LoggerFactory.getLogger(AwaitActionExecutor.class);
+    private final SpelExpressionEvaluator spelEvaluator;
+    private final I18nService i18n;
+    public AwaitActionExecutor(SpelExpressionEvaluator spelEvaluator, I18nService i18n) { this.spelEvaluator = spelEvaluator; this.i18n = i18n; }
+
+    @Override
+    public Object execute(Action action, Map<String, Object> jobContext, OrchestratorService orchestratorService, ClassLoader jobSpecificClassLoader, ActionExecutionLineage lineage, Map<String, Object> additionalSpelVariables) {
+        AwaitAction awaitAction = (AwaitAction) action;
+        String actionName = Optional.ofNullable(awaitAction.getName()).orElse(i18n.getMessage("orchestrator.unnamedAction"));
+        try {
+            if (awaitAction.getKeys() != null && !awaitAction.getKeys().isEmpty()) {
+                return awaitKeys(awaitAction, jobContext, actionName);
+            }
+            Object target = spelEvaluator.evaluate(awaitAction.getExpression(), jobContext, additionalSpelVariables, jobSpecificClassLoader);
+            if (target instanceof CompletionStage<?> stage) {
+                log.debug(i18n.getMessage("executor.await.waiting", actionName, 1));
+                return AsyncResults.join(stage, awaitAction.getTimeoutSeconds(), TimeUnit.SECONDS);
+            }
+            if (target instanceof Collection<?> collection) {
+                log.debug(i18n.getMessage("executor.await.waiting", actionName, collection.size()));
+                return AsyncResults.joinAll(collection, awaitAction.getTimeoutSeconds(), TimeUnit.SECONDS);
+            }
+            return target; // Nada pendiente: el valor ya está resuelto
+        } catch (TimeoutException e) {
+            log.error(i18n.getMessage("executor.await.timeout", actionName, awaitAction.getTimeoutSeconds()));
+            throw new RuntimeException(i18n.getMessage("executor.await.timeout.runtime", actionName), e);
+        }
+    }
+
+    // Espera todas las claves a la vez y deja en el jobContext el valor resuelto en lugar del futuro
+    private Map<String, Object> awaitKeys(AwaitAction awaitAction, Map<String, Object> jobContext, String actionName) throws TimeoutException {
+        List<String> keys = awaitAction.getKeys();
+        List<Object> pending = new ArrayList<>(keys.size());
+        for (String key : keys) pending.add(jobContext.get(key));
+        log.debug(i18n.getMessage("executor.await.waiting", actionName, keys.size()));
+        List<Object> resolved = AsyncResults.joinAll(pending, awaitAction.getTimeoutSeconds(), TimeUnit.SECONDS);
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (pending.get(i) instanceof CompletionStage<?>) jobContext.put(keys.get(i), resolved.get(i));
+            results.put(keys.get(i), resolved.get(i));
+        }
+        return results;
+    }
+}
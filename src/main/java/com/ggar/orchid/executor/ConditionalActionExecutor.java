@@ -34,6 +34,9 @@ public class ConditionalActionExecutor implements ActionExecutor {
             orchestratorService.executeActions(conditionalAction.getThenActions(), jobContext, jobSpecificClassLoader, innerLineage, additionalSpelVariables.get(OrchestratorService.PREVIOUS_ACTION_RESULT_KEY));
         } else {
             log.debug(i18n.getMessage("executor.conditional.false", conditionalAction.getCondition()));
+            if (conditionalAction.getElseActions() != null) {
+                orchestratorService.executeActions(conditionalAction.getElseActions(), jobContext, jobSpecificClassLoader, innerLineage, additionalSpelVariables.get(OrchestratorService.PREVIOUS_ACTION_RESULT_KEY));
+            }
         }
         return null; // Conditional action en sí no devuelve un valor para #previousResult
     }
@@ -0,0 +1,51 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.model.Action;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.FileAction;
+import com.ggar.orchid.service.FileWriteService;
+import com.ggar.orchid.service.I18nService;
+import com.ggar.orchid.service.OrchestratorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+public class FileActionExecutor implements ActionExecutor {
+    private static final Logger log = LoggerFactory.getLogger(FileActionExecutor.class);
+    private final SpelExpressionEvaluator spelEvaluator;
+    private final I18nService i18n;
+    private final FileWriteService fileWriteService;
+    public FileActionExecutor(SpelExpressionEvaluator spelEvaluator, I18nService i18n, FileWriteService fileWriteService) { this.spelEvaluator = spelEvaluator; this.i18n = i18n; this.fileWriteService = fileWriteService; }
+
+    @Override
+    public Object execute(Action action, Map<String, Object> jobContext, OrchestratorService orchestratorService, ClassLoader jobSpecificClassLoader, ActionExecutionLineage lineage, Map<String, Object> additionalSpelVariables) {
+        FileAction fileAction = (FileAction) action;
+        String actionName = Optional.ofNullable(fileAction.getName()).orElse(fileAction.getPath());
+        if (!StringUtils.hasText(fileAction.getPath())) {
+            log.error(i18n.getMessage("executor.file.pathMissing", actionName));
+            throw new IllegalArgumentException(i18n.getMessage("executor.file.pathMissing.runtime", actionName));
+        }
+        Object evaluatedPath = spelEvaluator.evaluate(fileAction.getPath(), jobContext, additionalSpelVariables, jobSpecificClassLoader);
+        if (evaluatedPath == null) {
+            log.error(i18n.getMessage("executor.file.pathMissing", actionName));
+            throw new IllegalArgumentException(i18n.getMessage("executor.file.pathMissing.runtime", actionName));
+        }
+        Path target = evaluatedPath instanceof Path path ? path : Path.of(String.valueOf(evaluatedPath));
+        Object content = spelEvaluator.evaluate(fileAction.getContent(), jobContext, additionalSpelVariables, jobSpecificClassLoader);
+        if (fileAction.isAtomic() && fileAction.isAppend()) {
+            log.warn(i18n.getMessage("executor.file.atomicAppendIgnored", actionName));
+        }
+
+        if (fileAction.isAsync()) {
+            log.debug(i18n.getMessage("executor.file.queued", actionName, target));
+            return fileWriteService.writeAsync(lineage != null ? lineage.jobRunId() : null, target, content, fileAction.isAppend(), fileAction.isAtomic());
+        }
+        log.debug(i18n.getMessage("executor.file.writing", actionName, target));
+        return fileWriteService.write(target, content, fileAction.isAppend(), fileAction.isAtomic());
+    }
+}
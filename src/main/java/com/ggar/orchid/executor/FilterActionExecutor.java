@@ -0,0 +1,135 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.context.ScopedJobContext;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.model.Action;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.FilterAction;
+import com.ggar.orchid.service.I18nService;
+import com.ggar.orchid.service.OrchestratorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.BaseStream;
+
+public class FilterActionExecutor implements ActionExecutor {
+    private static final Logger log = LoggerFactory.getLogger(FilterActionExecutor.class);
+    private final SpelExpressionEvaluator spelEvaluator;
+    private final I18nService i18n;
+    private final ExecutorService workerPool;
+    public FilterActionExecutor(SpelExpressionEvaluator spelEvaluator, I18nService i18n, ExecutorService workerPool) { this.spelEvaluator = spelEvaluator; this.i18n = i18n; this.workerPool = workerPool; }
+
+    @Override
+    public Object execute(Action action, Map<String, Object> jobContext, OrchestratorService orchestratorService, ClassLoader jobSpecificClassLoader, ActionExecutionLineage lineage, Map<String, Object> additionalSpelVariables) {
+        FilterAction filterAction = (FilterAction) action;
+        String actionName = Optional.ofNullable(filterAction.getName()).orElse(i18n.getMessage("orchestrator.unnamedAction"));
+        if (!StringUtils.hasText(filterAction.getCollection()) || !StringUtils.hasText(filterAction.getPredicate())) {
+            log.error(i18n.getMessage("executor.filter.definitionIncomplete", actionName));
+            throw new IllegalArgumentException(i18n.getMessage("executor.filter.definitionIncomplete.runtime", actionName));
+        }
+        Object source = spelEvaluator.evaluate(filterAction.getCollection(), jobContext, additionalSpelVariables, jobSpecificClassLoader);
+        if (source == null) {
+            log.warn(i18n.getMessage("executor.filter.sourceNull", actionName));
+            return null;
+        }
+
+        if (filterAction.getMode() == FilterAction.Mode.IN_PLACE) {
+            if (!(source instanceof Collection<?> collection)) {
+                log.error(i18n.getMessage("executor.filter.notACollection", actionName, source.getClass().getName()));
+                throw new IllegalArgumentException(i18n.getMessage("executor.filter.notACollection.runtime", actionName, source.getClass().getName()));
+            }
+            int sizeBefore = collection.size();
+            if (filterAction.getParallelism() > 1) {
+                boolean[] keep = evaluateInParallel(filterAction, collection.toArray(), jobContext, additionalSpelVariables, jobSpecificClassLoader, actionName);
+                // removeIf recorre la colección en el mismo orden que toArray
+                int[] position = {0};
+                collection.removeIf(item -> !keep[position[0]++]);
+            } else {
+                ScopedJobContext scope = new ScopedJobContext(jobContext);
+                // Una sola pasada de compactación: ArrayList.removeIf no desplaza el array por cada elemento borrado
+                collection.removeIf(item -> !test(filterAction, scope, item, additionalSpelVariables, jobSpecificClassLoader));
+            }
+            log.debug(i18n.getMessage("executor.filter.completed", actionName, sizeBefore - collection.size(), collection.size()));
+            return collection;
+        }
+
+        Iterator<?> iterator = LoopActionExecutor.toIterator(source, false);
+        if (iterator == null) {
+            log.error(i18n.getMessage("executor.filter.notACollection", actionName, source.getClass().getName()));
+            throw new IllegalArgumentException(i18n.getMessage("executor.filter.notACollection.runtime", actionName, source.getClass().getName()));
+        }
+        List<Object> result = new ArrayList<>(source instanceof Collection<?> collection ? collection.size() : 16);
+        int examined = 0;
+        try {
+            if (filterAction.getParallelism() > 1) {
+                List<Object> items = new ArrayList<>();
+                iterator.forEachRemaining(items::add);
+                Object[] array = items.toArray();
+                boolean[] keep = evaluateInParallel(filterAction, array, jobContext, additionalSpelVariables, jobSpecificClassLoader, actionName);
+                for (int i = 0; i < array.length; i++) if (keep[i]) result.add(array[i]);
+                examined = array.length;
+            } else {
+                ScopedJobContext scope = new ScopedJobContext(jobContext);
+                while (iterator.hasNext()) {
+                    Object item = iterator.next();
+                    if (test(filterAction, scope, item, additionalSpelVariables, jobSpecificClassLoader)) result.add(item);
+                    examined++;
+                }
+            }
+        } finally {
+            // Los Stream y los iteradores AutoCloseable (RecordSource) se cierran aunque el predicado falle a mitad
+            closeQuietly(source instanceof BaseStream ? source : iterator, actionName);
+        }
+        log.debug(i18n.getMessage("executor.filter.completed", actionName, examined - result.size(), result.size()));
+        return result;
+    }
+
+    private void closeQuietly(Object source, String actionName) {
+        if (source instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn(i18n.getMessage("executor.filter.sourceCloseError", actionName, e.getMessage()));
+            }
+        }
+    }
+
+    private boolean test(FilterAction filterAction, ScopedJobContext scope, Object item, Map<String, Object> additionalSpelVariables, ClassLoader jobSpecificClassLoader) {
+        scope.define(filterAction.getIteratorVariable(), item);
+        return Boolean.TRUE.equals(spelEvaluator.evaluate(filterAction.getPredicate(), scope, additionalSpelVariables, Boolean.class, jobSpecificClassLoader));
+    }
+
+    // Reparte los elementos en 'parallelism' trozos contiguos; cada trozo usa su propio frame porque los frames no son thread-safe.
+    // El predicado debe ser una función pura del elemento: sus escrituras al jobContext no se aíslan.
+    private boolean[] evaluateInParallel(FilterAction filterAction, Object[] items, Map<String, Object> jobContext, Map<String, Object> additionalSpelVariables, ClassLoader jobSpecificClassLoader, String actionName) {
+        boolean[] keep = new boolean[items.length];
+        int chunks = Math.min(filterAction.getParallelism(), Math.max(1, items.length));
+        int chunkSize = (items.length + chunks - 1) / chunks;
+        List<Future<?>> futures = new ArrayList<>(chunks);
+        for (int start = 0; start < items.length; start += chunkSize) {
+            int from = start, to = Math.min(items.length, start + chunkSize);
+            futures.add(workerPool.submit(() -> {
+                ScopedJobContext scope = new ScopedJobContext(jobContext);
+                for (int i = from; i < to; i++) keep[i] = test(filterAction, scope, items[i], additionalSpelVariables, jobSpecificClassLoader);
+            }));
+        }
+        try {
+            for (Future<?> future : futures) future.get();
+        } catch (ExecutionException e) {
+            futures.forEach(pending -> pending.cancel(true));
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error(i18n.getMessage("executor.filter.predicateError", actionName, cause.getMessage()));
+            throw new RuntimeException(i18n.getMessage("executor.filter.predicateError.runtime", actionName), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(pending -> pending.cancel(true));
+            throw new RuntimeException(i18n.getMessage("executor.filter.predicateError.runtime", actionName), e);
+        }
+        return keep;
+    }
+}
@@ -0,0 +1,141 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.concurrent.TokenBucket;
+import com.ggar.orchid.context.OffHeapBytes;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.model.Action;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.HttpAction;
+import com.ggar.orchid.service.FileWriteService;
+import com.ggar.orchid.service.HttpClientService;
+import com.ggar.orchid.service.I18nService;
+import com.ggar.orchid.service.OrchestratorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class HttpActionExecutor implements ActionExecutor {
+    private static final Logger log = LoggerFactory.getLogger(HttpActionExecutor.class);
+    private final SpelExpressionEvaluator spelEvaluator;
+    private final I18nService i18n;
+    private final HttpClientService httpClientService;
+    private final FileWriteService fileWriteService;
+    public HttpActionExecutor(SpelExpressionEvaluator spelEvaluator, I18nService i18n, HttpClientService httpClientService, FileWriteService fileWriteService) {
+        this.spelEvaluator = spelEvaluator; this.i18n = i18n; this.httpClientService = httpClientService; this.fileWriteService = fileWriteService;
+    }
+
+    @Override
+    public Object execute(Action action, Map<String, Object> jobContext, OrchestratorService orchestratorService, ClassLoader jobSpecificClassLoader, ActionExecutionLineage lineage, Map<String, Object> additionalSpelVariables) {
+        HttpAction httpAction = (HttpAction) action;
+        String actionName = Optional.ofNullable(httpAction.getName()).orElse(httpAction.getUrl());
+        Object evaluatedUrl = spelEvaluator.evaluate(httpAction.getUrl(), jobContext, additionalSpelVariables, jobSpecificClassLoader);
+        if (evaluatedUrl == null) {
+            log.error(i18n.getMessage("executor.http.urlMissing", actionName));
+            throw new IllegalArgumentException(i18n.getMessage("executor.http.urlMissing.runtime", actionName));
+        }
+        URI uri = URI.create(String.valueOf(evaluatedUrl));
+        String method = Optional.ofNullable(httpAction.getMethod()).orElse("GET").toUpperCase();
+
+        Object body = StringUtils.hasText(httpAction.getBody())
+                ? spelEvaluator.evaluate(httpAction.getBody(), jobContext, additionalSpelVariables, jobSpecificClassLoader)
+                : null;
+        int retries = httpAction.getRetries();
+        // Un InputStream solo se puede leer una vez: un reintento enviaría un cuerpo vacío o a medias
+        if (body instanceof InputStream && retries > 0) {
+            log.warn(i18n.getMessage("executor.http.oneShotBodyNoRetries", actionName, retries));
+            retries = 0;
+        }
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(httpAction.getTimeoutSeconds()))
+                .method(method, bodyPublisher(body));
+        if (httpAction.getHeaders() != null) {
+            httpAction.getHeaders().forEach((header, valueExpression) ->
+                    requestBuilder.header(header, String.valueOf(spelEvaluator.evaluate(valueExpression, jobContext, additionalSpelVariables, jobSpecificClassLoader))));
+        }
+        HttpRequest request = requestBuilder.build();
+        HttpResponse.BodyHandler<?> bodyHandler = bodyHandler(httpAction, actionName, jobContext, additionalSpelVariables, jobSpecificClassLoader);
+
+        TokenBucket rateLimiter = httpAction.getRequestsPerSecond() > 0
+                ? httpClientService.rateLimiter(uri.getHost(), httpAction.getRequestsPerSecond(), httpAction.getBurst())
+                : null;
+        log.debug(i18n.getMessage("executor.http.sending", actionName, method, uri, httpAction.getResponseType()));
+
+        // Un cuerpo fuera del heap tiene que seguir vivo hasta el último intento, aunque se sobrescriba su clave.
+        // Se retiene justo antes de enviar: cualquier fallo al preparar la petición lo dejaría retenido
+        OffHeapBytes retainedBody = body instanceof OffHeapBytes offHeapBytes && offHeapBytes.retain() ? offHeapBytes : null;
+        CompletableFuture<? extends HttpResponse<?>> sent;
+        try {
+            sent = httpClientService.send(request, bodyHandler, retries, httpAction.getRetryBackoffMillis(), rateLimiter);
+        } catch (RuntimeException e) {
+            if (retainedBody != null) retainedBody.release();
+            throw e;
+        }
+        CompletableFuture<Object> result = sent
+                .whenComplete((response, error) -> {
+                    if (retainedBody != null) retainedBody.release();
+                })
+                .thenApply(response -> {
+                    log.debug(i18n.getMessage("executor.http.responseReceived", actionName, response.statusCode(), response.version()));
+                    if (httpAction.isFailOnErrorStatus() && response.statusCode() >= 400) {
+                        throw new CompletionException(new IllegalStateException(i18n.getMessage("executor.http.errorStatus.runtime", method, uri, response.statusCode())));
+                    }
+                    return response.body();
+                });
+
+        if (httpAction.isAsync()) return result;
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error(i18n.getMessage("executor.http.requestFailed", actionName, method, uri, cause.getMessage()));
+            throw new RuntimeException(i18n.getMessage("executor.http.requestFailed.runtime", actionName), cause);
+        }
+    }
+
+    // Todos los cuerpos salvo InputStream se pueden volver a enviar en un reintento
+    private HttpRequest.BodyPublisher bodyPublisher(Object body) {
+        if (body == null) return HttpRequest.BodyPublishers.noBody();
+        if (body instanceof byte[] bytes) return HttpRequest.BodyPublishers.ofByteArray(bytes);
+        if (body instanceof OffHeapBytes offHeapBytes) return HttpRequest.BodyPublishers.ofInputStream(offHeapBytes::inputStream);
+        if (body instanceof InputStream inputStream) return HttpRequest.BodyPublishers.ofInputStream(() -> inputStream);
+        if (body instanceof Path path) {
+            try {
+                return HttpRequest.BodyPublishers.ofFile(path);
+            } catch (FileNotFoundException e) {
+                throw new IllegalArgumentException(i18n.getMessage("executor.http.bodyFileNotFound.runtime", path), e);
+            }
+        }
+        return HttpRequest.BodyPublishers.ofString(String.valueOf(body));
+    }
+
+    private HttpResponse.BodyHandler<?> bodyHandler(HttpAction httpAction, String actionName, Map<String, Object> jobContext, Map<String, Object> additionalSpelVariables, ClassLoader jobSpecificClassLoader) {
+        switch (httpAction.getResponseType()) {
+            case BYTES: return HttpResponse.BodyHandlers.ofByteArray();
+            case FILE:
+                Object targetPath = StringUtils.hasText(httpAction.getTargetPath())
+                        ? spelEvaluator.evaluate(httpAction.getTargetPath(), jobContext, additionalSpelVariables, jobSpecificClassLoader)
+                        : null;
+                if (targetPath == null) {
+                    log.error(i18n.getMessage("executor.http.targetPathMissing", actionName));
+                    throw new IllegalArgumentException(i18n.getMessage("executor.http.targetPathMissing.runtime", actionName));
+                }
+                Path target = targetPath instanceof Path path ? path : Path.of(String.valueOf(targetPath));
+                fileWriteService.ensureParentDirectory(target);
+                // El cuerpo se escribe en disco a medida que llega, sin pasar por memoria
+                return HttpResponse.BodyHandlers.ofFile(target);
+            default: return HttpResponse.BodyHandlers.ofString();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.ggar.orchid.executor;
 
+import com.ggar.orchid.bootstrap.ApplicationContextProvider;
+import com.ggar.orchid.concurrent.SingleFlight;
+import com.ggar.orchid.context.OffHeapBytes;
 import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
 import com.ggar.orchid.model.Action;
 import com.ggar.orchid.model.ActionExecutionLineage;
@@ -8,15 +11,16 @@ import com.ggar.orchid.service.OrchestratorService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
-import org.springframework.context.ApplicationContext;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -25,11 +29,50 @@ import java.util.stream.Collectors;
 
 public class JavaMethodActionExecutor implements ActionExecutor {
     private static final Logger log = LoggerFactory.getLogger(JavaMethodActionExecutor.class);
-    private final ApplicationContext applicationContext;
+    private final ApplicationContextProvider applicationContextProvider;
     private final SpelExpressionEvaluator spelEvaluator;
     private final I18nService i18n;
-    public JavaMethodActionExecutor(ApplicationContext applicationContext, SpelExpressionEvaluator spelEvaluator, I18nService i18n) {
-        this.applicationContext = applicationContext; this.spelEvaluator = spelEvaluator; this.i18n = i18n;
+    private final SingleFlight<Object> inFlightCalls;
+    public JavaMethodActionExecutor(ApplicationContextProvider applicationContextProvider, SpelExpressionEvaluator spelEvaluator, I18nService i18n, SingleFlight<Object> inFlightCalls) {
+        this.applicationContextProvider = applicationContextProvider; this.spelEvaluator = spelEvaluator; this.i18n = i18n; this.inFlightCalls = inFlightCalls;
+    }
+
+    // Clave de coalescing: destino, método y argumentos ya coercidos (los arrays se comparan por contenido)
+    private record CallKey(Object target, Method method, Object[] args) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CallKey key && target.equals(key.target) && method.equals(key.method) && Arrays.deepEquals(args, key.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * target.hashCode() + method.hashCode()) + Arrays.deepHashCode(args);
+        }
+    }
+
+    private record ClassTarget(Class<?> type, Object[] constructorArgs) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ClassTarget target && type.equals(target.type) && Arrays.deepEquals(constructorArgs, target.constructorArgs);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + Arrays.deepHashCode(constructorArgs);
+        }
+    }
+
+    // Las instancias del contexto o de Spring son el destino por identidad, aunque su equals diga otra cosa
+    private record IdentityTarget(Object instance) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof IdentityTarget target && instance == target.instance;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(instance);
+        }
     }
 
     @Override
@@ -47,6 +90,7 @@ public class JavaMethodActionExecutor implements ActionExecutor {
 
         Object targetInstance = null;
         Class<?> targetClass = null;
+        Object[] perCallConstructorArgs = null; // No nulo si la instancia se crea en esta llamada a partir del nombre de clase
 
         if (jobContext.containsKey(targetIdentifier)) {
             targetInstance = jobContext.get(targetIdentifier);
@@ -60,7 +104,7 @@ public class JavaMethodActionExecutor implements ActionExecutor {
 
         if (targetInstance == null) {
             try {
-                targetInstance = applicationContext.getBean(targetIdentifier);
+                targetInstance = lookupBean(targetIdentifier, jobSpecificClassLoader);
                 targetClass = targetInstance.getClass();
                 log.debug(i18n.getMessage("executor.javamethod.resolvedAsBean", targetIdentifier));
             } catch (NoSuchBeanDefinitionException nsbe) {
@@ -95,7 +139,9 @@ public class JavaMethodActionExecutor implements ActionExecutor {
                             Constructor<?> constructor = targetClass.getDeclaredConstructor();
                             constructor.setAccessible(true);
                             targetInstance = constructor.newInstance();
+                            evaluatedConstructorArgs = new Object[0];
                         }
+                        perCallConstructorArgs = evaluatedConstructorArgs;
                         log.debug(i18n.getMessage("executor.javamethod.classInstantiated", targetIdentifier));
                     } catch (ClassNotFoundException cnfe) {
                         log.error(i18n.getMessage("executor.javamethod.classNotFoundInJobClassLoader", targetIdentifier, jobSpecificClassLoader), cnfe);
@@ -161,6 +207,19 @@ public class JavaMethodActionExecutor implements ActionExecutor {
             }
         }
 
+        if (!javaMethodAction.isCoalesce()) return invoke(methodToExecute, targetInstance, processedMethodArgs, logTargetName);
+        // Una instancia creada en cada llamada no sirve de clave: se identifica por su clase y los argumentos del constructor
+        Object target = perCallConstructorArgs != null
+                ? new ClassTarget(targetClass, perCallConstructorArgs)
+                : new IdentityTarget(targetInstance);
+        Method method = methodToExecute;
+        Object instance = targetInstance;
+        return inFlightCalls.execute(new CallKey(target, methodToExecute, processedMethodArgs),
+                () -> invoke(method, instance, processedMethodArgs, logTargetName),
+                () -> log.debug(i18n.getMessage("executor.javamethod.coalesced", logTargetName, action.getName(), lineage.toString())));
+    }
+
+    private Object invoke(Method methodToExecute, Object targetInstance, Object[] processedMethodArgs, String logTargetName) {
         try {
             ReflectionUtils.makeAccessible(methodToExecute);
             return ReflectionUtils.invokeMethod(methodToExecute, targetInstance, processedMethodArgs);
@@ -171,6 +230,15 @@ public class JavaMethodActionExecutor implements ActionExecutor {
         }
     }
 
+    // Si el contexto aún no existe (OrchidLauncher) y el identificador es una clase cargable, no se arranca solo
+    // para descubrir que no es un bean: se sigue directamente por la carga de la clase
+    private Object lookupBean(String targetIdentifier, ClassLoader jobSpecificClassLoader) {
+        if (!applicationContextProvider.isInitialized() && jobSpecificClassLoader != null && ClassUtils.isPresent(targetIdentifier, jobSpecificClassLoader)) {
+            throw new NoSuchBeanDefinitionException(targetIdentifier);
+        }
+        return applicationContextProvider.get().getBean(targetIdentifier);
+    }
+
     private Constructor<?> findBestMatchingConstructor(Class<?> targetClass, List<Object> yamlArgConfigsOrAlreadyEvaluatedValues, Map<String, Object> jobContext, ClassLoader jobSpecificClassLoader, Map<String, Object> additionalSpelVariables) {
         // This method now assumes yamlArgConfigsOrAlreadyEvaluatedValues could be SpEL strings OR already evaluated values if called from instantiateComplexTypeFromListValues
         Object[] evaluatedArgs = new Object[yamlArgConfigsOrAlreadyEvaluatedValues.size()];
@@ -283,6 +351,12 @@ public class JavaMethodActionExecutor implements ActionExecutor {
             return expectedType.isPrimitive() ? null : null;
         }
         if (expectedType.isInstance(argValue)) return argValue;
+        if (argValue instanceof OffHeapBytes offHeapBytes) {
+            // Valores del contexto movidos fuera del heap: se materializan solo en la forma que pide el parámetro
+            if (expectedType == byte[].class) return offHeapBytes.toByteArray();
+            if (expectedType.isAssignableFrom(ByteBuffer.class)) return offHeapBytes.asByteBuffer();
+            if (expectedType.isAssignableFrom(InputStream.class)) return offHeapBytes.inputStream();
+        }
         if (isAssignable(expectedType, argValue.getClass())) {
             if ((expectedType == Long.class || expectedType == long.class) && argValue instanceof Integer) return ((Number) argValue).longValue();
             if ((expectedType == Integer.class || expectedType == int.class) && argValue instanceof Long) {
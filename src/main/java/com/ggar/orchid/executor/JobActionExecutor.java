@@ -0,0 +1,137 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.context.OffHeapBytes;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.model.Action;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.JobAction;
+import com.ggar.orchid.registry.JobRegistry;
+import com.ggar.orchid.service.I18nService;
+import com.ggar.orchid.service.OrchestratorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Invoca otro job cargado en el JobRegistry dentro del mismo proceso. Se reutilizan su JobDefinition ya parseado,
+// su ClassLoader de plugins y las expresiones SpEL que el evaluador ya tiene compiladas. El sub-job se ejecuta con
+// su propio contexto: solo recibe los parámetros mapeados y solo devuelve los outputs pedidos.
+public class JobActionExecutor implements ActionExecutor {
+    private static final Logger log = LoggerFactory.getLogger(JobActionExecutor.class);
+    // Jobs en curso en la cadena de invocaciones de este hilo (se propaga a los hilos del fan-out) para detectar ciclos
+    private static final ThreadLocal<List<String>> CALL_CHAIN = ThreadLocal.withInitial(List::of);
+    private final SpelExpressionEvaluator spelEvaluator;
+    private final I18nService i18n;
+    private final JobRegistry jobRegistry;
+    private final ExecutorService workerPool;
+
+    public JobActionExecutor(SpelExpressionEvaluator spelEvaluator, I18nService i18n, JobRegistry jobRegistry, ExecutorService workerPool) {
+        this.spelEvaluator = spelEvaluator; this.i18n = i18n; this.jobRegistry = jobRegistry; this.workerPool = workerPool;
+    }
+
+    @Override
+    public Object execute(Action action, Map<String, Object> jobContext, OrchestratorService orchestratorService, ClassLoader jobSpecificClassLoader, ActionExecutionLineage lineage, Map<String, Object> additionalSpelVariables) {
+        JobAction jobAction = (JobAction) action;
+        String jobId = jobAction.getJobId();
+        if (!StringUtils.hasText(jobId)) throw new IllegalArgumentException(i18n.getMessage("executor.job.jobIdMissing", action.getName()));
+        List<String> callChain = CALL_CHAIN.get();
+        if (callChain.contains(jobId)) {
+            throw new IllegalStateException(i18n.getMessage("executor.job.cycle", String.join(" -> ", callChain), jobId));
+        }
+
+        if (!StringUtils.hasText(jobAction.getCollection())) {
+            Map<String, Object> parameters = mapParameters(jobAction, jobContext, additionalSpelVariables, jobSpecificClassLoader);
+            log.debug(i18n.getMessage("executor.job.invoking", jobId, lineage.toString(), parameters.keySet()));
+            return invoke(jobAction, parameters, orchestratorService, callChain, lineage.heldResources());
+        }
+
+        // Fan-out: los parámetros de cada elemento se evalúan en este hilo, los sub-jobs se ejecutan en el worker pool
+        Object collection = spelEvaluator.evaluate(jobAction.getCollection(), jobContext, additionalSpelVariables, jobSpecificClassLoader);
+        if (!(collection instanceof Iterable<?> elements)) {
+            throw new IllegalArgumentException(i18n.getMessage("executor.job.collectionNotIterable", jobAction.getCollection(),
+                    collection == null ? "null" : collection.getClass().getName()));
+        }
+        int parallelism = Math.max(1, jobAction.getParallelism());
+        log.debug(i18n.getMessage("executor.job.fanOutStarting", jobId, lineage.toString(), parallelism));
+        // Los sub-jobs en paralelo no comparten los permisos de esta acción: cada uno pide los suyos
+        Set<String> heldResources = parallelism > 1 ? Set.of() : lineage.heldResources();
+        List<Object> results = new ArrayList<>();
+        Deque<Future<Object>> inFlight = new ArrayDeque<>(parallelism);
+        int index = 0;
+        for (Object element : elements) {
+            Map<String, Object> elementVariables = additionalSpelVariables != null ? new HashMap<>(additionalSpelVariables) : new HashMap<>();
+            elementVariables.put(jobAction.getIteratorVariable(), element);
+            elementVariables.put(jobAction.getIteratorVariable() + "_index", index++);
+            Map<String, Object> parameters = mapParameters(jobAction, jobContext, elementVariables, jobSpecificClassLoader);
+            if (inFlight.size() == parallelism) results.add(awaitOldest(inFlight, jobId));
+            inFlight.addLast(workerPool.submit(() -> invoke(jobAction, parameters, orchestratorService, callChain, heldResources)));
+        }
+        while (!inFlight.isEmpty()) results.add(awaitOldest(inFlight, jobId));
+        log.debug(i18n.getMessage("executor.job.fanOutFinished", jobId, results.size()));
+        return results;
+    }
+
+    private Map<String, Object> mapParameters(JobAction jobAction, Map<String, Object> jobContext, Map<String, Object> spelVariables, ClassLoader jobSpecificClassLoader) {
+        Map<String, Object> parameters = new HashMap<>();
+        if (jobAction.getParameters() != null) {
+            jobAction.getParameters().forEach((name, expression) ->
+                    parameters.put(name, spelEvaluator.evaluate(expression, jobContext, spelVariables, jobSpecificClassLoader)));
+        }
+        return parameters;
+    }
+
+    // La versión vigente del sub-job queda reservada mientras se ejecuta: una recarga no cierra su ClassLoader a medias.
+    // Los recursos que retiene la acción que lo invoca siguen retenidos durante todo el sub-job (salvo en un fan-out paralelo)
+    private Object invoke(JobAction jobAction, Map<String, Object> mappedParameters, OrchestratorService orchestratorService, List<String> callChain,
+                          Set<String> heldResources) {
+        List<String> previousChain = CALL_CHAIN.get();
+        List<String> chain = new ArrayList<>(callChain);
+        chain.add(jobAction.getJobId());
+        CALL_CHAIN.set(List.copyOf(chain));
+        try (JobRegistry.Lease lease = jobRegistry.acquire(jobAction.getJobId())) {
+            Map<String, Object> initialParameters = jobAction.isInheritParameters() ? new HashMap<>(lease.job().getInitialParameters()) : new HashMap<>();
+            initialParameters.putAll(mappedParameters);
+            return orchestratorService.executeJob(lease.job().getDefinition(), initialParameters, lease.job().getClassLoader(),
+                    heldResources, finalContext -> collectOutputs(jobAction, finalContext));
+        } finally {
+            CALL_CHAIN.set(previousChain);
+        }
+    }
+
+    // Se ejecuta antes de cerrar el almacén fuera del heap del sub-job: los valores grandes se copian al heap y, al
+    // guardarlos en el contexto del job padre, vuelven a salir del heap en su propio almacén
+    private Map<String, Object> collectOutputs(JobAction jobAction, Map<String, Object> finalContext) {
+        Map<String, Object> outputs = new LinkedHashMap<>();
+        if (jobAction.getOutputs() == null || jobAction.getOutputs().isEmpty()) {
+            finalContext.forEach((key, value) -> outputs.put(key, materialize(value)));
+            return outputs;
+        }
+        jobAction.getOutputs().forEach((outputName, contextKey) -> {
+            if (!finalContext.containsKey(contextKey)) log.warn(i18n.getMessage("executor.job.outputMissing", jobAction.getJobId(), contextKey));
+            outputs.put(outputName, materialize(finalContext.get(contextKey)));
+        });
+        return outputs;
+    }
+
+    private static Object materialize(Object value) {
+        return value instanceof OffHeapBytes offHeap ? offHeap.toByteArray() : value;
+    }
+
+    // Los resultados se recogen en el orden de la colección; un sub-job fallido deja null en su posición
+    private Object awaitOldest(Deque<Future<Object>> inFlight, String jobId) {
+        try {
+            return inFlight.pollFirst().get();
+        } catch (ExecutionException e) {
+            log.error(i18n.getMessage("executor.job.fanOutFailed", jobId, e.getCause() != null ? e.getCause().getMessage() : e.getMessage()), e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            inFlight.forEach(pending -> pending.cancel(true));
+            throw new IllegalStateException(i18n.getMessage("executor.job.fanOutInterrupted", jobId), e);
+        }
+    }
+}
@@ -1,20 +1,43 @@
 package com.ggar.orchid.executor;
 
+import com.ggar.orchid.collections.IntBitSet;
+import com.ggar.orchid.collections.IntList;
+import com.ggar.orchid.collections.LongList;
+import com.ggar.orchid.collections.OffHeapLongArray;
+import com.ggar.orchid.context.BranchMerger;
+import com.ggar.orchid.context.ContextBranch;
+import com.ggar.orchid.context.ContextMergeConflictException;
+import com.ggar.orchid.context.ScopedJobContext;
 import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
 import com.ggar.orchid.model.Action;
 import com.ggar.orchid.model.ActionExecutionLineage;
 import com.ggar.orchid.service.I18nService;
 import com.ggar.orchid.service.OrchestratorService;
+import com.ggar.orchid.worker.DistributedLoopCoordinator;
+import com.ggar.orchid.worker.LoopWorker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
 
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.stream.BaseStream;
 
 public class LoopActionExecutor implements ActionExecutor {
     private static final Logger log = LoggerFactory.getLogger(LoopActionExecutor.class);
     private final SpelExpressionEvaluator spelEvaluator;
     private final I18nService i18n;
-    public LoopActionExecutor(SpelExpressionEvaluator spelEvaluator, I18nService i18n) { this.spelEvaluator = spelEvaluator; this.i18n = i18n; }
+    private final ExecutorService workerPool;
+    private final DistributedLoopCoordinator distributedLoopCoordinator;
+    public LoopActionExecutor(SpelExpressionEvaluator spelEvaluator, I18nService i18n, ExecutorService workerPool, DistributedLoopCoordinator distributedLoopCoordinator) { this.spelEvaluator = spelEvaluator; this.i18n = i18n; this.workerPool = workerPool; this.distributedLoopCoordinator = distributedLoopCoordinator; }
 
     @Override
     public Object execute(Action action, Map<String, Object> jobContext, OrchestratorService orchestratorService, ClassLoader jobSpecificClassLoader, ActionExecutionLineage lineage, Map<String, Object> additionalSpelVariablesFromParent) {
@@ -39,84 +62,354 @@ public class LoopActionExecutor implements ActionExecutor {
 
     private void executeCollectionLoop(com.ggar.orchid.model.LoopAction loopAction, Map<String, Object> parentContext, OrchestratorService orchestratorService, String loopName, ClassLoader jobSpecificClassLoader, ActionExecutionLineage currentLineage, Map<String, Object> initialAdditionalSpelVariables) {
         Object collectionObj = spelEvaluator.evaluate(loopAction.getCollection(), parentContext, initialAdditionalSpelVariables, jobSpecificClassLoader);
-        if (!(collectionObj instanceof Collection)) {
+        Iterator<?> iterator = toIterator(collectionObj, loopAction.isSnapshotCollection());
+        if (iterator == null) {
             log.error(i18n.getMessage("executor.loop.collectionNotIterable", loopName, loopAction.getCollection())); return;
         }
-        List<?> listForIteration = new ArrayList<>((Collection<?>) collectionObj);
+        log.debug(i18n.getMessage("executor.loop.iterationSource", loopName, collectionObj.getClass().getName(), collectionObj instanceof Collection && loopAction.isSnapshotCollection()));
         int index = 0; String iteratorVar = loopAction.getIteratorVariable();
         // El #previousResult para la primera acción DENTRO del body de la primera iteración
         // debería ser el #previousResult que este loop recibió (initialAdditionalSpelVariables).
         Object previousResultForBody = initialAdditionalSpelVariables.get(OrchestratorService.PREVIOUS_ACTION_RESULT_KEY);
+        // Las variables del iterador viven en un frame propio; el resto de escrituras llegan al parentContext
+        ScopedJobContext loopScope = new ScopedJobContext(parentContext);
 
-        for (Object item : listForIteration) {
-            // Usar parentContext directamente para que las modificaciones persistan
-            parentContext.put(iteratorVar, item);
-            parentContext.put(iteratorVar + "_index", index);
-            log.debug(i18n.getMessage("executor.loop.iteration.collectionWithLineage", currentLineage.toString(), iteratorVar, item, index));
+        try {
+            if (loopAction.getWorkers() > 0 && LoopWorker.isWorkerProcess()) {
+                log.debug(i18n.getMessage("executor.loop.workersNested", loopName));
+            } else if (loopAction.getWorkers() > 0) {
+                if (loopAction.isPipeline() || loopAction.getParallelism() > 1) log.warn(i18n.getMessage("executor.loop.workersIgnoreParallelism", loopName));
+                executeDistributedIterations(loopAction, parentContext, iterator, loopName, jobSpecificClassLoader, currentLineage, initialAdditionalSpelVariables);
+                return;
+            }
+            if (loopAction.isPipeline()) {
+                if (loopAction.getParallelism() > 1) log.warn(i18n.getMessage("executor.loop.pipelineIgnoresParallelism", loopName));
+                executePipelinedIterations(loopAction, parentContext, iterator, orchestratorService, loopName, jobSpecificClassLoader, currentLineage, initialAdditionalSpelVariables);
+                return;
+            }
+            if (loopAction.getParallelism() > 1) {
+                executeParallelIterations(loopAction, parentContext, iterator, orchestratorService, loopName, jobSpecificClassLoader, currentLineage, initialAdditionalSpelVariables);
+                return;
+            }
+            while (iterator.hasNext()) {
+                Object item = iterator.next();
+                loopScope.define(iteratorVar, item);
+                loopScope.define(iteratorVar + "_index", index);
+                log.debug(i18n.getMessage("executor.loop.iteration.collectionWithLineage", currentLineage.toString(), iteratorVar, item, index));
+
+                boolean continueLoop = true;
+                if (loopAction.getConditionExpression() != null && !loopAction.getConditionExpression().trim().isEmpty()) {
+                    try {
+                        // La condición se evalúa con el frame del loop (que incluye iteratorVar)
+                        // y el previousResult de la acción ANTERIOR a este loop
+                        continueLoop = spelEvaluator.evaluate(loopAction.getConditionExpression(), loopScope, initialAdditionalSpelVariables, Boolean.class, jobSpecificClassLoader);
+                    } catch (Exception e) { log.error(i18n.getMessage("executor.loop.conditionError.collection", e.getMessage())); break; }
+                }
+                if (!continueLoop) { log.debug(i18n.getMessage("executor.loop.conditionFalse.collection")); break; }
+
+                // La llamada a executeActions manejará el flujo de #previousResult para las acciones DENTRO del body.
+                // Se le pasa el 'previousResultForBody' actual, que se actualizará con el resultado de la última acción del body.
+                previousResultForBody = orchestratorService.executeActions(loopAction.getBody(), loopScope, jobSpecificClassLoader, currentLineage, previousResultForBody);
+
+                index++;
+            }
+        } finally {
+            // Los Stream (p.ej. Files.lines) y los iteradores AutoCloseable se cierran aunque el loop termine antes
+            closeQuietly(collectionObj instanceof BaseStream ? collectionObj : iterator, loopName);
+        }
+    }
+
+    // Ejecuta las iteraciones en tandas de 'parallelism'. Cada iteración trabaja sobre su propia ContextBranch y las
+    // ramas de una tanda se unen en orden de índice cuando termina la tanda, así que dentro de una tanda todas ven el
+    // contexto tal y como estaba al empezarla. Cada body recibe el #previousResult del loop, no el de otra iteración.
+    private void executeParallelIterations(com.ggar.orchid.model.LoopAction loopAction, Map<String, Object> parentContext, Iterator<?> iterator, OrchestratorService orchestratorService, String loopName, ClassLoader jobSpecificClassLoader, ActionExecutionLineage currentLineage, Map<String, Object> initialAdditionalSpelVariables) {
+        int parallelism = loopAction.getParallelism();
+        String iteratorVar = loopAction.getIteratorVariable();
+        Object previousResultForBody = initialAdditionalSpelVariables.get(OrchestratorService.PREVIOUS_ACTION_RESULT_KEY);
+        BranchMerger merger = new BranchMerger(parentContext, loopAction.getMergePolicy(), i18n);
+        ActionExecutionLineage branchLineage = currentLineage.withoutHeldResources();
+        log.debug(i18n.getMessage("executor.loop.parallelStarting", loopName, parallelism, loopAction.getMergePolicy()));
+        List<Future<ContextBranch>> batch = new ArrayList<>(parallelism);
+        List<ContextBranch> branches = new ArrayList<>(parallelism);
+        int index = 0;
+        boolean continueLoop = true;
+
+        while (continueLoop && iterator.hasNext()) {
+            batch.clear();
+            branches.clear();
+            while (batch.size() < parallelism && iterator.hasNext()) {
+                Object item = iterator.next();
+                ContextBranch branch = new ContextBranch(parentContext);
+                ScopedJobContext iterationScope = new ScopedJobContext(branch);
+                iterationScope.define(iteratorVar, item);
+                iterationScope.define(iteratorVar + "_index", index);
+                if (StringUtils.hasText(loopAction.getConditionExpression())) {
+                    try {
+                        continueLoop = spelEvaluator.evaluate(loopAction.getConditionExpression(), iterationScope, initialAdditionalSpelVariables, Boolean.class, jobSpecificClassLoader);
+                    } catch (Exception e) { log.error(i18n.getMessage("executor.loop.conditionError.collection", e.getMessage())); continueLoop = false; }
+                    if (!continueLoop) { log.debug(i18n.getMessage("executor.loop.conditionFalse.collection")); break; }
+                }
+                if (log.isDebugEnabled()) log.debug(i18n.getMessage("executor.loop.iteration.collectionWithLineage", currentLineage.toString(), iteratorVar, item, index));
+                branches.add(branch);
+                batch.add(workerPool.submit(() -> {
+                    orchestratorService.executeActions(loopAction.getBody(), iterationScope, jobSpecificClassLoader, branchLineage, previousResultForBody);
+                    return branch;
+                }));
+                index++;
+            }
+            // Join: todas las ramas de la tanda terminan antes de tocar el contexto padre
+            List<ContextBranch> completed = new ArrayList<>(batch.size());
+            try {
+                for (Future<ContextBranch> future : batch) {
+                    try {
+                        completed.add(future.get());
+                    } catch (ExecutionException e) {
+                        log.error(i18n.getMessage("executor.loop.parallelIterationError", loopName, e.getCause() != null ? e.getCause().getMessage() : e.getMessage()), e.getCause());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        batch.forEach(pending -> pending.cancel(true));
+                        log.error(i18n.getMessage("executor.loop.parallelInterrupted", loopName));
+                        return;
+                    }
+                }
+                completed.forEach(merger::merge);
+            } catch (ContextMergeConflictException e) {
+                log.error(i18n.getMessage("executor.loop.mergeConflict", loopName, e.getMessage()));
+                throw e;
+            } finally {
+                // Las ramas fallidas, interrumpidas o pendientes tras un conflicto también sueltan sus OffHeapBytes
+                branches.forEach(merger::discard);
+            }
+        }
+    }
+
+    // Las iteraciones se reparten entre procesos worker (DistributedLoopCoordinator). La condición se sigue evaluando
+    // aquí, sobre el contexto del coordinador, antes de enviar cada elemento
+    private void executeDistributedIterations(com.ggar.orchid.model.LoopAction loopAction, Map<String, Object> parentContext, Iterator<?> iterator, String loopName, ClassLoader jobSpecificClassLoader, ActionExecutionLineage currentLineage, Map<String, Object> initialAdditionalSpelVariables) {
+        String iteratorVar = loopAction.getIteratorVariable();
+        BiPredicate<Object, Integer> condition = null;
+        if (StringUtils.hasText(loopAction.getConditionExpression())) {
+            condition = (item, index) -> {
+                ScopedJobContext conditionScope = new ScopedJobContext(parentContext);
+                conditionScope.define(iteratorVar, item);
+                conditionScope.define(iteratorVar + "_index", index);
+                try {
+                    return Boolean.TRUE.equals(spelEvaluator.evaluate(loopAction.getConditionExpression(), conditionScope, initialAdditionalSpelVariables, Boolean.class, jobSpecificClassLoader));
+                } catch (Exception e) { log.error(i18n.getMessage("executor.loop.conditionError.collection", e.getMessage())); return false; }
+            };
+        }
+        distributedLoopCoordinator.run(loopAction, loopName, parentContext, iterator, condition,
+                initialAdditionalSpelVariables.get(OrchestratorService.PREVIOUS_ACTION_RESULT_KEY), jobSpecificClassLoader, currentLineage);
+    }
+
+    private record PipelineToken(ScopedJobContext scope, Object previousResult) {
+    }
+
+    private static final PipelineToken END_OF_PIPELINE = new PipelineToken(null, null);
+
+    // Cada acción del body es una etapa con sus propios workers y las etapas se conectan con colas acotadas: mientras la
+    // etapa k procesa la iteración N, la etapa k-1 ya trabaja en la N+1, y si una etapa se retrasa la cola llena frena a
+    // las anteriores. Cada iteración viaja con su frame y su #previousResult; las claves simples de returnToContextAs
+    // del body se declaran en el frame, así que son locales a la iteración y no se pisan entre iteraciones en vuelo.
+    private void executePipelinedIterations(com.ggar.orchid.model.LoopAction loopAction, Map<String, Object> parentContext, Iterator<?> iterator, OrchestratorService orchestratorService, String loopName, ClassLoader jobSpecificClassLoader, ActionExecutionLineage currentLineage, Map<String, Object> initialAdditionalSpelVariables) {
+        List<Action> stages = Optional.ofNullable(loopAction.getBody()).orElse(Collections.emptyList());
+        if (stages.isEmpty()) return;
+        int workersPerStage = Math.max(1, loopAction.getStageWorkers());
+        String iteratorVar = loopAction.getIteratorVariable();
+        Object previousResultForBody = initialAdditionalSpelVariables.get(OrchestratorService.PREVIOUS_ACTION_RESULT_KEY);
+        Set<String> iterationLocalKeys = new HashSet<>();
+        for (Action stage : stages) {
+            String key = stage.getReturnToContextAs();
+            if (StringUtils.hasText(key) && !key.trim().startsWith("#")) iterationLocalKeys.add(key);
+        }
+        List<BlockingQueue<PipelineToken>> queues = new ArrayList<>(stages.size());
+        for (int i = 0; i < stages.size(); i++) queues.add(new ArrayBlockingQueue<>(Math.max(1, loopAction.getPipelineQueueCapacity())));
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        // Las etapas trabajan a la vez sobre iteraciones distintas: ninguna hereda los recursos que retiene el loop
+        ActionExecutionLineage stageLineage = currentLineage.withoutHeldResources();
+        List<Future<?>> workers = new ArrayList<>(stages.size() * workersPerStage);
+        log.debug(i18n.getMessage("executor.loop.pipelineStarting", loopName, stages.size(), workersPerStage, loopAction.getPipelineQueueCapacity()));
+
+        for (int i = 0; i < stages.size(); i++) {
+            List<Action> stageActions = List.of(stages.get(i));
+            BlockingQueue<PipelineToken> input = queues.get(i);
+            BlockingQueue<PipelineToken> output = i + 1 < stages.size() ? queues.get(i + 1) : null;
+            AtomicInteger runningWorkers = new AtomicInteger(workersPerStage);
+            for (int w = 0; w < workersPerStage; w++) {
+                workers.add(workerPool.submit(() -> {
+                    try {
+                        while (!aborted.get()) {
+                            PipelineToken token = input.poll(100, TimeUnit.MILLISECONDS);
+                            if (token == null) continue;
+                            if (token == END_OF_PIPELINE) {
+                                transfer(input, END_OF_PIPELINE, aborted); // para los demás workers de la etapa
+                                return;
+                            }
+                            Object result = orchestratorService.executeActions(stageActions, token.scope(), jobSpecificClassLoader, stageLineage, token.previousResult());
+                            if (output != null && !transfer(output, new PipelineToken(token.scope(), result), aborted)) return;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        aborted.set(true);
+                    } catch (RuntimeException e) {
+                        aborted.set(true);
+                        throw e;
+                    } finally {
+                        // El último worker de la etapa avisa a la siguiente de que no llegarán más iteraciones
+                        if (runningWorkers.decrementAndGet() == 0 && output != null) transfer(output, END_OF_PIPELINE, aborted);
+                    }
+                }));
+            }
+        }
 
-            boolean continueLoop = true;
-            if (loopAction.getConditionExpression() != null && !loopAction.getConditionExpression().trim().isEmpty()) {
+        int index = 0;
+        try {
+            while (iterator.hasNext() && !aborted.get()) {
+                Object item = iterator.next();
+                ScopedJobContext iterationScope = new ScopedJobContext(parentContext);
+                iterationScope.define(iteratorVar, item);
+                iterationScope.define(iteratorVar + "_index", index);
+                iterationLocalKeys.forEach(key -> iterationScope.define(key, null));
+                if (StringUtils.hasText(loopAction.getConditionExpression())) {
+                    boolean continueLoop;
+                    try {
+                        continueLoop = spelEvaluator.evaluate(loopAction.getConditionExpression(), iterationScope, initialAdditionalSpelVariables, Boolean.class, jobSpecificClassLoader);
+                    } catch (Exception e) { log.error(i18n.getMessage("executor.loop.conditionError.collection", e.getMessage())); break; }
+                    if (!continueLoop) { log.debug(i18n.getMessage("executor.loop.conditionFalse.collection")); break; }
+                }
+                if (log.isDebugEnabled()) log.debug(i18n.getMessage("executor.loop.iteration.collectionWithLineage", currentLineage.toString(), iteratorVar, item, index));
+                if (!transfer(queues.get(0), new PipelineToken(iterationScope, previousResultForBody), aborted)) break;
+                index++;
+            }
+        } finally {
+            transfer(queues.get(0), END_OF_PIPELINE, aborted);
+            for (Future<?> worker : workers) {
                 try {
-                    // La condición se evalúa con el parentContext (que incluye iteratorVar)
-                    // y el previousResult de la acción ANTERIOR a este loop
-                    continueLoop = spelEvaluator.evaluate(loopAction.getConditionExpression(), parentContext, initialAdditionalSpelVariables, Boolean.class, jobSpecificClassLoader);
-                } catch (Exception e) { log.error(i18n.getMessage("executor.loop.conditionError.collection", e.getMessage())); break; }
+                    worker.get();
+                } catch (ExecutionException e) {
+                    log.error(i18n.getMessage("executor.loop.parallelIterationError", loopName, e.getCause() != null ? e.getCause().getMessage() : e.getMessage()), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    aborted.set(true);
+                    workers.forEach(pending -> pending.cancel(true));
+                    log.error(i18n.getMessage("executor.loop.parallelInterrupted", loopName));
+                    break;
+                }
+            }
+        }
+    }
+
+    // put() que se rinde si el pipeline se ha abortado, para que ningún hilo quede bloqueado en una cola que nadie vacía
+    private static boolean transfer(BlockingQueue<PipelineToken> queue, PipelineToken token, AtomicBoolean aborted) {
+        try {
+            while (!aborted.get()) {
+                if (queue.offer(token, 100, TimeUnit.MILLISECONDS)) return true;
             }
-            if (!continueLoop) { log.debug(i18n.getMessage("executor.loop.conditionFalse.collection")); break; }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aborted.set(true);
+        }
+        return false;
+    }
 
-            // La llamada a executeActions manejará el flujo de #previousResult para las acciones DENTRO del body.
-            // Se le pasa el 'previousResultForBody' actual, que se actualizará con el resultado de la última acción del body.
-            previousResultForBody = orchestratorService.executeActions(loopAction.getBody(), parentContext, jobSpecificClassLoader, currentLineage, previousResultForBody);
+    /**
+     * Adapta el valor evaluado de 'collection' a un Iterator que se consume de forma perezosa.
+     * Las Collection se copian una sola vez (snapshot) salvo que el loop indique lo contrario, porque
+     * los jobs suelen modificar la propia colección desde el body; Iterable, Iterator, Stream y Spliterator
+     * no se materializan nunca.
+     */
+    static Iterator<?> toIterator(Object source, boolean snapshotCollection) {
+        // Las colecciones primitivas se copian (si hace falta) como arrays primitivos y se recorren con
+        // PrimitiveIterator: cada elemento se encaja solo al ligarlo a la variable del loop
+        if (source instanceof LongList longs) return (snapshotCollection ? longs.copy() : longs).longIterator();
+        if (source instanceof IntList ints) return (snapshotCollection ? ints.copy() : ints).intIterator();
+        if (source instanceof IntBitSet bitSet) return (snapshotCollection ? bitSet.copy() : bitSet).intIterator();
+        if (source instanceof OffHeapLongArray offHeapLongs) return offHeapLongs.longIterator(); // snapshot del tamaño, no de los datos
+        if (source instanceof Collection<?> collection) {
+            return snapshotCollection ? Arrays.asList(collection.toArray()).iterator() : collection.iterator();
+        }
+        if (source instanceof Iterable<?> iterable) return iterable.iterator();
+        if (source instanceof Iterator<?> iterator) return iterator;
+        if (source instanceof BaseStream<?, ?> stream) return stream.iterator();
+        if (source instanceof Spliterator<?> spliterator) return Spliterators.iterator(spliterator);
+        if (source instanceof Object[] array) return Arrays.asList(array).iterator();
+        return null;
+    }
 
-            index++;
+    private void closeQuietly(Object source, String loopName) {
+        if (source instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn(i18n.getMessage("executor.loop.sourceCloseError", loopName, e.getMessage()));
+            }
         }
-        // Limpiar variables del iterador del contexto
-        parentContext.remove(iteratorVar);
-        parentContext.remove(iteratorVar + "_index");
     }
 
     private void executeNumericLoop(com.ggar.orchid.model.LoopAction loopAction, Map<String, Object> parentContext, OrchestratorService orchestratorService, String loopName, ClassLoader jobSpecificClassLoader, ActionExecutionLineage currentLineage, Map<String, Object> initialAdditionalSpelVariables) {
-        long current, max;
+        long start, max, step = 1;
         try {
-            current = spelEvaluator.evaluate(loopAction.getFrom(), parentContext, initialAdditionalSpelVariables, Long.class, jobSpecificClassLoader);
+            start = spelEvaluator.evaluate(loopAction.getFrom(), parentContext, initialAdditionalSpelVariables, Long.class, jobSpecificClassLoader);
             max = spelEvaluator.evaluate(loopAction.getTo(), parentContext, initialAdditionalSpelVariables, Long.class, jobSpecificClassLoader);
+            if (StringUtils.hasText(loopAction.getStep())) {
+                step = spelEvaluator.evaluate(loopAction.getStep(), parentContext, initialAdditionalSpelVariables, Long.class, jobSpecificClassLoader);
+            }
         } catch (Exception e) { log.error(i18n.getMessage("executor.loop.fromToError", loopName, e.getMessage())); return; }
+        if (step == 0) { log.error(i18n.getMessage("executor.loop.zeroStep", loopName)); return; }
         String iteratorVar = loopAction.getIteratorVariable();
         Object previousResultForBody = initialAdditionalSpelVariables.get(OrchestratorService.PREVIOUS_ACTION_RESULT_KEY);
+        ScopedJobContext loopScope = new ScopedJobContext(parentContext);
+
+        if (!StringUtils.hasText(loopAction.getConditionExpression()) && !StringUtils.hasText(loopAction.getIncrementExpression())) {
+            // Camino rápido from/to/step: contador primitivo y ninguna evaluación SpEL por iteración
+            log.debug(i18n.getMessage("executor.loop.numericFastPath", loopName, start, max, step));
+            for (long current = start; step > 0 ? current <= max : current >= max; current += step) {
+                loopScope.define(iteratorVar, current);
+                if (log.isDebugEnabled()) log.debug(i18n.getMessage("executor.loop.iteration.numericWithLineage", currentLineage.toString(), iteratorVar, current));
+                previousResultForBody = orchestratorService.executeActions(loopAction.getBody(), loopScope, jobSpecificClassLoader, currentLineage, previousResultForBody);
+                if (step > 0 ? current > Long.MAX_VALUE - step : current < Long.MIN_VALUE - step) break; // evitar desbordamiento del contador
+            }
+            return;
+        }
+        executeExpressionDrivenNumericLoop(loopAction, loopScope, orchestratorService, loopName, jobSpecificClassLoader, currentLineage, initialAdditionalSpelVariables, start, max, step, previousResultForBody);
+    }
+
+    private void executeExpressionDrivenNumericLoop(com.ggar.orchid.model.LoopAction loopAction, ScopedJobContext loopScope, OrchestratorService orchestratorService, String loopName, ClassLoader jobSpecificClassLoader, ActionExecutionLineage currentLineage, Map<String, Object> initialAdditionalSpelVariables, long start, long max, long step, Object previousResultForBody) {
+        String iteratorVar = loopAction.getIteratorVariable();
+        boolean hasCondition = StringUtils.hasText(loopAction.getConditionExpression());
+        boolean hasIncrement = StringUtils.hasText(loopAction.getIncrementExpression());
+        // Variables reutilizadas entre iteraciones para el incrementExpression: #previousResult es el resultado del body
+        Map<String, Object> incrementSpelVars = hasIncrement ? new HashMap<>(initialAdditionalSpelVariables) : null;
+        long current = start;
 
         while (true) {
-            parentContext.put(iteratorVar, current);
+            loopScope.define(iteratorVar, current);
 
-            boolean continueLoop = true;
-            if (loopAction.getConditionExpression() != null && !loopAction.getConditionExpression().trim().isEmpty()) {
+            boolean continueLoop;
+            if (hasCondition) {
                 try {
-                    // La condición se evalúa con el parentContext (que incluye iteratorVar)
+                    // La condición se evalúa con el frame del loop (que incluye iteratorVar)
                     // y el #previousResult que este loop recibió
-                    continueLoop = spelEvaluator.evaluate(loopAction.getConditionExpression(), parentContext, initialAdditionalSpelVariables, Boolean.class, jobSpecificClassLoader);
+                    continueLoop = spelEvaluator.evaluate(loopAction.getConditionExpression(), loopScope, initialAdditionalSpelVariables, Boolean.class, jobSpecificClassLoader);
                 } catch (Exception e) { log.error(i18n.getMessage("executor.loop.conditionError.numeric", e.getMessage())); break; }
-            } else continueLoop = current <= max;
+            } else continueLoop = step > 0 ? current <= max : current >= max;
             if (!continueLoop) { log.debug(i18n.getMessage("executor.loop.conditionFalse.numericWithLineage", currentLineage.toString(), iteratorVar, current)); break; }
 
-            log.debug(i18n.getMessage("executor.loop.iteration.numericWithLineage", currentLineage.toString(), iteratorVar, current));
-            previousResultForBody = orchestratorService.executeActions(loopAction.getBody(), parentContext, jobSpecificClassLoader, currentLineage, previousResultForBody);
+            if (log.isDebugEnabled()) log.debug(i18n.getMessage("executor.loop.iteration.numericWithLineage", currentLineage.toString(), iteratorVar, current));
+            previousResultForBody = orchestratorService.executeActions(loopAction.getBody(), loopScope, jobSpecificClassLoader, currentLineage, previousResultForBody);
 
-            if (loopAction.getIncrementExpression() != null && !loopAction.getIncrementExpression().trim().isEmpty()) {
+            if (hasIncrement) {
                 try {
-                    Map<String, Object> incrementSpelVars = new HashMap<>(parentContext); // Asegurar que #currentNumber esté disponible
-                    if (initialAdditionalSpelVariables != null) incrementSpelVars.putAll(initialAdditionalSpelVariables); // Pasar también #previousResult global
-
-                    Object nextValue = spelEvaluator.evaluate(loopAction.getIncrementExpression(), incrementSpelVars, Collections.singletonMap(OrchestratorService.PREVIOUS_ACTION_RESULT_KEY, previousResultForBody), jobSpecificClassLoader);
+                    incrementSpelVars.put(OrchestratorService.PREVIOUS_ACTION_RESULT_KEY, previousResultForBody);
+                    Object nextValue = spelEvaluator.evaluate(loopAction.getIncrementExpression(), loopScope, incrementSpelVars, jobSpecificClassLoader);
                     if (nextValue instanceof Number) current = ((Number) nextValue).longValue();
                     else { log.error(i18n.getMessage("executor.loop.incrementError.notNumber", loopName)); break; }
                 } catch (Exception e) { log.error(i18n.getMessage("executor.loop.incrementError.evaluation", loopName, e.getMessage())); break; }
-            } else current++;
+            } else current += step;
 
-            if (current > max && (loopAction.getConditionExpression() == null || loopAction.getConditionExpression().trim().isEmpty())) {
-                if (current > max + 100000 && loopAction.getFrom() != null && Long.parseLong(loopAction.getFrom()) < current ) { // Ajustado el límite de salvaguarda
-                    log.warn(i18n.getMessage("executor.loop.infiniteLoopGuard", iteratorVar)); break;
-                }
+            if (!hasCondition && current > max + 100000 && start < current) { // Ajustado el límite de salvaguarda
+                log.warn(i18n.getMessage("executor.loop.infiniteLoopGuard", iteratorVar)); break;
             }
         }
-        parentContext.remove(iteratorVar);
     }
-}
\ No newline at end of file
+}
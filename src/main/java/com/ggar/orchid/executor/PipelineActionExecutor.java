@@ -0,0 +1,164 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator.PreparedExpression;
+import com.ggar.orchid.io.RecordSource;
+import com.ggar.orchid.model.Action;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.PipelineAction;
+import com.ggar.orchid.model.PipelineStage;
+import com.ggar.orchid.service.I18nService;
+import com.ggar.orchid.service.OrchestratorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BinaryOperator;
+import java.util.stream.BaseStream;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class PipelineActionExecutor implements ActionExecutor {
+    private static final Logger log = LoggerFactory.getLogger(PipelineActionExecutor.class);
+    private static final String ACCUMULATOR_VARIABLE = "accumulator";
+    private final SpelExpressionEvaluator spelEvaluator;
+    private final I18nService i18n;
+    private final ForkJoinPool pipelinePool;
+    public PipelineActionExecutor(SpelExpressionEvaluator spelEvaluator, I18nService i18n, ForkJoinPool pipelinePool) { this.spelEvaluator = spelEvaluator; this.i18n = i18n; this.pipelinePool = pipelinePool; }
+
+    @Override
+    public Object execute(Action action, Map<String, Object> jobContext, OrchestratorService orchestratorService, ClassLoader jobSpecificClassLoader, ActionExecutionLineage lineage, Map<String, Object> additionalSpelVariables) {
+        PipelineAction pipelineAction = (PipelineAction) action;
+        String actionName = Optional.ofNullable(pipelineAction.getName()).orElse(i18n.getMessage("orchestrator.unnamedAction"));
+        if (!StringUtils.hasText(pipelineAction.getSource())) {
+            log.error(i18n.getMessage("executor.pipeline.sourceMissing", actionName));
+            throw new IllegalArgumentException(i18n.getMessage("executor.pipeline.sourceMissing.runtime", actionName));
+        }
+        Object source = spelEvaluator.evaluate(pipelineAction.getSource(), jobContext, additionalSpelVariables, jobSpecificClassLoader);
+        if (source == null) {
+            log.warn(i18n.getMessage("executor.pipeline.sourceNull", actionName));
+            return null;
+        }
+        Stream<Object> stream = toStream(source);
+        if (stream == null) {
+            log.error(i18n.getMessage("executor.pipeline.sourceNotIterable", actionName, source.getClass().getName()));
+            throw new IllegalArgumentException(i18n.getMessage("executor.pipeline.sourceNotIterable.runtime", actionName, source.getClass().getName()));
+        }
+
+        // Cada expresión se prepara una sola vez; los elementos solo cambian la variable del iterador
+        String itemVariable = pipelineAction.getIteratorVariable();
+        List<PipelineStage> stages = Optional.ofNullable(pipelineAction.getStages()).orElse(Collections.emptyList());
+        try {
+            for (int i = 0; i < stages.size(); i++) {
+                PipelineStage stage = stages.get(i);
+                if (StringUtils.hasText(stage.getMap())) {
+                    PreparedExpression mapper = spelEvaluator.prepare(stage.getMap(), jobContext, additionalSpelVariables, jobSpecificClassLoader);
+                    stream = stream.map(item -> mapper.evaluate(itemVariable, item));
+                } else if (StringUtils.hasText(stage.getFilter())) {
+                    PreparedExpression predicate = spelEvaluator.prepare(stage.getFilter(), jobContext, additionalSpelVariables, jobSpecificClassLoader);
+                    stream = stream.filter(item -> Boolean.TRUE.equals(predicate.evaluate(itemVariable, item)));
+                } else if (StringUtils.hasText(stage.getFlatMap())) {
+                    PreparedExpression flatMapper = spelEvaluator.prepare(stage.getFlatMap(), jobContext, additionalSpelVariables, jobSpecificClassLoader);
+                    int stageIndex = i;
+                    stream = stream.flatMap(item -> {
+                        Object expanded = flatMapper.evaluate(itemVariable, item);
+                        if (expanded == null) return Stream.empty();
+                        Stream<Object> expandedStream = toStream(expanded);
+                        if (expandedStream == null) {
+                            throw new IllegalArgumentException(i18n.getMessage("executor.pipeline.flatMapNotIterable.runtime", actionName, stageIndex, expanded.getClass().getName()));
+                        }
+                        return expandedStream;
+                    });
+                } else {
+                    log.error(i18n.getMessage("executor.pipeline.invalidStage", actionName, i));
+                    throw new IllegalArgumentException(i18n.getMessage("executor.pipeline.invalidStage.runtime", actionName, i));
+                }
+            }
+        } catch (RuntimeException e) {
+            // El origen puede tener un fichero abierto (RecordSource) que nadie más va a cerrar
+            stream.close();
+            throw e;
+        }
+        log.debug(i18n.getMessage("executor.pipeline.starting", actionName, stages.size(), pipelineAction.isParallel(),
+                StringUtils.hasText(pipelineAction.getReduce()) ? "reduce" : pipelineAction.getCollect()));
+
+        Stream<Object> pipeline = pipelineAction.isParallel() ? stream.parallel() : stream;
+        try {
+            if (!pipelineAction.isParallel()) return terminal(pipeline, pipelineAction, itemVariable, jobContext, additionalSpelVariables, jobSpecificClassLoader);
+            // Un stream paralelo usa el ForkJoinPool desde el que se lanza la operación terminal
+            ForkJoinTask<Object> task = pipelinePool.submit(() -> terminal(pipeline, pipelineAction, itemVariable, jobContext, additionalSpelVariables, jobSpecificClassLoader));
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error(i18n.getMessage("executor.pipeline.failed", actionName, cause.getMessage()));
+            throw new RuntimeException(i18n.getMessage("executor.pipeline.failed.runtime", actionName), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(i18n.getMessage("executor.pipeline.failed.runtime", actionName), e);
+        } finally {
+            pipeline.close();
+        }
+    }
+
+    private Object terminal(Stream<Object> stream, PipelineAction pipelineAction, String itemVariable, Map<String, Object> jobContext, Map<String, Object> additionalSpelVariables, ClassLoader jobSpecificClassLoader) {
+        if (StringUtils.hasText(pipelineAction.getReduce())) {
+            Object identity = StringUtils.hasText(pipelineAction.getIdentity())
+                    ? spelEvaluator.evaluate(pipelineAction.getIdentity(), jobContext, additionalSpelVariables, jobSpecificClassLoader)
+                    : null;
+            PreparedExpression reducer = spelEvaluator.prepare(pipelineAction.getReduce(), jobContext, additionalSpelVariables, jobSpecificClassLoader);
+            PreparedExpression combiner = StringUtils.hasText(pipelineAction.getCombine())
+                    ? spelEvaluator.prepare(pipelineAction.getCombine(), jobContext, additionalSpelVariables, jobSpecificClassLoader)
+                    : reducer;
+            BinaryOperator<Object> combine = (left, right) -> combiner.evaluate(ACCUMULATOR_VARIABLE, left, itemVariable, right);
+            return stream.reduce(identity, (accumulator, item) -> reducer.evaluate(ACCUMULATOR_VARIABLE, accumulator, itemVariable, item), combine);
+        }
+        switch (pipelineAction.getCollect()) {
+            case SET: return stream.collect(Collectors.toCollection(LinkedHashSet::new));
+            case COUNT: return stream.count();
+            case SUM: return stream.filter(Objects::nonNull).map(Number.class::cast).reduce(0L, PipelineActionExecutor::add);
+            default: return stream.collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    // Suma exacta en long mientras los operandos sean enteros; en cuanto aparece un decimal se pasa a double
+    private static Number add(Number left, Number right) {
+        if (isIntegral(left) && isIntegral(right)) return Math.addExact(left.longValue(), right.longValue());
+        return left.doubleValue() + right.doubleValue();
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    // Las colecciones y arrays se recorren con su spliterator para que el stream paralelo pueda partirlos bien
+    @SuppressWarnings("unchecked")
+    static Stream<Object> toStream(Object source) {
+        if (source instanceof Collection<?> collection) return (Stream<Object>) collection.stream();
+        if (source instanceof Object[] array) return Arrays.stream(array);
+        if (source instanceof Stream<?> stream) return (Stream<Object>) stream;
+        if (source instanceof LongStream longStream) return longStream.boxed().map(Object.class::cast);
+        if (source instanceof IntStream intStream) return intStream.boxed().map(Object.class::cast);
+        if (source instanceof DoubleStream doubleStream) return doubleStream.boxed().map(Object.class::cast);
+        if (source instanceof long[] longs) return Arrays.stream(longs).boxed().map(Object.class::cast);
+        if (source instanceof int[] ints) return Arrays.stream(ints).boxed().map(Object.class::cast);
+        if (source instanceof RecordSource recordSource) {
+            // El iterador tiene el fichero abierto: se cierra con el stream aunque una etapa corte el recorrido o falle
+            RecordSource.RecordIterator iterator = recordSource.iterator();
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false).onClose(iterator::close);
+        }
+        if (source instanceof Iterable<?> iterable) return StreamSupport.stream((Spliterator<Object>) iterable.spliterator(), false);
+        if (source instanceof BaseStream<?, ?> || source instanceof Iterator<?> || source instanceof Spliterator<?>) {
+            Iterator<?> iterator = LoopActionExecutor.toIterator(source, false);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize((Iterator<Object>) iterator, Spliterator.ORDERED), false);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.io.RecordSource;
+import com.ggar.orchid.model.Action;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.SourceAction;
+import com.ggar.orchid.service.I18nService;
+import com.ggar.orchid.service.OrchestratorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// No lee nada: devuelve una RecordSource (o sus trozos) que el loop o pipeline consumidor recorre de forma perezosa
+public class SourceActionExecutor implements ActionExecutor {
+    private static final Logger log = LoggerFactory.getLogger(SourceActionExecutor.class);
+    private final SpelExpressionEvaluator spelEvaluator;
+    private final I18nService i18n;
+    public SourceActionExecutor(SpelExpressionEvaluator spelEvaluator, I18nService i18n) { this.spelEvaluator = spelEvaluator; this.i18n = i18n; }
+
+    @Override
+    public Object execute(Action action, Map<String, Object> jobContext, OrchestratorService orchestratorService, ClassLoader jobSpecificClassLoader, ActionExecutionLineage lineage, Map<String, Object> additionalSpelVariables) {
+        SourceAction sourceAction = (SourceAction) action;
+        String actionName = Optional.ofNullable(sourceAction.getName()).orElse(sourceAction.getPath());
+        Object evaluatedPath = StringUtils.hasText(sourceAction.getPath())
+                ? spelEvaluator.evaluate(sourceAction.getPath(), jobContext, additionalSpelVariables, jobSpecificClassLoader) : null;
+        if (evaluatedPath == null) {
+            log.error(i18n.getMessage("executor.source.pathMissing", actionName));
+            throw new IllegalArgumentException(i18n.getMessage("executor.source.pathMissing.runtime", actionName));
+        }
+        Path input = evaluatedPath instanceof Path path ? path : Path.of(String.valueOf(evaluatedPath));
+        if (!Files.isRegularFile(input) || !Files.isReadable(input)) {
+            log.error(i18n.getMessage("executor.source.notReadable", actionName, input));
+            throw new IllegalArgumentException(i18n.getMessage("executor.source.notReadable.runtime", input));
+        }
+        if (sourceAction.getDelimiter() == null || sourceAction.getDelimiter().length() != 1) {
+            throw new IllegalArgumentException(i18n.getMessage("executor.source.invalidDelimiter.runtime", actionName, sourceAction.getDelimiter()));
+        }
+
+        RecordSource.Options options = new RecordSource.Options(sourceAction.getFormat(), sourceAction.getMode(), sourceAction.getCharset(),
+                sourceAction.getDelimiter().charAt(0), sourceAction.isHeader(), sourceAction.getChunkSize());
+        RecordSource source;
+        try {
+            source = RecordSource.open(input, options);
+        } catch (IOException e) {
+            log.error(i18n.getMessage("executor.source.openError", actionName, input, e.getMessage()));
+            throw new UncheckedIOException(e);
+        }
+        if (sourceAction.getSplits() <= 1) {
+            log.debug(i18n.getMessage("executor.source.opened", actionName, input, source.getEnd(), sourceAction.getFormat(), sourceAction.getMode()));
+            return source;
+        }
+        List<RecordSource> splits = source.split(sourceAction.getSplits());
+        log.debug(i18n.getMessage("executor.source.split", actionName, input, source.getEnd(), splits.size(), sourceAction.getFormat(), sourceAction.getMode()));
+        return splits;
+    }
+}
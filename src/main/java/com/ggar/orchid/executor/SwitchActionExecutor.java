@@ -0,0 +1,84 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.model.Action;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.SwitchAction;
+import com.ggar.orchid.model.SwitchCase;
+import com.ggar.orchid.service.I18nService;
+import com.ggar.orchid.service.OrchestratorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+
+public class SwitchActionExecutor implements ActionExecutor {
+    private static final Logger log = LoggerFactory.getLogger(SwitchActionExecutor.class);
+    private final SpelExpressionEvaluator spelEvaluator;
+    private final I18nService i18n;
+    public SwitchActionExecutor(SpelExpressionEvaluator spelEvaluator, I18nService i18n) { this.spelEvaluator = spelEvaluator; this.i18n = i18n; }
+
+    @Override
+    public Object execute(Action action, Map<String, Object> jobContext, OrchestratorService orchestratorService, ClassLoader jobSpecificClassLoader, ActionExecutionLineage lineage, Map<String, Object> additionalSpelVariables) {
+        SwitchAction switchAction = (SwitchAction) action;
+        String switchName = Optional.ofNullable(switchAction.getName()).orElse(i18n.getMessage("orchestrator.unnamedAction"));
+        if (!StringUtils.hasText(switchAction.getDiscriminator())) {
+            log.error(i18n.getMessage("executor.switch.discriminatorMissing", switchName));
+            throw new IllegalArgumentException(i18n.getMessage("executor.switch.discriminatorMissing.runtime", switchName));
+        }
+        Object discriminator;
+        try {
+            discriminator = spelEvaluator.evaluate(switchAction.getDiscriminator(), jobContext, additionalSpelVariables, jobSpecificClassLoader);
+        } catch (Exception e) {
+            // Sin discriminador no se sabe qué rama tocaba: ejecutar default o ninguna ocultaría el fallo
+            log.error(i18n.getMessage("executor.switch.evaluationError", switchName, switchAction.getDiscriminator(), e.getMessage()));
+            throw new IllegalArgumentException(i18n.getMessage("executor.switch.evaluationError.runtime", switchName), e);
+        }
+
+        Map<Object, SwitchCase> caseTable = switchAction.getCaseTable();
+        if (caseTable == null) {
+            // Carrera benigna: si dos hilos la construyen a la vez, las dos tablas son iguales
+            caseTable = buildCaseTable(switchAction, switchName);
+            switchAction.setCaseTable(caseTable);
+        }
+        SwitchCase matched = caseTable.get(normalize(discriminator));
+        List<Action> branch = matched != null ? matched.getActions() : switchAction.getDefaultActions();
+        if (log.isDebugEnabled()) {
+            log.debug(i18n.getMessage(matched != null ? "executor.switch.caseMatched" : "executor.switch.defaultBranch", switchName, discriminator, lineage.toString()));
+        }
+        if (branch == null || branch.isEmpty()) return null;
+        // Como en conditional, la primera acción de la rama recibe el #previousResult del switch
+        return orchestratorService.executeActions(branch, jobContext, jobSpecificClassLoader, lineage.dive(switchName), additionalSpelVariables.get(OrchestratorService.PREVIOUS_ACTION_RESULT_KEY));
+    }
+
+    private Map<Object, SwitchCase> buildCaseTable(SwitchAction switchAction, String switchName) {
+        Map<Object, SwitchCase> table = new HashMap<>();
+        if (switchAction.getCases() == null) return table;
+        for (SwitchCase switchCase : switchAction.getCases()) {
+            Collection<?> values = switchCase.getWhen() instanceof Collection<?> collection ? collection : Collections.singletonList(switchCase.getWhen());
+            for (Object value : values) {
+                Object key = normalize(value);
+                if (table.containsKey(key)) {
+                    log.warn(i18n.getMessage("executor.switch.duplicateCase", switchName, value));
+                    continue; // Gana el primer caso, como en un switch de Java con etiquetas repetidas por error
+                }
+                table.put(key, switchCase);
+            }
+        }
+        return table;
+    }
+
+    // YAML entrega los literales como Integer/Double/String y SpEL suele producir Long o enums:
+    // se comparan todos los enteros como Long, los decimales como Double y los enums/chars por su texto
+    private static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) return ((Number) value).longValue();
+        if (value instanceof Float || value instanceof Double) {
+            double number = ((Number) value).doubleValue();
+            return number == Math.rint(number) && !Double.isInfinite(number) ? (Object) (long) number : (Object) number;
+        }
+        if (value instanceof Enum<?> enumValue) return enumValue.name();
+        if (value instanceof Character character) return character.toString();
+        return value;
+    }
+}
@@ -1,26 +1,54 @@
 package com.ggar.orchid.factory;
 
+import com.ggar.orchid.bootstrap.ApplicationContextProvider;
+import com.ggar.orchid.concurrent.SingleFlight;
 import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.registry.JobRegistry;
 import com.ggar.orchid.executor.*;
+import com.ggar.orchid.service.FileWriteService;
+import com.ggar.orchid.service.HttpClientService;
 import com.ggar.orchid.service.I18nService;
+import com.ggar.orchid.worker.DistributedLoopCoordinator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
 @Component
 public class ActionExecutorFactory {
     private static final Logger log = LoggerFactory.getLogger(ActionExecutorFactory.class);
-    private final ApplicationContext applicationContext;
+    private final ApplicationContextProvider applicationContextProvider;
     private final SpelExpressionEvaluator spelEvaluator;
     private final I18nService i18n;
+    private final ExecutorService workerPool;
+    private final ForkJoinPool pipelinePool;
+    private final FileWriteService fileWriteService;
+    private final HttpClientService httpClientService;
+    private final JobRegistry jobRegistry;
+    private final DistributedLoopCoordinator distributedLoopCoordinator;
+    private final SingleFlight<Object> javaMethodCalls = new SingleFlight<>(); // Compartido por todos los jobs (coalesce: true)
 
     @Autowired
-    public ActionExecutorFactory(ApplicationContext applicationContext, SpelExpressionEvaluator spelEvaluator, I18nService i18n) {
-        this.applicationContext = applicationContext;
+    public ActionExecutorFactory(ApplicationContext applicationContext, SpelExpressionEvaluator spelEvaluator, I18nService i18n, @Qualifier("orchidWorkerPool") ExecutorService orchidWorkerPool, @Qualifier("orchidPipelinePool") ForkJoinPool orchidPipelinePool, FileWriteService fileWriteService, HttpClientService httpClientService, JobRegistry jobRegistry, DistributedLoopCoordinator distributedLoopCoordinator) {
+        this(ApplicationContextProvider.of(applicationContext), spelEvaluator, i18n, orchidWorkerPool, orchidPipelinePool, fileWriteService, httpClientService, jobRegistry, distributedLoopCoordinator);
+    }
+
+    // Usado por OrchidLauncher, que crea el ApplicationContext solo si algún javaMethod busca un bean
+    public ActionExecutorFactory(ApplicationContextProvider applicationContextProvider, SpelExpressionEvaluator spelEvaluator, I18nService i18n, ExecutorService orchidWorkerPool, ForkJoinPool orchidPipelinePool, FileWriteService fileWriteService, HttpClientService httpClientService, JobRegistry jobRegistry, DistributedLoopCoordinator distributedLoopCoordinator) {
+        this.applicationContextProvider = applicationContextProvider;
         this.spelEvaluator = spelEvaluator;
         this.i18n = i18n;
+        this.workerPool = orchidWorkerPool;
+        this.pipelinePool = orchidPipelinePool;
+        this.fileWriteService = fileWriteService;
+        this.httpClientService = httpClientService;
+        this.jobRegistry = jobRegistry;
+        this.distributedLoopCoordinator = distributedLoopCoordinator;
     }
 
     public ActionExecutor getExecutor(String type) {
@@ -28,10 +56,18 @@ public class ActionExecutorFactory {
         switch (type) {
             // Los constructores de ActionExecutor no cambian, pasan el I18nService como antes
             case "spel": return new SpelActionExecutor(spelEvaluator, i18n);
-            case "loop": return new LoopActionExecutor(spelEvaluator, i18n);
+            case "loop": return new LoopActionExecutor(spelEvaluator, i18n, workerPool, distributedLoopCoordinator);
             case "conditional": return new ConditionalActionExecutor(spelEvaluator, i18n);
             case "command": return new CommandActionExecutor(spelEvaluator, i18n);
-            case "javaMethod": return new JavaMethodActionExecutor(applicationContext, spelEvaluator, i18n);
+            case "javaMethod": return new JavaMethodActionExecutor(applicationContextProvider, spelEvaluator, i18n, javaMethodCalls);
+            case "file": return new FileActionExecutor(spelEvaluator, i18n, fileWriteService);
+            case "filter": return new FilterActionExecutor(spelEvaluator, i18n, workerPool);
+            case "await": return new AwaitActionExecutor(spelEvaluator, i18n);
+            case "switch": return new SwitchActionExecutor(spelEvaluator, i18n);
+            case "pipeline": return new PipelineActionExecutor(spelEvaluator, i18n, pipelinePool);
+            case "job": return new JobActionExecutor(spelEvaluator, i18n, jobRegistry, workerPool);
+            case "source": return new SourceActionExecutor(spelEvaluator, i18n);
+            case "http": return new HttpActionExecutor(spelEvaluator, i18n, httpClientService, fileWriteService);
             default:
                 log.error(i18n.getMessage("factory.unsupportedActionType", type));
                 throw new IllegalArgumentException(i18n.getMessage("factory.unsupportedActionType.runtime", type));
@@ -0,0 +1,35 @@
+package com.ggar.orchid.io;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Campos de un registro CSV (RFC 4180): separador configurable, campos entre comillas dobles con "" como escape.
+final class CsvParser {
+    private CsvParser() {
+    }
+
+    // null si el registro termina dentro de un campo entre comillas: el valor continúa en la línea siguiente
+    static List<String> parse(CharSequence record, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c != '"') field.append(c);
+                else if (i + 1 < record.length() && record.charAt(i + 1) == '"') field.append(record.charAt(++i));
+                else quoted = false;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) return null;
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ggar.orchid.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+// Recorre un FileChannel línea a línea desde una posición dada, buscando el byte '\n' directamente en el buffer
+// (mapeado o leído por trozos). Solo los bytes de la línea en curso se copian al heap, en un array reutilizado.
+// Sirve para cualquier charset en el que '\n' sea el byte 0x0A y no aparezca dentro de otros caracteres (ASCII,
+// UTF-8, ISO-8859-*...). No es thread-safe.
+final class LineScanner {
+    // Las ventanas mapeadas no se pueden liberar a mano: se desmapean cuando el GC recoge el buffer
+    private static final long MAP_WINDOW_BYTES = 64L << 20;
+    private final FileChannel channel;
+    private final ReadMode mode;
+    private final long fileSize;
+    private ByteBuffer buffer;
+    private long position; // posición en el fichero del siguiente byte por leer (inicio de la siguiente línea)
+    private byte[] line = new byte[256];
+    private int lineLength;
+
+    LineScanner(FileChannel channel, ReadMode mode, int chunkBytes, long start) throws IOException {
+        this.channel = channel;
+        this.mode = mode;
+        this.fileSize = channel.size();
+        this.buffer = mode == ReadMode.CHUNKED ? ByteBuffer.allocateDirect(Math.max(4096, chunkBytes)).limit(0) : ByteBuffer.allocate(0);
+        this.position = start;
+    }
+
+    static void checkCharset(Charset charset) {
+        if (!Arrays.equals("\n".getBytes(charset), new byte[]{'\n'})) {
+            throw new IllegalArgumentException("Charset " + charset + " does not encode '\\n' as a single byte");
+        }
+    }
+
+    long position() {
+        return position;
+    }
+
+    // Lee la siguiente línea sin '\n' ni '\r' final; false al llegar al final del fichero
+    boolean nextLine() throws IOException {
+        if (position >= fileSize) return false;
+        lineLength = 0;
+        while (buffer.hasRemaining() || fill()) {
+            int from = buffer.position();
+            int limit = buffer.limit();
+            int newline = from;
+            while (newline < limit && buffer.get(newline) != '\n') newline++;
+            append(from, newline - from);
+            position += newline - from;
+            if (newline < limit) {
+                buffer.position(newline + 1);
+                position++;
+                break;
+            }
+            buffer.position(limit);
+        }
+        if (lineLength > 0 && line[lineLength - 1] == '\r') lineLength--;
+        return true;
+    }
+
+    String decode(Charset charset) {
+        return new String(line, 0, lineLength, charset);
+    }
+
+    boolean isBlank() {
+        for (int i = 0; i < lineLength; i++) {
+            if (line[i] != ' ' && line[i] != '\t') return false;
+        }
+        return true;
+    }
+
+    private void append(int bufferIndex, int length) {
+        if (length == 0) return;
+        if (lineLength + length > line.length) line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        buffer.get(bufferIndex, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private boolean fill() throws IOException {
+        if (position >= fileSize) return false;
+        if (mode == ReadMode.MMAP) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW_BYTES, fileSize - position));
+        } else {
+            buffer.clear();
+            int read = 0;
+            while (read == 0) read = channel.read(buffer, position);
+            buffer.flip();
+            if (read < 0) return false;
+        }
+        return buffer.hasRemaining();
+    }
+}
@@ -0,0 +1,7 @@
+package com.ggar.orchid.io;
+
+// Cómo se leen los bytes del fichero. Los dos modos recorren el fichero una sola vez y con memoria constante.
+public enum ReadMode {
+    MMAP,   // ventanas de FileChannel.map: sin copias del kernel al heap, las páginas las gestiona el sistema
+    CHUNKED // lecturas posicionales sobre un único buffer directo de chunkSize bytes
+}
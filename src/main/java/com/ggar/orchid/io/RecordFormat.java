@@ -0,0 +1,8 @@
+package com.ggar.orchid.io;
+
+// Cómo se delimitan y convierten los registros de una RecordSource.
+public enum RecordFormat {
+    LINES, // cada línea es un String (sin el fin de línea)
+    CSV,   // cada registro es un Map columna -> valor si hay cabecera, o una List<String> si no la hay
+    JSONL  // cada línea no vacía es un documento JSON (Map, List o valor simple)
+}
@@ -0,0 +1,194 @@
+package com.ggar.orchid.io;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Registros de un rango de bytes [start, end) de un fichero, leídos de forma perezosa. Cada iterator() abre el
+// fichero y lo recorre una sola vez con memoria constante; el fichero se cierra al agotar el iterador o con close()
+// (LoopActionExecutor lo cierra aunque el loop termine antes). No hay nada en memoria entre dos iteraciones.
+// split(n) divide el rango en n trozos que se pueden consumir en paralelo (un loop con parallelism o workers
+// sobre la lista): cada registro pertenece al trozo en el que empieza, así que ninguno se pierde ni se repite.
+// Los trozos se alinean en saltos de línea, por lo que un CSV con saltos de línea dentro de campos entre
+// comillas solo se puede leer sin dividir. Es Serializable para poder enviar los trozos a los workers.
+// Un registro puede ser null (la línea JSONL "null"): el final de los registros no se marca con null.
+public final class RecordSource implements Iterable<Object>, Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private final String path;
+    private final long start;
+    private final long end;
+    private final Options options;
+
+    public record Options(RecordFormat format, ReadMode mode, String charset, char delimiter, boolean header,
+                          int chunkBytes) implements Serializable {
+    }
+
+    private RecordSource(String path, long start, long end, Options options) {
+        this.path = path;
+        this.start = start;
+        this.end = end;
+        this.options = options;
+    }
+
+    public static RecordSource open(Path path, Options options) throws IOException {
+        LineScanner.checkCharset(Charset.forName(options.charset()));
+        return new RecordSource(path.toAbsolutePath().toString(), 0, Files.size(path), options);
+    }
+
+    public List<RecordSource> split(int parts) {
+        long length = end - start;
+        long partLength = Math.max(1, (length + Math.max(1, parts) - 1) / Math.max(1, parts));
+        List<RecordSource> splits = new ArrayList<>();
+        for (long from = start; from < end; from += partLength) {
+            splits.add(new RecordSource(path, from, Math.min(end, from + partLength), options));
+        }
+        if (splits.isEmpty()) splits.add(this);
+        return splits;
+    }
+
+    public Path getPath() { return Path.of(path); }
+    public long getStart() { return start; }
+    public long getEnd() { return end; }
+    public RecordFormat getFormat() { return options.format(); }
+
+    @Override
+    public RecordIterator iterator() {
+        try {
+            return new RecordIterator();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Spliterator<Object> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+    }
+
+    @Override
+    public String toString() {
+        return "RecordSource[" + path + " " + options.format() + " bytes " + start + "-" + end + "]";
+    }
+
+    public final class RecordIterator implements Iterator<Object>, AutoCloseable {
+        private final FileChannel channel;
+        private final LineScanner scanner;
+        private final Charset charset = Charset.forName(options.charset());
+        private List<String> header;
+        private Object next;
+        private boolean buffered; // next contiene un registro ya leído, aunque sea null
+        private boolean exhausted; // No quedan registros o se ha cerrado
+
+        private RecordIterator() throws IOException {
+            this.channel = FileChannel.open(Path.of(path), StandardOpenOption.READ);
+            try {
+                if (options.format() == RecordFormat.CSV && options.header()) header = start == 0 ? null : readHeader();
+                // Fuera del primer trozo, la línea que contiene el byte start-1 pertenece al trozo anterior
+                this.scanner = new LineScanner(channel, options.mode(), options.chunkBytes(), Math.max(0, start - 1));
+                if (start > 0) scanner.nextLine();
+                else if (options.format() == RecordFormat.CSV && options.header()) header = nextCsvRecord();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (buffered) return true;
+            if (exhausted) return false;
+            try {
+                buffered = readRecord();
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+            if (!buffered) close();
+            return buffered;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Object record = next;
+            next = null;
+            buffered = false;
+            return record;
+        }
+
+        @Override
+        public void close() {
+            if (exhausted) return;
+            exhausted = true;
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Solo lectura: no hay nada que perder
+            }
+        }
+
+        // Un registro por cada línea que empieza antes de end; las líneas vacías solo cuentan en LINES.
+        // Deja el registro en next y devuelve false cuando ya no quedan
+        private boolean readRecord() throws IOException {
+            while (scanner.position() < end) {
+                switch (options.format()) {
+                    case LINES -> {
+                        if (!scanner.nextLine()) return false;
+                        next = scanner.decode(charset);
+                        return true;
+                    }
+                    case JSONL -> {
+                        if (!scanner.nextLine()) return false;
+                        if (scanner.isBlank()) continue;
+                        next = JSON.readValue(scanner.decode(charset), Object.class);
+                        return true;
+                    }
+                    case CSV -> {
+                        List<String> fields = nextCsvRecord();
+                        if (fields == null) return false;
+                        if (fields.size() == 1 && fields.get(0).isBlank()) continue;
+                        next = header == null ? fields : toRow(fields);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        // Un campo entre comillas puede continuar en las líneas siguientes, aunque pasen de end
+        private List<String> nextCsvRecord() throws IOException {
+            if (!scanner.nextLine()) return null;
+            String record = scanner.decode(charset);
+            List<String> fields = CsvParser.parse(record, options.delimiter());
+            while (fields == null) {
+                if (!scanner.nextLine()) throw new IllegalStateException("Unterminated quoted field in " + path + " before byte " + scanner.position());
+                record = record + "\n" + scanner.decode(charset);
+                fields = CsvParser.parse(record, options.delimiter());
+            }
+            return fields;
+        }
+
+        private Map<String, Object> toRow(List<String> fields) {
+            Map<String, Object> row = new LinkedHashMap<>(Math.max(16, header.size() * 2));
+            for (int i = 0; i < Math.max(header.size(), fields.size()); i++) {
+                String column = i < header.size() ? header.get(i) : String.valueOf(i);
+                row.put(column, i < fields.size() ? fields.get(i) : null);
+            }
+            return row;
+        }
+
+        private List<String> readHeader() throws IOException {
+            LineScanner headerScanner = new LineScanner(channel, ReadMode.CHUNKED, 4096, 0);
+            return headerScanner.nextLine() ? CsvParser.parse(headerScanner.decode(charset), options.delimiter()) : List.of();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ggar.orchid.jfr;
+
+import jdk.jfr.*;
+
+// Las acciones anidadas (cuerpos de loop, ramas, etapas de un loop en pipeline) emiten su propio evento,
+// a menudo en hilos del pool de trabajo; el linaje permite reconstruir el árbol.
+@Name("com.ggar.orchid.ActionExecution")
+@Label("Action Execution")
+@Category({"Orchid", "Execution"})
+@Threshold("1 us")
+@StackTrace(false)
+public class ActionExecutionEvent extends Event {
+    @Label("Job Run Id")
+    public String jobRunId;
+
+    @Label("Action Type")
+    public String actionType;
+
+    @Label("Action Name")
+    public String actionName;
+
+    @Label("Lineage")
+    @Description("Stage and parent actions of the action")
+    public String lineage;
+
+    @Label("Cache Hit")
+    @Description("The result came from the action result cache and the executor was not called")
+    public boolean cacheHit;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,18 @@
+package com.ggar.orchid.jfr;
+
+import jdk.jfr.*;
+
+// Evento del camino más caliente: el umbral por defecto descarta las evaluaciones de menos de 1 µs, que son la
+// gran mayoría, y sin grabación activa begin()/end() no cuestan nada una vez compilados.
+@Name("com.ggar.orchid.ExpressionEvaluation")
+@Label("SpEL Expression Evaluation")
+@Category({"Orchid", "SpEL"})
+@Threshold("1 us")
+@StackTrace(false)
+public class ExpressionEvaluationEvent extends Event {
+    @Label("Expression")
+    public String expression;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,22 @@
+package com.ggar.orchid.jfr;
+
+import jdk.jfr.*;
+
+// Eventos JFR de Orchid: con una grabación continua (-XX:StartFlightRecording) se pueden cruzar jobs, stages,
+// acciones y expresiones con los eventos de GC, bloqueos o E/S del mismo hilo e intervalo.
+@Name("com.ggar.orchid.JobExecution")
+@Label("Job Execution")
+@Category({"Orchid", "Execution"})
+@Description("Execution of an Orchid job, from the first stage to the release of its resources")
+@StackTrace(false)
+public class JobExecutionEvent extends Event {
+    @Label("Job Id")
+    public String jobId;
+
+    @Label("Job Run Id")
+    @Description("Identifies one run of the job; shared by its stage and action events")
+    public String jobRunId;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,15 @@
+package com.ggar.orchid.jfr;
+
+import jdk.jfr.*;
+
+@Name("com.ggar.orchid.StageExecution")
+@Label("Stage Execution")
+@Category({"Orchid", "Execution"})
+@StackTrace(false)
+public class StageExecutionEvent extends Event {
+    @Label("Job Run Id")
+    public String jobRunId;
+
+    @Label("Stage")
+    public String stageName;
+}
@@ -6,6 +6,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.Map;
+
 @JsonTypeInfo(
         use = JsonTypeInfo.Id.NAME,
         include = JsonTypeInfo.As.PROPERTY,
@@ -17,7 +19,15 @@ import lombok.Setter;
         @JsonSubTypes.Type(value = LoopAction.class, name = "loop"),
         @JsonSubTypes.Type(value = ConditionalAction.class, name = "conditional"),
         @JsonSubTypes.Type(value = CommandAction.class, name = "command"),
-        @JsonSubTypes.Type(value = JavaMethodAction.class, name = "javaMethod")
+        @JsonSubTypes.Type(value = JavaMethodAction.class, name = "javaMethod"),
+        @JsonSubTypes.Type(value = FileAction.class, name = "file"),
+        @JsonSubTypes.Type(value = HttpAction.class, name = "http"),
+        @JsonSubTypes.Type(value = FilterAction.class, name = "filter"),
+        @JsonSubTypes.Type(value = PipelineAction.class, name = "pipeline"),
+        @JsonSubTypes.Type(value = SwitchAction.class, name = "switch"),
+        @JsonSubTypes.Type(value = AwaitAction.class, name = "await"),
+        @JsonSubTypes.Type(value = JobAction.class, name = "job"),
+        @JsonSubTypes.Type(value = SourceAction.class, name = "source")
 })
 @Getter
 @Setter
@@ -27,4 +37,6 @@ public abstract class Action {
     private String description;
     private String type;
     private String returnToContextAs;
+    private CacheDefinition cache; // Opcional: memoiza el resultado de acciones deterministas
+    private Map<String, Integer> acquires; // Permisos de recursos globales retenidos mientras se ejecuta la acción
 }
@@ -1,19 +1,51 @@
 package com.ggar.orchid.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
-public record ActionExecutionLineage(String rootStageName, List<String> parentActionStack) {
-    public ActionExecutionLineage(String rootStageName) {
-        this(rootStageName, Collections.emptyList());
+// jobRunId identifica la ejecución del job a la que pertenece la acción (p.ej. para las cachés de ámbito RUN).
+// heldResources son los recursos (acquires) que ya retiene alguna acción que contiene a esta
+public record ActionExecutionLineage(String jobRunId, String rootStageName, List<String> parentActionStack, Set<String> heldResources) {
+    private static final char RUN_SEPARATOR = '#';
+
+    public ActionExecutionLineage(String jobRunId, String rootStageName) {
+        this(jobRunId, rootStageName, Collections.emptyList());
+    }
+
+    public ActionExecutionLineage(String jobRunId, String rootStageName, List<String> parentActionStack) {
+        this(jobRunId, rootStageName, parentActionStack, Collections.emptySet());
+    }
+
+    // jobRunId = <id del job>#<número de ejecución>
+    public static String runIdOf(String jobId, long runNumber) {
+        return jobId + RUN_SEPARATOR + runNumber;
+    }
+
+    public String jobId() {
+        int separator = jobRunId.lastIndexOf(RUN_SEPARATOR);
+        return separator >= 0 ? jobRunId.substring(0, separator) : jobRunId;
     }
 
     public ActionExecutionLineage dive(String currentActionName) {
         List<String> newStack = new ArrayList<>(parentActionStack);
         newStack.add(currentActionName);
-        return new ActionExecutionLineage(rootStageName, Collections.unmodifiableList(newStack));
+        return new ActionExecutionLineage(jobRunId, rootStageName, Collections.unmodifiableList(newStack), heldResources);
+    }
+
+    // Las acciones anidadas heredan los recursos reservados por la acción actual
+    public ActionExecutionLineage holding(Collection<String> resources) {
+        if (resources == null || heldResources.containsAll(resources)) return this;
+        Set<String> newHeld = new TreeSet<>(heldResources);
+        newHeld.addAll(resources);
+        return new ActionExecutionLineage(jobRunId, rootStageName, parentActionStack, Collections.unmodifiableSet(newHeld));
+    }
+
+    // Para las acciones que se ejecutan a la vez que otras (ramas de un loop paralelo, etapas de un pipeline, sub-jobs
+    // de un fan-out paralelo): los permisos de la acción que las contiene cubren una sola ejecución, así que cada una
+    // pide los suyos al pool
+    public ActionExecutionLineage withoutHeldResources() {
+        if (heldResources.isEmpty()) return this;
+        return new ActionExecutionLineage(jobRunId, rootStageName, parentActionStack, Collections.emptySet());
     }
 
     @Override
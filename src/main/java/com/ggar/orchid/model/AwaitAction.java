@@ -0,0 +1,16 @@
+package com.ggar.orchid.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class AwaitAction extends Action {
+    private String expression = "#previousResult"; // Futuro o colección de futuros a esperar (si no hay keys)
+    private List<String> keys; // Claves del jobContext cuyos futuros se esperan y se sustituyen por su valor
+    private long timeoutSeconds = 0; // 0 = sin límite
+}
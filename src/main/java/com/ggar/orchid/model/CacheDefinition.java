@@ -0,0 +1,18 @@
+package com.ggar.orchid.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CacheDefinition {
+    public enum Scope { RUN, PROCESS, PERSISTENT }
+
+    private String name; // Por defecto el nombre de la acción; acciones con el mismo nombre comparten caché
+    private String key; // Expresión SpEL que identifica la entrada
+    private long ttlSeconds = 0; // 0 = sin caducidad
+    private int maxSize = 1000; // Entradas en memoria antes de expulsar la menos usada
+    private Scope scope = Scope.RUN;
+}
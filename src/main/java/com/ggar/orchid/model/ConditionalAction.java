@@ -14,5 +14,7 @@ public class ConditionalAction extends Action {
     private String condition;
     @JsonProperty("actions")
     private List<Action> thenActions;
+    @JsonProperty("else")
+    private List<Action> elseActions;
 }
 
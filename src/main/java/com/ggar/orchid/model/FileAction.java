@@ -0,0 +1,16 @@
+package com.ggar.orchid.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class FileAction extends Action {
+    private String path;
+    private String content = "#previousResult"; // byte[], ByteBuffer, InputStream, ReadableByteChannel o texto
+    private boolean append = false;
+    private boolean atomic = false; // escribir en un temporal y renombrarlo sobre el destino
+    private boolean async = false;  // write-behind: la acción devuelve un CompletableFuture<Path>
+}
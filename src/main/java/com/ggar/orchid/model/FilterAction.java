@@ -0,0 +1,18 @@
+package com.ggar.orchid.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class FilterAction extends Action {
+    public enum Mode { IN_PLACE, NEW_TARGET }
+
+    private String collection;
+    private String iteratorVariable = "item";
+    private String predicate; // Se conservan los elementos para los que es true
+    private Mode mode = Mode.IN_PLACE; // IN_PLACE compacta la colección con removeIf; NEW_TARGET devuelve una lista nueva
+    private int parallelism = 1; // >1: el predicado se evalúa en trozos en el pool de workers
+}
@@ -0,0 +1,28 @@
+package com.ggar.orchid.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class HttpAction extends Action {
+    public enum ResponseType { STRING, BYTES, FILE }
+
+    private String url;
+    private String method = "GET";
+    private Map<String, String> headers; // Valores evaluados como SpEL
+    private String body;                 // SpEL: String, byte[], Path, InputStream...
+    private ResponseType responseType = ResponseType.STRING;
+    private String targetPath;           // SpEL, obligatorio con responseType FILE: el cuerpo se vuelca directamente al fichero
+    private long timeoutSeconds = 60;
+    private int retries = 0;             // Reintentos ante errores de E/S, 429 y 5xx
+    private long retryBackoffMillis = 500; // Se duplica en cada reintento (o se usa Retry-After si el servidor lo envía)
+    private double requestsPerSecond = 0;  // >0: token bucket compartido por host
+    private int burst = 1;
+    private boolean failOnErrorStatus = true;
+    private boolean async = false;       // devuelve un CompletableFuture con el resultado
+}
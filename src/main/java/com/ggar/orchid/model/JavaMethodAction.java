@@ -14,4 +14,5 @@ public class JavaMethodAction extends Action {
     private String method;
     private List<Object> constructorArgs; // NUEVO CAMPO para argumentos del constructor
     private List<Object> args; // Argumentos para el método
+    private boolean coalesce = false; // true: las llamadas idénticas simultáneas esperan a la primera y comparten su resultado
 }
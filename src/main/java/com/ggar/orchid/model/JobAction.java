@@ -0,0 +1,20 @@
+package com.ggar.orchid.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class JobAction extends Action {
+    private String jobId; // Id de un job ya cargado en el JobRegistry
+    private Map<String, String> parameters; // Parámetro del sub-job -> expresión SpEL evaluada en el job que invoca
+    private boolean inheritParameters = true; // Parte de los parámetros iniciales (parameters.yml) del sub-job
+    private Map<String, String> outputs; // Clave del resultado -> clave del contexto final del sub-job; sin outputs, todo el contexto
+    private String collection; // Fan-out: un sub-job por elemento, expuesto a 'parameters' como #<iteratorVariable>
+    private String iteratorVariable = "item";
+    private int parallelism = 1; // Sub-jobs del fan-out en ejecución a la vez en el orchidWorkerPool
+}
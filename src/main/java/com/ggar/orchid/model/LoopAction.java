@@ -1,5 +1,6 @@
 package com.ggar.orchid.model;
 
+import com.ggar.orchid.context.MergePolicy;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -12,9 +13,20 @@ import java.util.List;
 public class LoopAction extends Action {
     private String from;
     private String to;
+    private String step; // Paso constante para from/to (por defecto 1); se evalúa una sola vez
     private String incrementExpression;
     private String collection;
     private String iteratorVariable;
     private String conditionExpression;
+    private boolean snapshotCollection = true; // false: iterar la Collection original sin copiarla
+    private int parallelism = 1; // >1: las iteraciones de una colección se ejecutan en paralelo, en ramas aisladas del contexto
+    private MergePolicy mergePolicy = MergePolicy.LAST_WRITER_WINS;
+    // En modo pipeline varias iteraciones están en vuelo a la vez, así que las claves simples de returnToContextAs del
+    // body se declaran en el frame de cada iteración: las ven las etapas siguientes de esa iteración, pero no llegan al
+    // contexto del job (a diferencia de un loop normal). Para publicar un valor hay que usar una expresión '#...'
+    private boolean pipeline = false; // true: cada acción del body es una etapa con sus workers, unidas por colas acotadas
+    private int pipelineQueueCapacity = 4; // Iteraciones que pueden esperar entre dos etapas antes de frenar a la anterior
+    private int stageWorkers = 1; // Workers por etapa en modo pipeline (>1 no conserva el orden de las iteraciones)
+    private int workers = 0; // >0: las iteraciones de una colección se reparten entre N procesos JVM locales
     private List<Action> body;
 }
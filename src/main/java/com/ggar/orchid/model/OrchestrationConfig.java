@@ -5,10 +5,12 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
 @NoArgsConstructor
 public class OrchestrationConfig {
     private List<JobDefinition> jobs;
+    private Map<String, ResourceDefinition> resources; // Recursos globales compartidos por todos los jobs (jobs/resources.yml)
 }
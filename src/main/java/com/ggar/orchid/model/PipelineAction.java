@@ -0,0 +1,24 @@
+package com.ggar.orchid.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class PipelineAction extends Action {
+    public enum Collector { LIST, SET, COUNT, SUM }
+
+    private String source;
+    private String iteratorVariable = "item";
+    private List<PipelineStage> stages = new ArrayList<>();
+    private String reduce; // Si se indica, sustituye a collect: usa #accumulator y la variable del elemento
+    private String identity; // Valor inicial de reduce
+    private String combine; // Combina dos acumulados en paralelo (#accumulator, variable del elemento); por defecto reduce
+    private Collector collect = Collector.LIST;
+    private boolean parallel = false; // Ejecuta el stream en el ForkJoinPool de pipelines
+}
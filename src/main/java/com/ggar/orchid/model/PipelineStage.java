@@ -0,0 +1,15 @@
+package com.ggar.orchid.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Una etapa de un PipelineAction: exactamente una de map, filter o flatMap
+@Getter
+@Setter
+@NoArgsConstructor
+public class PipelineStage {
+    private String map;
+    private String filter;
+    private String flatMap; // Debe devolver una colección, array, Stream o null
+}
@@ -0,0 +1,14 @@
+package com.ggar.orchid.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ResourceDefinition {
+    private int capacity = 0; // Permisos que pueden estar en uso a la vez; 0 = sin límite de concurrencia
+    private double permitsPerSecond = 0; // >0: además, ritmo máximo de adquisición (token bucket)
+    private int burst = 1; // Permisos que el token bucket puede acumular sin uso
+}
@@ -0,0 +1,21 @@
+package com.ggar.orchid.model;
+
+import com.ggar.orchid.io.ReadMode;
+import com.ggar.orchid.io.RecordFormat;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class SourceAction extends Action {
+    private String path; // Expresión: String o Path del fichero de entrada
+    private RecordFormat format = RecordFormat.LINES;
+    private ReadMode mode = ReadMode.MMAP;
+    private String charset = "UTF-8"; // '\n' debe ser un solo byte (ASCII, UTF-8, ISO-8859-*...)
+    private String delimiter = ","; // Separador de campos en CSV
+    private boolean header = true; // CSV: la primera línea da nombre a las columnas
+    private int chunkSize = 1 << 20; // Bytes por lectura en modo CHUNKED
+    private int splits = 1; // >1: devuelve una lista de RecordSource sobre rangos del fichero, para consumidores en paralelo
+}
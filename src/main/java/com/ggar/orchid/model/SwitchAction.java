@@ -0,0 +1,22 @@
+package com.ggar.orchid.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class SwitchAction extends Action {
+    private String discriminator;
+    private List<SwitchCase> cases;
+    @JsonProperty("default")
+    private List<Action> defaultActions;
+    @JsonIgnore
+    private volatile Map<Object, SwitchCase> caseTable; // Tabla valor -> caso, construida en la primera ejecución
+}
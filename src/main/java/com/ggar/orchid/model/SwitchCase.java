@@ -0,0 +1,15 @@
+package com.ggar.orchid.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class SwitchCase {
+    private Object when; // Valor literal o lista de valores; no se evalúa como SpEL
+    private List<Action> actions;
+}
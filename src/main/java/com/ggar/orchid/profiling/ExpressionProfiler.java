@@ -0,0 +1,181 @@
+package com.ggar.orchid.profiling;
+
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.service.I18nService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Perfilado opcional de las expresiones SpEL (orchid.profiling.expressions.enabled). Por cada ejecución de job y
+// expresión distinta acumula llamadas, tiempo total, media, p99, bytes asignados por el hilo y excepciones, y al
+// terminar el job escribe las N más costosas con las acciones que las evaluaron.
+// La acción en curso viaja en un ThreadLocal que OrchestratorService fija en cada executeAction.
+// Desactivado, el evaluador solo comprueba isEnabled(): ni ThreadLocal, ni lambdas, ni relojes.
+@Component
+public class ExpressionProfiler {
+    private static final Logger log = LoggerFactory.getLogger(ExpressionProfiler.class);
+    private static final int MAX_LINEAGES_PER_EXPRESSION = 3;
+    private static final int MAX_EXPRESSION_LENGTH = 160;
+    private final I18nService i18n;
+    private final boolean enabled;
+    private final int topN;
+    private final com.sun.management.ThreadMXBean allocationBean;
+    private final ThreadLocal<ActionScope> currentAction = new ThreadLocal<>();
+    private final Map<String, Map<String, ExpressionStats>> statsByJobRun = new ConcurrentHashMap<>();
+
+    // Acción a la que se atribuyen las evaluaciones del hilo; label es el linaje ya formateado una sola vez
+    public record ActionScope(String jobRunId, String label) {
+    }
+
+    @Autowired
+    public ExpressionProfiler(I18nService i18n,
+                              @Value("${orchid.profiling.expressions.enabled:false}") boolean enabled,
+                              @Value("${orchid.profiling.expressions.top:20}") int topN) {
+        this.i18n = i18n;
+        this.enabled = enabled;
+        this.topN = Math.max(1, topN);
+        this.allocationBean = enabled ? allocationBean() : null;
+        if (enabled) log.info(i18n.getMessage("profiler.enabled", this.topN, allocationBean != null));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Devuelve el ámbito anterior para restaurarlo con exit() (las acciones se anidan en el mismo hilo)
+    public ActionScope enter(ActionExecutionLineage lineage, String actionName) {
+        if (!enabled) return null;
+        ActionScope previous = currentAction.get();
+        currentAction.set(new ActionScope(lineage.jobRunId(), lineage.dive(actionName).toString()));
+        return previous;
+    }
+
+    public void exit(ActionScope previous) {
+        if (!enabled) return;
+        if (previous == null) currentAction.remove();
+        else currentAction.set(previous);
+    }
+
+    // Para evaluaciones que ocurren en otros hilos (p. ej. etapas de un pipeline en el ForkJoinPool)
+    public ActionScope currentAction() {
+        return enabled ? currentAction.get() : null;
+    }
+
+    // Sin acción en curso (hilos ajenos a la ejecución del job) la evaluación no se atribuye a ningún informe
+    public Object profile(String expression, ActionScope action, Supplier<Object> evaluation) {
+        if (action == null) return evaluation.get();
+        ExpressionStats stats = statsByJobRun.computeIfAbsent(action.jobRunId(), id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(expression, ExpressionStats::new);
+        long allocatedBefore = allocationBean != null ? allocationBean.getCurrentThreadAllocatedBytes() : 0;
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object value = evaluation.get();
+            failed = false;
+            return value;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            long allocated = allocationBean != null ? allocationBean.getCurrentThreadAllocatedBytes() - allocatedBefore : 0;
+            stats.record(elapsed, allocated, failed, action.label());
+        }
+    }
+
+    public void report(String jobId, String jobRunId) {
+        if (!enabled) return;
+        Map<String, ExpressionStats> runStats = statsByJobRun.remove(jobRunId);
+        if (runStats == null || runStats.isEmpty()) return;
+        List<ExpressionStats> ranked = new ArrayList<>(runStats.values());
+        ranked.sort(Comparator.comparingLong(ExpressionStats::totalNanos).reversed());
+        long evaluations = ranked.stream().mapToLong(ExpressionStats::count).sum();
+        long totalNanos = ranked.stream().mapToLong(ExpressionStats::totalNanos).sum();
+        int shown = Math.min(topN, ranked.size());
+        log.info(i18n.getMessage("profiler.reportHeader", jobId, shown, ranked.size(), String.valueOf(evaluations), formatMillis(totalNanos)));
+        for (int i = 0; i < shown; i++) {
+            ExpressionStats stats = ranked.get(i);
+            long count = stats.count();
+            log.info(i18n.getMessage("profiler.reportLine", i + 1, formatMillis(stats.totalNanos()), String.valueOf(count),
+                    formatMicros(stats.totalNanos() / Math.max(1, count)), formatMicros(stats.histogram.percentile(0.99)),
+                    allocationBean != null ? formatBytes(stats.allocatedBytes.sum()) : "n/a", String.valueOf(stats.exceptions.sum()),
+                    stats.describeLineages(), abbreviate(stats.expression)));
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean allocationBean && allocationBean.isThreadAllocatedMemorySupported()) {
+            if (!allocationBean.isThreadAllocatedMemoryEnabled()) allocationBean.setThreadAllocatedMemoryEnabled(true);
+            return allocationBean;
+        }
+        return null;
+    }
+
+    private static String abbreviate(String expression) {
+        String singleLine = expression.replaceAll("\\s+", " ").trim();
+        return singleLine.length() <= MAX_EXPRESSION_LENGTH ? singleLine : singleLine.substring(0, MAX_EXPRESSION_LENGTH - 3) + "...";
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+
+    private static String formatMicros(long nanos) {
+        return String.format("%.1f", nanos / 1_000.0);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    private static final class ExpressionStats {
+        private final String expression;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder exceptions = new LongAdder();
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final Set<String> lineages = ConcurrentHashMap.newKeySet();
+        private final LongAdder otherLineages = new LongAdder();
+
+        private ExpressionStats(String expression) {
+            this.expression = expression;
+        }
+
+        private void record(long nanos, long allocated, boolean failed, String lineage) {
+            count.increment();
+            totalNanos.add(nanos);
+            allocatedBytes.add(allocated);
+            histogram.record(nanos);
+            if (failed) exceptions.increment();
+            // Solo las primeras acciones distintas; el resto se cuenta (una vez por evaluación, no por acción)
+            if (!lineages.contains(lineage)) {
+                if (lineages.size() < MAX_LINEAGES_PER_EXPRESSION) lineages.add(lineage);
+                else otherLineages.increment();
+            }
+        }
+
+        private long count() {
+            return count.sum();
+        }
+
+        private long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        private String describeLineages() {
+            String described = String.join(" | ", lineages);
+            long others = otherLineages.sum();
+            return others == 0 ? described : described + " (+" + others + " evaluations from other actions)";
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.ggar.orchid.registry;
+
+import com.ggar.orchid.service.I18nService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+// Vigila los directorios de los jobs (job.yml, parameters.yml y el árbol lib/) con un WatchService y avisa
+// del directorio de job que ha cambiado. Los eventos que llegan dentro de la ventana de debounce se agrupan:
+// un editor que guarda en varios pasos o una copia de varios jars producen una sola recarga por job.
+public class JobDirectoryWatcher implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(JobDirectoryWatcher.class);
+    private static final String LIB_DIR_NAME = "lib";
+    private static final Set<String> JOB_FILES = Set.of("job.yml", "parameters.yml");
+    private final I18nService i18n;
+    private final WatchService watchService;
+    private final long debounceMillis;
+    private final Consumer<Path> onJobDirectoryChanged;
+    private final Map<WatchKey, Path> jobDirectoryByKey = new ConcurrentHashMap<>();
+    private final Thread watcherThread;
+    private volatile boolean closed;
+
+    public JobDirectoryWatcher(I18nService i18n, Collection<Path> jobDirectories, long debounceMillis, Consumer<Path> onJobDirectoryChanged) {
+        this.i18n = i18n;
+        this.debounceMillis = debounceMillis;
+        this.onJobDirectoryChanged = onJobDirectoryChanged;
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            for (Path jobDirectory : jobDirectories) {
+                register(jobDirectory, jobDirectory);
+                Path libDirectory = jobDirectory.resolve(LIB_DIR_NAME);
+                if (Files.isDirectory(libDirectory)) registerTree(libDirectory, jobDirectory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.watcherThread = new Thread(this::watch, "orchid-job-watcher");
+        this.watcherThread.setDaemon(true);
+        this.watcherThread.start();
+        log.info(i18n.getMessage("job.watcher.started", jobDirectories.size(), debounceMillis));
+    }
+
+    private void watch() {
+        try {
+            while (!closed) {
+                WatchKey key = watchService.take();
+                Set<Path> changedJobDirectories = new LinkedHashSet<>();
+                do {
+                    collect(key, changedJobDirectories);
+                } while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null);
+                for (Path jobDirectory : changedJobDirectories) {
+                    try {
+                        onJobDirectoryChanged.accept(jobDirectory);
+                    } catch (RuntimeException e) {
+                        log.error(i18n.getMessage("job.watcher.reloadFailed", jobDirectory, e.getMessage()), e);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close() desde otro hilo
+        }
+        log.info(i18n.getMessage("job.watcher.stopped"));
+    }
+
+    private void collect(WatchKey key, Set<Path> changedJobDirectories) {
+        Path jobDirectory = jobDirectoryByKey.get(key);
+        Path watchedDirectory = (Path) key.watchable();
+        if (jobDirectory == null) {
+            key.cancel();
+            return;
+        }
+        boolean inLibTree = !watchedDirectory.equals(jobDirectory);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                changedJobDirectories.add(jobDirectory);
+                continue;
+            }
+            Path name = (Path) event.context();
+            Path changed = watchedDirectory.resolve(name);
+            boolean relevant = inLibTree || JOB_FILES.contains(name.toString()) || LIB_DIR_NAME.equals(name.toString());
+            if (!relevant) continue;
+            // Un lib/ nuevo, o un paquete nuevo dentro de lib/, también hay que vigilarlo
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(changed, LinkOption.NOFOLLOW_LINKS)) {
+                try {
+                    registerTree(changed, jobDirectory);
+                } catch (IOException e) {
+                    log.warn(i18n.getMessage("job.watcher.registerFailed", changed, e.getMessage()));
+                }
+            }
+            log.debug(i18n.getMessage("job.watcher.changeDetected", event.kind().name(), changed));
+            changedJobDirectories.add(jobDirectory);
+        }
+        if (!key.reset()) {
+            // El directorio vigilado ya no existe (p. ej. se ha borrado el job o un paquete de lib/)
+            jobDirectoryByKey.remove(key);
+            changedJobDirectories.add(jobDirectory);
+        }
+    }
+
+    private void registerTree(Path root, Path jobDirectory) throws IOException {
+        try (Stream<Path> directories = Files.walk(root)) {
+            for (Path directory : (Iterable<Path>) directories.filter(Files::isDirectory)::iterator) {
+                register(directory, jobDirectory);
+            }
+        }
+    }
+
+    private void register(Path directory, Path jobDirectory) throws IOException {
+        WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        jobDirectoryByKey.put(key, jobDirectory);
+    }
+
+    // Bloquea hasta que se cierre el watcher (modo de proceso de larga duración)
+    public void awaitTermination() throws InterruptedException {
+        watcherThread.join();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
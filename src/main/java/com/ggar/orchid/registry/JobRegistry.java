@@ -0,0 +1,121 @@
+package com.ggar.orchid.registry;
+
+import com.ggar.orchid.cache.ActionCacheService;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.service.I18nService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Versión vigente de cada job por id. register() sustituye la versión de forma atómica: las ejecuciones que ya
+// tienen un Lease terminan con la anterior y las siguientes usan la nueva. Al retirar una versión solo se
+// descartan las expresiones SpEL parseadas con su ClassLoader y sus cachés en memoria; las del resto de jobs
+// (y las de otras versiones) siguen calientes.
+@Service
+public class JobRegistry {
+    private static final Logger log = LoggerFactory.getLogger(JobRegistry.class);
+    private final I18nService i18n;
+    private final SpelExpressionEvaluator spelEvaluator;
+    private final ActionCacheService actionCacheService;
+    private final Map<String, LoadedJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    @Autowired
+    public JobRegistry(I18nService i18n, SpelExpressionEvaluator spelEvaluator, ActionCacheService actionCacheService) {
+        this.i18n = i18n;
+        this.spelEvaluator = spelEvaluator;
+        this.actionCacheService = actionCacheService;
+    }
+
+    public long nextVersion() {
+        return versionSequence.incrementAndGet();
+    }
+
+    public LoadedJob register(LoadedJob job) {
+        LoadedJob previous = jobs.put(job.getId(), job);
+        if (previous != null && previous != job) {
+            log.info(i18n.getMessage("job.registry.versionSwapped", job.getId(), previous.getVersion(), job.getVersion(), previous.getActiveRuns()));
+            retire(previous);
+        } else {
+            log.debug(i18n.getMessage("job.registry.registered", job.getId(), job.getVersion()));
+        }
+        return previous;
+    }
+
+    public LoadedJob unregister(String jobId) {
+        LoadedJob previous = jobs.remove(jobId);
+        if (previous != null) {
+            log.info(i18n.getMessage("job.registry.unregistered", jobId, previous.getVersion(), previous.getActiveRuns()));
+            retire(previous);
+        }
+        return previous;
+    }
+
+    public Optional<LoadedJob> get(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public Optional<LoadedJob> findBySourceDirectory(Path directory) {
+        return jobs.values().stream().filter(job -> directory.equals(job.getSourceDirectory())).findFirst();
+    }
+
+    public Collection<LoadedJob> getJobs() {
+        return Collections.unmodifiableCollection(jobs.values());
+    }
+
+    // Reserva la versión vigente para una ejecución. Si register() la sustituye entre la lectura y la reserva,
+    // se suelta y se vuelve a intentar, así nunca se reserva una versión que ya no está en el registro
+    public Lease acquire(String jobId) {
+        while (true) {
+            LoadedJob job = jobs.get(jobId);
+            if (job == null) {
+                log.error(i18n.getMessage("job.registry.jobNotFound", jobId));
+                throw new IllegalArgumentException(i18n.getMessage("job.registry.jobNotFound.runtime", jobId));
+            }
+            job.acquire();
+            if (jobs.get(jobId) == job) return new Lease(job);
+            job.release();
+        }
+    }
+
+    // Se limpia al retirar y otra vez cuando termina la última ejecución de la versión, por si alguna volvió a
+    // llenar sus cachés entretanto
+    private void retire(LoadedJob previous) {
+        Runnable cleanup = () -> evict(previous);
+        cleanup.run();
+        previous.retire(cleanup);
+    }
+
+    private void evict(LoadedJob version) {
+        // Un ClassLoader compartido (el de la aplicación) también lo usan otros jobs: sus expresiones no se tocan
+        int evictedExpressions = version.ownsClassLoader() ? spelEvaluator.evictClassLoader(version.getClassLoader()) : 0;
+        int invalidatedCaches = actionCacheService.invalidate(version.getId(), version.getClassLoader());
+        log.debug(i18n.getMessage("job.registry.versionRetired", version.getId(), version.getVersion(), evictedExpressions, invalidatedCaches));
+    }
+
+    public static final class Lease implements AutoCloseable {
+        private final LoadedJob job;
+        private boolean released;
+
+        private Lease(LoadedJob job) {
+            this.job = job;
+        }
+
+        public LoadedJob job() {
+            return job;
+        }
+
+        @Override
+        public void close() {
+            if (released) return;
+            released = true;
+            job.release();
+        }
+    }
+}
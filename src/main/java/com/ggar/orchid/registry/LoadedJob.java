@@ -0,0 +1,85 @@
+package com.ggar.orchid.registry;
+
+import com.ggar.orchid.model.JobDefinition;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Una versión cargada de un job: definición, parámetros iniciales y ClassLoader de sus plugins.
+// Cuenta las ejecuciones que la usan; cuando JobRegistry la sustituye por otra versión (retire) el
+// ClassLoader propio se cierra en cuanto termina la última de ellas, después de la limpieza que se pida.
+public final class LoadedJob {
+    private final String id;
+    private final long version;
+    private final JobDefinition definition;
+    private final Map<String, Object> initialParameters;
+    private final ClassLoader classLoader;
+    private final boolean ownsClassLoader;
+    private final Path sourceDirectory;
+    private final AtomicInteger activeRuns = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final AtomicReference<Runnable> afterLastRun = new AtomicReference<>();
+    private volatile boolean retired;
+
+    // ownsClassLoader: el ClassLoader se creó solo para esta versión y puede cerrarse al retirarla.
+    // sourceDirectory es null cuando el job.yml no está en el sistema de ficheros (p. ej. dentro de un jar)
+    public LoadedJob(JobDefinition definition, long version, Map<String, Object> initialParameters, ClassLoader classLoader, boolean ownsClassLoader, Path sourceDirectory) {
+        this.id = definition.getId();
+        this.version = version;
+        this.definition = definition;
+        this.initialParameters = Collections.unmodifiableMap(initialParameters);
+        this.classLoader = classLoader;
+        this.ownsClassLoader = ownsClassLoader;
+        this.sourceDirectory = sourceDirectory;
+    }
+
+    public String getId() { return id; }
+    public long getVersion() { return version; }
+    public JobDefinition getDefinition() { return definition; }
+    public Map<String, Object> getInitialParameters() { return initialParameters; }
+    public ClassLoader getClassLoader() { return classLoader; }
+    public Path getSourceDirectory() { return sourceDirectory; }
+    public int getActiveRuns() { return activeRuns.get(); }
+    public boolean isRetired() { return retired; }
+    public boolean isClosed() { return closed.get(); }
+    public boolean ownsClassLoader() { return ownsClassLoader; }
+
+    void acquire() {
+        activeRuns.incrementAndGet();
+    }
+
+    void release() {
+        if (activeRuns.decrementAndGet() == 0 && retired) finish();
+    }
+
+    // afterLastRun se ejecuta una vez cuando termina la última ejecución en curso (nada si no queda ninguna)
+    void retire(Runnable afterLastRun) {
+        if (activeRuns.get() > 0) this.afterLastRun.set(afterLastRun);
+        retired = true;
+        if (activeRuns.get() == 0) finish();
+    }
+
+    private void finish() {
+        Runnable cleanup = afterLastRun.getAndSet(null);
+        if (cleanup != null) cleanup.run();
+        closeClassLoader();
+    }
+
+    // Una ejecución que empiece justo después de retire() ve la versión nueva en el registro y suelta esta,
+    // así que el cierre puede pedirse desde release() y desde retire(): solo el primero lo hace
+    private void closeClassLoader() {
+        if (!ownsClassLoader || !(classLoader instanceof URLClassLoader urlClassLoader) || !closed.compareAndSet(false, true)) return;
+        try {
+            urlClassLoader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.ggar.orchid.service;
+
+import com.ggar.orchid.context.OffHeapBytes;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class FileWriteService {
+    private static final Logger log = LoggerFactory.getLogger(FileWriteService.class);
+    private static final long TRANSFER_CHUNK_BYTES = 8L * 1024 * 1024;
+    private final I18nService i18n;
+    private final ThreadPoolExecutor writeBehindPool;
+    private final Set<Path> createdDirectories = ConcurrentHashMap.newKeySet();
+    // Escrituras write-behind pendientes por ejecución de job (jobRunId): cada job espera solo las suyas
+    private final Map<String, Queue<CompletableFuture<Path>>> pendingWrites = new ConcurrentHashMap<>();
+
+    @Autowired
+    public FileWriteService(I18nService i18n,
+                            @Value("${orchid.file.write-behind.threads:2}") int writerThreads,
+                            @Value("${orchid.file.write-behind.queue-capacity:32}") int queueCapacity) {
+        this.i18n = i18n;
+        AtomicInteger counter = new AtomicInteger();
+        // Cola acotada: cuando se llena, el hilo que encola escribe él mismo (backpressure sobre el job)
+        this.writeBehindPool = new ThreadPoolExecutor(writerThreads, writerThreads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "orchid-file-writer-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.writeBehindPool.allowCoreThreadTimeOut(true);
+    }
+
+    public CompletableFuture<Path> writeAsync(String jobRunId, Path target, Object content, boolean append, boolean atomic) {
+        // La escritura retiene el valor fuera del heap: el job puede sobrescribir su clave antes de que termine
+        OffHeapBytes retained = content instanceof OffHeapBytes handle ? handle : null;
+        if (retained != null && !retained.retain()) {
+            log.error(i18n.getMessage("file.write.releasedContent", target));
+            throw new IllegalStateException(i18n.getMessage("file.write.releasedContent.runtime", target));
+        }
+        CompletableFuture<Path> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return write(target, content, append, atomic);
+                } finally {
+                    if (retained != null) retained.release();
+                }
+            }, writeBehindPool);
+        } catch (RuntimeException e) {
+            if (retained != null) retained.release();
+            throw e;
+        }
+        Queue<CompletableFuture<Path>> runWrites = pendingWrites.computeIfAbsent(runKey(jobRunId), key -> new ConcurrentLinkedQueue<>());
+        runWrites.add(future);
+        // Las fallidas se quedan en la cola hasta que el job las cuente en awaitPendingWrites
+        future.whenComplete((path, error) -> {
+            if (error == null) runWrites.remove(future);
+        });
+        return future;
+    }
+
+    public Path write(Path target, Object content, boolean append, boolean atomic) {
+        if (!isSupportedContent(content)) {
+            throw new IllegalArgumentException(i18n.getMessage("file.write.unsupportedContent", content == null ? "null" : content.getClass().getName()));
+        }
+        try {
+            ensureParentDirectory(target);
+            if (atomic && !append) {
+                Path temp = target.resolveSibling("." + target.getFileName() + ".tmp-" + UUID.randomUUID());
+                try {
+                    long bytes = writeContent(temp, content, false);
+                    moveReplacing(temp, target);
+                    log.debug(i18n.getMessage("file.write.completed", target, bytes));
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            } else {
+                long bytes = writeContent(target, content, append);
+                log.debug(i18n.getMessage("file.write.completed", target, bytes));
+            }
+            return target;
+        } catch (IOException e) {
+            log.error(i18n.getMessage("file.write.error", target, e.getMessage()), e);
+            throw new UncheckedIOException(i18n.getMessage("file.write.error.runtime", target), e);
+        }
+    }
+
+    // Espera a que terminen las escrituras write-behind encoladas por una ejecución de job; devuelve cuántas fallaron
+    public int awaitPendingWrites(String jobRunId) {
+        String key = runKey(jobRunId);
+        Queue<CompletableFuture<Path>> runWrites = pendingWrites.get(key);
+        if (runWrites == null) return 0;
+        int failed = 0;
+        CompletableFuture<Path> pending;
+        while ((pending = runWrites.peek()) != null) {
+            try {
+                pending.join();
+            } catch (CompletionException | CancellationException e) {
+                failed++;
+            }
+            runWrites.remove(pending);
+        }
+        pendingWrites.computeIfPresent(key, (ignored, queue) -> queue.isEmpty() ? null : queue);
+        return failed;
+    }
+
+    // Todas las ejecuciones (al parar el servicio)
+    public int awaitPendingWrites() {
+        int failed = 0;
+        for (String jobRunId : List.copyOf(pendingWrites.keySet())) failed += awaitPendingWrites(jobRunId);
+        return failed;
+    }
+
+    // Las escrituras sin ejecución de job (p. ej. desde código Java de usuario) se agrupan bajo una clave vacía
+    private static String runKey(String jobRunId) {
+        return jobRunId != null ? jobRunId : "";
+    }
+
+    public void ensureParentDirectory(Path target) {
+        Path parent = target.toAbsolutePath().getParent();
+        // Los directorios se crean una sola vez por prefijo de ruta
+        if (parent != null && !createdDirectories.contains(parent)) {
+            try {
+                Files.createDirectories(parent);
+            } catch (IOException e) {
+                log.error(i18n.getMessage("file.write.error", parent, e.getMessage()), e);
+                throw new UncheckedIOException(i18n.getMessage("file.write.error.runtime", parent), e);
+            }
+            createdDirectories.add(parent);
+        }
+    }
+
+    private long writeContent(Path file, Object content, boolean append) throws IOException {
+        OpenOption[] options = append
+                ? new OpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND}
+                : new OpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            if (content instanceof byte[] bytes) return writeFully(channel, ByteBuffer.wrap(bytes));
+            if (content instanceof ByteBuffer buffer) return writeFully(channel, buffer.duplicate());
+            if (content instanceof OffHeapBytes offHeapBytes) return offHeapBytes.writeTo(channel);
+            if (content instanceof CharSequence text) return writeFully(channel, StandardCharsets.UTF_8.encode(text.toString()));
+            if (content instanceof InputStream inputStream) {
+                try (ReadableByteChannel source = Channels.newChannel(inputStream)) {
+                    return transferFully(channel, source);
+                }
+            }
+            if (content instanceof ReadableByteChannel source) {
+                try (source) {
+                    return transferFully(channel, source);
+                }
+            }
+        }
+        throw new IllegalArgumentException(i18n.getMessage("file.write.unsupportedContent", content.getClass().getName()));
+    }
+
+    public static boolean isSupportedContent(Object content) {
+        return content instanceof byte[] || content instanceof ByteBuffer || content instanceof OffHeapBytes || content instanceof CharSequence
+                || content instanceof InputStream || content instanceof ReadableByteChannel;
+    }
+
+    private long writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) written += channel.write(buffer);
+        return written;
+    }
+
+    // transferFrom deja que el sistema copie directamente del canal origen al fichero sin pasar por un byte[] intermedio
+    private long transferFully(FileChannel channel, ReadableByteChannel source) throws IOException {
+        long position = channel.position();
+        long start = position;
+        long transferred;
+        while ((transferred = channel.transferFrom(source, position, TRANSFER_CHUNK_BYTES)) > 0) position += transferred;
+        return position - start;
+    }
+
+    private void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        awaitPendingWrites();
+        writeBehindPool.shutdown();
+    }
+}
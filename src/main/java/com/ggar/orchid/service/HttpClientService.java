@@ -0,0 +1,95 @@
+package com.ggar.orchid.service;
+
+import com.ggar.orchid.concurrent.TokenBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@Service
+public class HttpClientService {
+    private static final Logger log = LoggerFactory.getLogger(HttpClientService.class);
+    private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+    private final I18nService i18n;
+    // Un único cliente para todo el proceso: mantiene el pool de conexiones y multiplexa las peticiones HTTP/2
+    private final HttpClient httpClient;
+    private final Map<String, TokenBucket> rateLimiters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public HttpClientService(I18nService i18n,
+                             @Value("${orchid.http.connect-timeout-seconds:10}") long connectTimeoutSeconds,
+                             @Value("${orchid.http.version:HTTP_2}") HttpClient.Version version) {
+        this.i18n = i18n;
+        this.httpClient = HttpClient.newBuilder()
+                .version(version)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(connectTimeoutSeconds))
+                .build();
+    }
+
+    // Token bucket compartido por todas las acciones que llaman al mismo host con la misma tasa
+    public TokenBucket rateLimiter(String host, double requestsPerSecond, int burst) {
+        return rateLimiters.computeIfAbsent(host + "|" + requestsPerSecond + "|" + burst, key -> new TokenBucket(requestsPerSecond, burst));
+    }
+
+    // Envía la petición sin bloquear ningún hilo: las esperas del rate limiter y del backoff se programan con delayedExecutor
+    public <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, int retries, long retryBackoffMillis, TokenBucket rateLimiter) {
+        return sendAttempt(request, bodyHandler, 0, retries, retryBackoffMillis, rateLimiter);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAttempt(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, int attempt, int retries, long retryBackoffMillis, TokenBucket rateLimiter) {
+        long waitNanos = rateLimiter != null ? rateLimiter.reserve(1) : 0;
+        return delay(waitNanos, TimeUnit.NANOSECONDS)
+                .thenCompose(ignored -> httpClient.sendAsync(request, bodyHandler))
+                .handle((response, error) -> {
+                    Throwable cause = unwrap(error);
+                    if (attempt < retries && isRetryable(response, cause)) {
+                        long delayMillis = retryDelayMillis(response, retryBackoffMillis, attempt);
+                        log.warn(i18n.getMessage("http.retrying", request.method(), request.uri(), attempt + 1, retries, delayMillis,
+                                cause != null ? cause.getMessage() : "HTTP " + response.statusCode()));
+                        return delay(delayMillis, TimeUnit.MILLISECONDS)
+                                .thenCompose(ignored -> sendAttempt(request, bodyHandler, attempt + 1, retries, retryBackoffMillis, rateLimiter));
+                    }
+                    return cause != null ? CompletableFuture.<HttpResponse<T>>failedFuture(cause) : CompletableFuture.completedFuture(response);
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private static CompletableFuture<Void> delay(long amount, TimeUnit unit) {
+        if (amount <= 0) return CompletableFuture.completedFuture(null);
+        return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(amount, unit));
+    }
+
+    private static boolean isRetryable(HttpResponse<?> response, Throwable error) {
+        if (error != null) return error instanceof IOException;
+        int status = response.statusCode();
+        return status == 429 || status >= 500;
+    }
+
+    private static long retryDelayMillis(HttpResponse<?> response, long retryBackoffMillis, int attempt) {
+        if (response != null) {
+            String retryAfter = response.headers().firstValue("Retry-After").orElse(null);
+            if (retryAfter != null && retryAfter.chars().allMatch(Character::isDigit) && !retryAfter.isEmpty()) {
+                return Math.min(MAX_RETRY_DELAY_MILLIS, Long.parseLong(retryAfter) * 1000);
+            }
+        }
+        return Math.min(MAX_RETRY_DELAY_MILLIS, retryBackoffMillis << Math.min(attempt, 16));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -1,19 +1,36 @@
 package com.ggar.orchid.service;
 
+import com.ggar.orchid.cache.ActionCacheService;
+import com.ggar.orchid.cache.ActionResultCache;
+import com.ggar.orchid.cache.CacheStats;
+import com.ggar.orchid.concurrent.AsyncResults;
+import com.ggar.orchid.context.LargeValueStore;
+import com.ggar.orchid.context.OffHeapBytes;
+import com.ggar.orchid.context.LargeValueStoreFactory;
+import com.ggar.orchid.context.OffloadingJobContext;
 import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
 import com.ggar.orchid.executor.ActionExecutor;
 import com.ggar.orchid.factory.ActionExecutorFactory;
 import com.ggar.orchid.model.Action;
+import com.ggar.orchid.jfr.ActionExecutionEvent;
+import com.ggar.orchid.jfr.JobExecutionEvent;
+import com.ggar.orchid.jfr.StageExecutionEvent;
 import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.profiling.ExpressionProfiler;
+import com.ggar.orchid.model.CacheDefinition;
 import com.ggar.orchid.model.JobDefinition;
 import com.ggar.orchid.model.StageDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.util.*;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 @Service
 public class OrchestratorService {
@@ -21,21 +38,48 @@ public class OrchestratorService {
     private final ActionExecutorFactory actionExecutorFactory;
     private final I18nService i18n;
     private final SpelExpressionEvaluator spelEvaluator;
+    private final LargeValueStoreFactory largeValueStoreFactory;
+    private final FileWriteService fileWriteService;
+    private final ActionCacheService actionCacheService;
+    private final ExpressionProfiler expressionProfiler;
+    private final ResourcePoolService resourcePoolService;
+    private final AtomicLong jobRunSequence = new AtomicLong();
     public static final String PREVIOUS_ACTION_RESULT_KEY = "previousResult"; // Clave para el resultado anterior
 
     @Autowired
-    public OrchestratorService(ActionExecutorFactory actionExecutorFactory, I18nService i18n, SpelExpressionEvaluator spelEvaluator) {
+    public OrchestratorService(ActionExecutorFactory actionExecutorFactory, I18nService i18n, SpelExpressionEvaluator spelEvaluator, LargeValueStoreFactory largeValueStoreFactory, FileWriteService fileWriteService, ActionCacheService actionCacheService, ExpressionProfiler expressionProfiler, ResourcePoolService resourcePoolService) {
         this.actionExecutorFactory = actionExecutorFactory;
         this.i18n = i18n;
         this.spelEvaluator = spelEvaluator;
+        this.largeValueStoreFactory = largeValueStoreFactory;
+        this.fileWriteService = fileWriteService;
+        this.actionCacheService = actionCacheService;
+        this.expressionProfiler = expressionProfiler;
+        this.resourcePoolService = resourcePoolService;
     }
 
+    // Los valores fuera del heap del contexto devuelto ya están liberados: para leerlos, usar la variante con resultExtractor
     public Map<String, Object> executeJob(JobDefinition jobDef, Map<String, Object> initialParameters, ClassLoader jobSpecificClassLoader) {
+        return executeJob(jobDef, initialParameters, jobSpecificClassLoader, Function.identity());
+    }
+
+    // resultExtractor lee el contexto final antes de liberar los valores fuera del heap del job
+    public <T> T executeJob(JobDefinition jobDef, Map<String, Object> initialParameters, ClassLoader jobSpecificClassLoader,
+                            Function<Map<String, Object>, T> resultExtractor) {
+        return executeJob(jobDef, initialParameters, jobSpecificClassLoader, Collections.emptySet(), resultExtractor);
+    }
+
+    // heldResources: recursos que ya retiene quien invoca el job (una acción job); sus acciones no los vuelven a pedir
+    public <T> T executeJob(JobDefinition jobDef, Map<String, Object> initialParameters, ClassLoader jobSpecificClassLoader,
+                            Set<String> heldResources, Function<Map<String, Object>, T> resultExtractor) {
         if (jobDef == null) {
             log.error(i18n.getMessage("orchestrator.jobDefinitionNull"));
-            return new ConcurrentHashMap<>();
+            return resultExtractor.apply(new ConcurrentHashMap<>());
         }
-        Map<String, Object> jobContext = new ConcurrentHashMap<>();
+        // Los valores grandes (byte[], ByteBuffer) se guardan fuera del heap y se liberan al terminar el job
+        LargeValueStore largeValueStore = largeValueStoreFactory.open(jobDef.getId());
+        Map<String, Object> jobContext = new OffloadingJobContext(largeValueStore);
+        String jobRunId = ActionExecutionLineage.runIdOf(jobDef.getId(), jobRunSequence.incrementAndGet());
         if (initialParameters != null) {
             for (Map.Entry<String, Object> entry : initialParameters.entrySet()) {
                 if (entry.getKey() != null && entry.getValue() != null) {
@@ -55,17 +99,54 @@ public class OrchestratorService {
                 Optional.ofNullable(jobDef.getDescription()).orElse(i18n.getMessage("orchestrator.noDescription")),
                 jobDef.getId(),
                 jobSpecificClassLoader));
-        for (StageDefinition stageDef : jobDef.getStages()) {
-            String stageName = Optional.ofNullable(stageDef.getName()).orElseGet(() ->
-                    stageDef.isSingleActionStage() && stageDef.getActionDefinition().getName() != null ?
-                            stageDef.getActionDefinition().getName() : i18n.getMessage("orchestrator.unnamedStage")
-            );
-            log.info(i18n.getMessage("orchestrator.executingStage", stageName));
-            ActionExecutionLineage initialLineage = new ActionExecutionLineage(stageName);
-            executeStage(stageDef, jobContext, jobSpecificClassLoader, initialLineage);
+        JobExecutionEvent jobEvent = new JobExecutionEvent();
+        jobEvent.begin();
+        boolean jobFailed = true;
+        T result;
+        try {
+            for (StageDefinition stageDef : jobDef.getStages()) {
+                String stageName = Optional.ofNullable(stageDef.getName()).orElseGet(() ->
+                        stageDef.isSingleActionStage() && stageDef.getActionDefinition().getName() != null ?
+                                stageDef.getActionDefinition().getName() : i18n.getMessage("orchestrator.unnamedStage")
+                );
+                log.info(i18n.getMessage("orchestrator.executingStage", stageName));
+                ActionExecutionLineage initialLineage = new ActionExecutionLineage(jobRunId, stageName).holding(heldResources);
+                StageExecutionEvent stageEvent = new StageExecutionEvent();
+                stageEvent.begin();
+                try {
+                    executeStage(stageDef, jobContext, jobSpecificClassLoader, initialLineage);
+                } finally {
+                    stageEvent.end();
+                    if (stageEvent.shouldCommit()) {
+                        stageEvent.jobRunId = jobRunId;
+                        stageEvent.stageName = stageName;
+                        stageEvent.commit();
+                    }
+                }
+            }
+            resolvePendingResults(jobDef.getId(), jobContext);
+            log.info(i18n.getMessage("orchestrator.jobCompleted", jobDef.getId(), jobContext));
+            result = resultExtractor.apply(jobContext);
+            jobFailed = false;
+        } finally {
+            // Las escrituras write-behind pueden estar leyendo valores fuera del heap: terminar antes de liberarlos
+            int failedWrites = fileWriteService.awaitPendingWrites(jobRunId);
+            if (failedWrites > 0) log.warn(i18n.getMessage("orchestrator.pendingWritesFailed", jobDef.getId(), failedWrites));
+            if (largeValueStore.getOffloadedCount() > 0) {
+                log.info(i18n.getMessage("orchestrator.offHeapValuesReleased", jobDef.getId(), largeValueStore.getOffloadedCount(), largeValueStore.getOffloadedBytes()));
+            }
+            largeValueStore.close();
+            for (CacheStats stats : actionCacheService.releaseRun(jobRunId)) logCacheStats(jobDef.getId(), stats);
+            expressionProfiler.report(jobDef.getId(), jobRunId);
+            jobEvent.end();
+            if (jobEvent.shouldCommit()) {
+                jobEvent.jobId = jobDef.getId();
+                jobEvent.jobRunId = jobRunId;
+                jobEvent.failed = jobFailed;
+                jobEvent.commit();
+            }
         }
-        log.info(i18n.getMessage("orchestrator.jobCompleted", jobDef.getId(), jobContext));
-        return jobContext;
+        return result;
     }
 
     private void executeStage(StageDefinition stageDef, Map<String, Object> jobContext, ClassLoader jobSpecificClassLoader, ActionExecutionLineage lineage) {
@@ -106,15 +187,57 @@ public class OrchestratorService {
         String actionName = Optional.ofNullable(action.getName()).orElse(i18n.getMessage("orchestrator.unnamedAction"));
         log.info(i18n.getMessage("orchestrator.executingActionWithLineage", actionName, action.getType(), lineage.toString()));
         Object valueToStoreOrUseInSpel = null;
+        ExpressionProfiler.ActionScope outerProfiledAction = expressionProfiler.enter(lineage, actionName);
+        ActionExecutionEvent actionEvent = new ActionExecutionEvent();
+        actionEvent.begin();
+        boolean cacheHit = false;
+        boolean actionFailed = false;
         try {
-            ActionExecutor executor = actionExecutorFactory.getExecutor(action.getType());
-            // Pasar additionalSpelVariables al executor
-            Object rawActionResult = executor.execute(action, jobContext, this, jobSpecificClassLoader, lineage, additionalSpelVariables);
-
-            valueToStoreOrUseInSpel = rawActionResult;
-            if (rawActionResult instanceof Optional) {
-                valueToStoreOrUseInSpel = ((Optional<?>) rawActionResult).orElse(null);
-                log.debug(i18n.getMessage("orchestrator.unboxedOptionalResult", actionName, valueToStoreOrUseInSpel));
+            CacheDefinition cacheDef = action.getCache();
+            ActionResultCache cache = null;
+            Object cacheKey = null;
+            ActionResultCache.Entry cached = null;
+            if (cacheDef != null && StringUtils.hasText(cacheDef.getKey())) {
+                cacheKey = spelEvaluator.evaluate(cacheDef.getKey(), jobContext, additionalSpelVariables, jobSpecificClassLoader);
+                cache = actionCacheService.cacheFor(lineage.jobId(), jobSpecificClassLoader, lineage.jobRunId(), Optional.ofNullable(cacheDef.getName()).orElse(actionName), cacheDef);
+                cached = cache.get(cacheKey, jobSpecificClassLoader);
+            }
+
+            if (cached != null) {
+                // Acción determinista ya evaluada con esta clave: no se despacha al executor
+                log.debug(i18n.getMessage("orchestrator.cacheHit", actionName, cache.getName(), cacheKey));
+                valueToStoreOrUseInSpel = cached.value();
+                cacheHit = true;
+            } else {
+                ActionExecutor executor = actionExecutorFactory.getExecutor(action.getType());
+                ResourcePoolService.Lease resourceLease = resourcePoolService.acquire(action.getAcquires(), actionName, lineage.heldResources());
+                ActionExecutionLineage executorLineage = action.getAcquires() != null ? lineage.holding(action.getAcquires().keySet()) : lineage;
+                Object rawActionResult;
+                try {
+                    // Pasar additionalSpelVariables al executor
+                    rawActionResult = executor.execute(action, jobContext, this, jobSpecificClassLoader, executorLineage, additionalSpelVariables);
+                } catch (RuntimeException | Error e) {
+                    resourceLease.close();
+                    throw e;
+                }
+                // Un resultado asíncrono retiene los recursos hasta completarse, sin ocupar ningún hilo
+                if (rawActionResult instanceof CompletionStage<?> pending) pending.whenComplete((value, error) -> resourceLease.close());
+                else resourceLease.close();
+
+                valueToStoreOrUseInSpel = rawActionResult;
+                if (rawActionResult instanceof Optional) {
+                    valueToStoreOrUseInSpel = ((Optional<?>) rawActionResult).orElse(null);
+                    log.debug(i18n.getMessage("orchestrator.unboxedOptionalResult", actionName, valueToStoreOrUseInSpel));
+                }
+                if (cache != null) {
+                    // Los futuros dependen de la ejecución que los creó, y un valor fuera del heap se libera en cuanto
+                    // se sobrescribe su clave del contexto, aunque la caché sea de ámbito RUN
+                    if (valueToStoreOrUseInSpel instanceof CompletionStage || valueToStoreOrUseInSpel instanceof OffHeapBytes) {
+                        log.debug(i18n.getMessage("orchestrator.cacheSkipped", actionName, valueToStoreOrUseInSpel.getClass().getName()));
+                    } else {
+                        cache.put(cacheKey, valueToStoreOrUseInSpel);
+                    }
+                }
             }
 
             String returnToContextAsKeyOrSpel = action.getReturnToContextAs();
@@ -152,7 +275,41 @@ public class OrchestratorService {
             log.error(i18n.getMessage("orchestrator.actionExecutionErrorWithLineage", actionName, action.getType(), lineage.toString(), e.getMessage()), e);
             // El valor de la acción fallida será null para la siguiente acción
             valueToStoreOrUseInSpel = null;
+            actionFailed = true;
+        } finally {
+            expressionProfiler.exit(outerProfiledAction);
+            actionEvent.end();
+            if (actionEvent.shouldCommit()) {
+                actionEvent.jobRunId = lineage.jobRunId();
+                actionEvent.actionType = action.getType();
+                actionEvent.actionName = actionName;
+                actionEvent.lineage = lineage.toString();
+                actionEvent.cacheHit = cacheHit;
+                actionEvent.failed = actionFailed;
+                actionEvent.commit();
+            }
         }
         return valueToStoreOrUseInSpel;
     }
+
+    // Un job no termina con trabajo asíncrono en vuelo: los futuros que nadie esperó se resuelven en su clave
+    private void resolvePendingResults(String jobId, Map<String, Object> jobContext) {
+        List<String> pendingKeys = new ArrayList<>();
+        jobContext.forEach((key, value) -> { if (AsyncResults.isAsync(value)) pendingKeys.add(key); });
+        if (pendingKeys.isEmpty()) return;
+        log.info(i18n.getMessage("orchestrator.resolvingPendingResults", jobId, pendingKeys.size()));
+        for (String key : pendingKeys) {
+            Object pending = jobContext.get(key);
+            try {
+                jobContext.replace(key, pending, AsyncResults.join((CompletionStage<?>) pending));
+            } catch (RuntimeException e) {
+                log.warn(i18n.getMessage("orchestrator.pendingResultFailed", jobId, key, e.getMessage()));
+            }
+        }
+    }
+
+    private void logCacheStats(String jobId, CacheStats stats) {
+        log.info(i18n.getMessage("orchestrator.cacheStats", jobId, stats.name(), stats.scope(), stats.hits(), stats.misses(),
+                String.format("%.1f", stats.hitRatio() * 100), stats.evictions(), stats.expirations(), stats.size()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.ggar.orchid.service;
+
+import com.ggar.orchid.concurrent.ResourcePool;
+import com.ggar.orchid.concurrent.ResourceStats;
+import com.ggar.orchid.model.ResourceDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Recursos globales declarados en jobs/resources.yml (APIs con límite de peticiones, ancho de banda de disco,
+// conexiones a una base de datos) que las acciones reservan con acquires: {nombre: permisos}. Todos los jobs del
+// proceso comparten los mismos ResourcePool, así que se coordinan entre sí sin que cada plugin ajuste sus esperas.
+@Service
+public class ResourcePoolService {
+    private static final Logger log = LoggerFactory.getLogger(ResourcePoolService.class);
+    private final I18nService i18n;
+    private final Map<String, ResourcePool> pools = new ConcurrentHashMap<>();
+    private final long acquireTimeoutNanos;
+
+    // acquireTimeoutSeconds = 0: sin límite de espera
+    @Autowired
+    public ResourcePoolService(I18nService i18n, @Value("${orchid.resources.acquire-timeout-seconds:300}") long acquireTimeoutSeconds) {
+        this.i18n = i18n;
+        this.acquireTimeoutNanos = TimeUnit.SECONDS.toNanos(Math.max(0, acquireTimeoutSeconds));
+    }
+
+    // Permisos concedidos a una acción; close() los devuelve una sola vez
+    public static final class Lease implements AutoCloseable {
+        private static final Lease NONE = new Lease(List.of(), List.of());
+        private final List<ResourcePool> pools;
+        private final List<Integer> permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(List<ResourcePool> pools, List<Integer> permits) {
+            this.pools = pools;
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() {
+            if (!released.compareAndSet(false, true)) return;
+            for (int i = pools.size() - 1; i >= 0; i--) pools.get(i).release(permits.get(i));
+        }
+    }
+
+    // Un pool redefinido se sustituye: las reservas en curso se devuelven al pool antiguo, que ya nadie usa
+    public void configure(Map<String, ResourceDefinition> definitions) {
+        definitions.forEach((name, definition) -> {
+            pools.put(name, new ResourcePool(name, definition.getCapacity(), definition.getPermitsPerSecond(), definition.getBurst()));
+            log.info(i18n.getMessage("resources.configured", name,
+                    definition.getCapacity() > 0 ? String.valueOf(definition.getCapacity()) : "-",
+                    definition.getPermitsPerSecond() > 0 ? String.valueOf(definition.getPermitsPerSecond()) : "-"));
+        });
+    }
+
+    // Espera a que se concedan todos los permisos. Los recursos se reservan siempre en orden alfabético, así que dos
+    // acciones que piden los mismos recursos nunca se quedan esperando la una a la otra. Los recursos que ya retiene
+    // una acción que contiene a esta (heldResources) se dan por concedidos: volver a pedirlos al mismo pool podría
+    // esperar para siempre a los permisos que retiene su propio loop. Las ramas que se ejecutan en paralelo no heredan
+    // heldResources (ActionExecutionLineage.withoutHeldResources). La espera total está limitada por acquireTimeout
+    public Lease acquire(Map<String, Integer> acquires, String actionName, Set<String> heldResources) {
+        if (acquires == null || acquires.isEmpty()) return Lease.NONE;
+        List<ResourcePool> orderedPools = new ArrayList<>();
+        List<Integer> orderedPermits = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : new TreeMap<>(acquires).entrySet()) {
+            ResourcePool pool = pools.get(entry.getKey());
+            if (pool == null) throw new IllegalArgumentException(i18n.getMessage("resources.unknown", entry.getKey(), actionName, pools.keySet()));
+            if (heldResources != null && heldResources.contains(entry.getKey())) {
+                log.debug(i18n.getMessage("resources.alreadyHeld", entry.getKey(), actionName));
+                continue;
+            }
+            orderedPools.add(pool);
+            orderedPermits.add(entry.getValue() == null ? 1 : entry.getValue());
+        }
+        if (orderedPools.isEmpty()) return Lease.NONE;
+        long deadline = System.nanoTime() + acquireTimeoutNanos;
+        int granted = 0;
+        try {
+            for (; granted < orderedPools.size(); granted++) {
+                awaitGrant(orderedPools.get(granted), orderedPermits.get(granted), deadline, actionName);
+            }
+        } finally {
+            // Devolver lo ya concedido antes de propagar el error (más permisos que la capacidad, tiempo agotado)
+            if (granted < orderedPools.size()) {
+                for (int i = granted - 1; i >= 0; i--) orderedPools.get(i).release(orderedPermits.get(i));
+            }
+        }
+        return new Lease(orderedPools, orderedPermits);
+    }
+
+    private void awaitGrant(ResourcePool pool, int permits, long deadline, String actionName) {
+        CompletableFuture<Void> request = pool.acquire(permits);
+        try {
+            if (acquireTimeoutNanos > 0) request.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            else request.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // Si se concedió justo ahora, cancel() no tiene efecto y los permisos se devuelven aquí
+            if (!request.cancel(false)) pool.release(permits);
+            log.error(i18n.getMessage("resources.acquireTimeout", pool.getName(), actionName, TimeUnit.NANOSECONDS.toSeconds(acquireTimeoutNanos)));
+            throw new IllegalStateException(i18n.getMessage("resources.acquireTimeout.runtime", pool.getName(), actionName,
+                    TimeUnit.NANOSECONDS.toSeconds(acquireTimeoutNanos)), e);
+        } catch (InterruptedException e) {
+            if (!request.cancel(false)) pool.release(permits);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(i18n.getMessage("resources.acquireInterrupted", pool.getName(), actionName), e);
+        }
+    }
+
+    public List<ResourceStats> getStatistics() {
+        return pools.values().stream().map(ResourcePool::stats).sorted(Comparator.comparing(ResourceStats::name)).toList();
+    }
+
+    public void logStatistics() {
+        for (ResourceStats stats : getStatistics()) {
+            if (stats.acquisitions() == 0) continue;
+            log.info(i18n.getMessage("resources.stats", stats.name(), stats.acquisitions(), stats.delayedAcquisitions(),
+                    String.format("%.1f", stats.totalWaitNanos() / 1_000_000.0 / stats.acquisitions()),
+                    String.format("%.1f", stats.maxWaitNanos() / 1_000_000.0), stats.peakInUse(),
+                    stats.capacity() > 0 ? String.valueOf(stats.capacity()) : "-",
+                    stats.capacity() > 0 ? String.format("%.1f%%", stats.utilisation() * 100) : String.format("%.2f", stats.averageInUse())));
+        }
+    }
+}
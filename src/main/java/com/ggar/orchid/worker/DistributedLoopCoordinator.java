@@ -0,0 +1,513 @@
+package com.ggar.orchid.worker;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ggar.orchid.MainApplication;
+import com.ggar.orchid.context.BranchMerger;
+import com.ggar.orchid.context.ContextBranch;
+import com.ggar.orchid.context.ContextMergeConflictException;
+import com.ggar.orchid.model.Action;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.ConditionalAction;
+import com.ggar.orchid.model.LoopAction;
+import com.ggar.orchid.model.SwitchAction;
+import com.ggar.orchid.model.SwitchCase;
+import com.ggar.orchid.service.I18nService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NativeDetector;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+
+// Reparte las iteraciones de un loop sobre una colección (workers: N) entre N procesos JVM locales que ejecutan
+// LoopWorker. Pensado para plugins con mucha CPU que no escalan dentro de una JVM (heaps grandes, presión de GC,
+// código que no es thread-safe); en una sola máquina los workers hacen de sustituto local de un clúster.
+// - Cada worker recibe el body del loop, el classpath del ClassLoader del job y una instantánea de las claves
+//   serializables del contexto; las iteraciones viajan de una en una, con PREFETCH en vuelo por worker.
+// - Los resultados (claves escritas y borradas) vuelven en streaming y se unen al contexto en orden de índice con
+//   la mergePolicy del loop, igual que las ramas de un loop paralelo.
+// - Si un worker muere, sus iteraciones en vuelo se reparten entre los demás y se arranca otro mientras queden
+//   reinicios (orchid.workers.max-restarts). Una iteración que ha matado MAX_ATTEMPTS workers se da por fallida.
+// - Un worker que lleva más de orchid.workers.task-timeout-seconds sin devolver ningún resultado se da por colgado:
+//   se mata y sus iteraciones se reparten igual que si hubiera muerto.
+// - La conexión de un worker se acepta solo si su primer mensaje, leído como bytes sin procesar, trae el token de la
+//   sesión; los mensajes posteriores solo pueden contener las clases que permite WorkerProtocol.isAllowed.
+// Los cambios en objetos mutables del contexto (listas, mapas...) hechos en un worker no vuelven: solo las claves.
+// Un body con acquires se rechaza: los pools de recursos son de cada proceso y un worker no los tiene configurados.
+@Service
+public class DistributedLoopCoordinator {
+    private static final Logger log = LoggerFactory.getLogger(DistributedLoopCoordinator.class);
+    private static final int PREFETCH = 2;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long SHUTDOWN_GRACE_SECONDS = 5;
+    private final I18nService i18n;
+    private final String transport;
+    private final long startTimeoutMillis;
+    private final List<String> jvmArgs;
+    private final int maxRestarts;
+    private final long taskTimeoutMillis;
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    public DistributedLoopCoordinator(I18nService i18n,
+                                      @Value("${orchid.workers.transport:unix}") String transport,
+                                      @Value("${orchid.workers.start-timeout-seconds:60}") long startTimeoutSeconds,
+                                      @Value("${orchid.workers.jvm-args:}") String jvmArgs,
+                                      @Value("${orchid.workers.max-restarts:2}") int maxRestarts,
+                                      @Value("${orchid.workers.task-timeout-seconds:600}") long taskTimeoutSeconds) {
+        this.i18n = i18n;
+        this.transport = transport;
+        this.startTimeoutMillis = TimeUnit.SECONDS.toMillis(startTimeoutSeconds);
+        this.jvmArgs = StringUtils.hasText(jvmArgs) ? List.of(jvmArgs.trim().split("\\s+")) : List.of();
+        this.maxRestarts = Math.max(0, maxRestarts);
+        this.taskTimeoutMillis = TimeUnit.SECONDS.toMillis(Math.max(0, taskTimeoutSeconds));
+    }
+
+    // condition es la conditionExpression del loop (null si no tiene): false detiene el reparto
+    public void run(LoopAction loopAction, String loopName, Map<String, Object> parentContext, Iterator<?> iterator,
+                    BiPredicate<Object, Integer> condition, Object previousResult, ClassLoader jobClassLoader, ActionExecutionLineage lineage) {
+        List<String> acquiringActions = new ArrayList<>();
+        collectAcquiringActions(loopAction.getBody(), acquiringActions);
+        if (!acquiringActions.isEmpty()) {
+            log.error(i18n.getMessage("worker.coordinator.acquiresNotSupported", loopName, acquiringActions));
+            throw new IllegalArgumentException(i18n.getMessage("worker.coordinator.acquiresNotSupported.runtime", loopName, acquiringActions));
+        }
+        WorkerProtocol.Setup setup = createSetup(loopAction, loopName, parentContext, previousResult, jobClassLoader, lineage);
+        try (Session session = new Session(loopName, jobClassLoader, setup)) {
+            session.run(loopAction, parentContext, iterator, condition);
+        } catch (IOException e) {
+            log.error(i18n.getMessage("worker.coordinator.ioError", loopName, e.getMessage()), e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Recorre el body y las ramas anidadas; los sub-jobs (type: job) se resuelven al ejecutarse y no se pueden revisar aquí
+    private void collectAcquiringActions(List<Action> actions, List<String> names) {
+        if (actions == null) return;
+        for (Action action : actions) {
+            if (action == null) continue;
+            if (action.getAcquires() != null && !action.getAcquires().isEmpty()) {
+                names.add(Optional.ofNullable(action.getName()).orElse(i18n.getMessage("orchestrator.unnamedAction")));
+            }
+            if (action instanceof LoopAction loop) {
+                collectAcquiringActions(loop.getBody(), names);
+            } else if (action instanceof ConditionalAction conditional) {
+                collectAcquiringActions(conditional.getThenActions(), names);
+                collectAcquiringActions(conditional.getElseActions(), names);
+            } else if (action instanceof SwitchAction switchAction) {
+                if (switchAction.getCases() != null) {
+                    for (SwitchCase switchCase : switchAction.getCases()) {
+                        if (switchCase != null) collectAcquiringActions(switchCase.getActions(), names);
+                    }
+                }
+                collectAcquiringActions(switchAction.getDefaultActions(), names);
+            }
+        }
+    }
+
+    private WorkerProtocol.Setup createSetup(LoopAction loopAction, String loopName, Map<String, Object> parentContext, Object previousResult,
+                                             ClassLoader jobClassLoader, ActionExecutionLineage lineage) {
+        Map<String, Object> values = new HashMap<>();
+        List<String> skippedKeys = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : parentContext.entrySet()) {
+            if (WorkerProtocol.isSerializable(entry.getValue(), jobClassLoader)) values.put(entry.getKey(), entry.getValue());
+            else skippedKeys.add(entry.getKey());
+        }
+        if (!skippedKeys.isEmpty()) log.warn(i18n.getMessage("worker.coordinator.contextKeysSkipped", loopName, skippedKeys));
+        Object sentPreviousResult = WorkerProtocol.isSerializable(previousResult, jobClassLoader) ? previousResult : null;
+        List<String> jobClasspath = new ArrayList<>();
+        if (jobClassLoader instanceof URLClassLoader urlClassLoader) {
+            for (URL url : urlClassLoader.getURLs()) jobClasspath.add(url.toExternalForm());
+        }
+        try {
+            String bodyJson = jsonMapper.writerFor(new TypeReference<List<Action>>() {}).writeValueAsString(loopAction.getBody());
+            byte[] context = WorkerProtocol.serialize(new WorkerProtocol.ContextSnapshot(values, sentPreviousResult), jobClassLoader);
+            return new WorkerProtocol.Setup(lineage.jobRunId(), lineage.rootStageName(), List.copyOf(lineage.parentActionStack()), loopName,
+                    loopAction.getIteratorVariable(), bodyJson, jobClasspath, context);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(i18n.getMessage("worker.coordinator.bodyNotSerializable", loopName, e.getMessage()), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface Event {
+    }
+
+    private record Connected(int workerId, WorkerChannel channel) implements Event {
+    }
+
+    private record Completed(WorkerHandle worker, WorkerProtocol.Result result) implements Event {
+    }
+
+    private record Died(WorkerHandle worker, String reason) implements Event {
+    }
+
+    private static final class WorkerHandle {
+        private final int id;
+        private final Process process;
+        private final long startedMillis = System.currentTimeMillis();
+        private final Map<Integer, WorkerProtocol.Task> inFlight = new LinkedHashMap<>();
+        private WorkerChannel channel; // null hasta que el worker se conecta
+        private boolean alive = true;
+        private long busySinceMillis; // Desde cuándo espera su próximo resultado (con iteraciones en vuelo)
+
+        private WorkerHandle(int id, Process process) {
+            this.id = id;
+            this.process = process;
+        }
+    }
+
+    // Estado de una ejecución distribuida del loop. Todo lo que no es el hilo aceptador ni los lectores de cada
+    // worker se ejecuta en el hilo del loop, así que no necesita sincronización: los demás hilos solo publican Events
+    private final class Session implements AutoCloseable {
+        private final String loopName;
+        private final ClassLoader jobClassLoader;
+        private final WorkerProtocol.Setup setup;
+        private final String token = Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong());
+        private final Path socketDirectory;
+        private final ServerSocketChannel server;
+        private final String address;
+        private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+        private final Set<SocketChannel> handshaking = ConcurrentHashMap.newKeySet();
+        private final Map<Integer, WorkerHandle> workers = new LinkedHashMap<>();
+        private final Thread acceptor;
+        private final Deque<WorkerProtocol.Task> redispatch = new ArrayDeque<>();
+        private final Map<Integer, Integer> attempts = new HashMap<>();
+        private final TreeMap<Integer, WorkerProtocol.Result> ready = new TreeMap<>();
+        private int nextWorkerId;
+        private int restarts;
+        private int nextIndex;
+        private int nextToMerge;
+        private int failedIterations;
+        private boolean exhausted;
+
+        private Session(String loopName, ClassLoader jobClassLoader, WorkerProtocol.Setup setup) throws IOException {
+            this.loopName = loopName;
+            this.jobClassLoader = jobClassLoader;
+            this.setup = setup;
+            this.socketDirectory = "tcp".equalsIgnoreCase(transport) ? null : Files.createTempDirectory("orchid-workers");
+            this.server = WorkerChannel.listen(transport, socketDirectory);
+            this.address = WorkerChannel.addressOf(server);
+            this.acceptor = new Thread(this::acceptConnections, "orchid-worker-acceptor");
+            this.acceptor.setDaemon(true);
+            this.acceptor.start();
+        }
+
+        private void run(LoopAction loopAction, Map<String, Object> parentContext, Iterator<?> iterator, BiPredicate<Object, Integer> condition) throws IOException {
+            int workerCount = loopAction.getWorkers();
+            log.info(i18n.getMessage("worker.coordinator.starting", loopName, workerCount, address));
+            for (int i = 0; i < workerCount; i++) launchWorker();
+            BranchMerger merger = new BranchMerger(parentContext, loopAction.getMergePolicy(), i18n);
+            try {
+                while (true) {
+                    dispatch(iterator, condition);
+                    if (exhausted && redispatch.isEmpty() && workers.values().stream().allMatch(worker -> worker.inFlight.isEmpty())) break;
+                    if (workers.values().stream().noneMatch(worker -> worker.alive)) {
+                        if (restarts >= maxRestarts) throw new IllegalStateException(i18n.getMessage("worker.coordinator.allWorkersDead", loopName, restarts));
+                        restarts++;
+                        launchWorker();
+                    }
+                    Event event = events.poll(1, TimeUnit.SECONDS);
+                    if (event != null) handle(event);
+                    checkStartingWorkers();
+                    checkHungWorkers();
+                    mergeReady(parentContext, merger);
+                }
+                mergeReady(parentContext, merger);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error(i18n.getMessage("executor.loop.parallelInterrupted", loopName));
+                return;
+            }
+            log.info(i18n.getMessage("worker.coordinator.finished", loopName, nextIndex, failedIterations, restarts));
+        }
+
+        // Llena la ventana de cada worker conectado: primero las iteraciones de workers muertos, después las nuevas
+        private void dispatch(Iterator<?> iterator, BiPredicate<Object, Integer> condition) {
+            for (WorkerHandle worker : new ArrayList<>(workers.values())) {
+                while (worker.alive && worker.channel != null && worker.inFlight.size() < PREFETCH) {
+                    WorkerProtocol.Task task = redispatch.pollFirst();
+                    if (task == null) task = nextTask(iterator, condition);
+                    if (task == null) return;
+                    if (worker.inFlight.isEmpty()) worker.busySinceMillis = System.currentTimeMillis();
+                    worker.inFlight.put(task.index(), task);
+                    try {
+                        worker.channel.send(task);
+                    } catch (IOException e) {
+                        workerDied(worker, e.getMessage());
+                    }
+                }
+            }
+        }
+
+        private WorkerProtocol.Task nextTask(Iterator<?> iterator, BiPredicate<Object, Integer> condition) {
+            while (!exhausted && iterator.hasNext()) {
+                Object item = iterator.next();
+                int index = nextIndex;
+                if (condition != null && !condition.test(item, index)) {
+                    log.debug(i18n.getMessage("executor.loop.conditionFalse.collection"));
+                    break;
+                }
+                nextIndex++;
+                if (WorkerProtocol.isSerializable(item, jobClassLoader)) return new WorkerProtocol.Task(index, item);
+                fail(index, i18n.getMessage("worker.coordinator.itemNotSerializable", item.getClass().getName()));
+            }
+            exhausted = true;
+            return null;
+        }
+
+        private void handle(Event event) {
+            if (event instanceof Connected connected) attach(connected);
+            else if (event instanceof Completed completed) complete(completed.worker(), completed.result());
+            else if (event instanceof Died died) workerDied(died.worker(), died.reason());
+        }
+
+        private void attach(Connected connected) {
+            WorkerHandle worker = workers.get(connected.workerId());
+            // Un worker que ya se dio por muerto (p. ej. por el plazo de arranque) no recupera su puesto
+            if (worker == null || !worker.alive || worker.channel != null) {
+                closeQuietly(connected.channel());
+                return;
+            }
+            worker.channel = connected.channel();
+            try {
+                worker.channel.send(setup);
+                log.debug(i18n.getMessage("worker.coordinator.workerConnected", loopName, worker.id, System.currentTimeMillis() - worker.startedMillis));
+                Thread reader = new Thread(() -> readResults(worker), "orchid-worker-reader-" + worker.id);
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                workerDied(worker, e.getMessage());
+            }
+        }
+
+        private void complete(WorkerHandle worker, WorkerProtocol.Result result) {
+            if (worker.inFlight.remove(result.index()) == null) return; // Ya repartida a otro worker
+            worker.busySinceMillis = System.currentTimeMillis();
+            if (result.error() != null) {
+                fail(result.index(), result.error());
+                return;
+            }
+            if (!result.droppedKeys().isEmpty()) {
+                log.warn(i18n.getMessage("worker.coordinator.writesDropped", loopName, result.index(), result.droppedKeys()));
+            }
+            ready.put(result.index(), result);
+        }
+
+        private void readResults(WorkerHandle worker) {
+            try {
+                while (true) {
+                    WorkerProtocol.Result result = (WorkerProtocol.Result) worker.channel.receive();
+                    events.add(new Completed(worker, result));
+                }
+            } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                events.add(new Died(worker, e.getClass().getSimpleName() + ": " + e.getMessage()));
+            }
+        }
+
+        private void workerDied(WorkerHandle worker, String reason) {
+            if (!worker.alive) return;
+            worker.alive = false;
+            closeWorker(worker, false);
+            List<WorkerProtocol.Task> orphaned = new ArrayList<>(worker.inFlight.values());
+            worker.inFlight.clear();
+            log.warn(i18n.getMessage("worker.coordinator.workerDied", loopName, worker.id, reason, orphaned.size()));
+            // Al frente de la cola y en su orden original, para que la unión por índice no se retrase más
+            for (int i = orphaned.size() - 1; i >= 0; i--) {
+                WorkerProtocol.Task task = orphaned.get(i);
+                int attempt = attempts.merge(task.index(), 1, Integer::sum);
+                if (attempt >= MAX_ATTEMPTS) fail(task.index(), i18n.getMessage("worker.coordinator.tooManyAttempts", attempt));
+                else redispatch.addFirst(task);
+            }
+            if (restarts < maxRestarts && (!exhausted || !redispatch.isEmpty())) {
+                restarts++;
+                launchWorker();
+            }
+        }
+
+        // Workers que no se han conectado: el proceso terminó antes de hacerlo o se agotó el plazo de arranque
+        private void checkStartingWorkers() {
+            long now = System.currentTimeMillis();
+            for (WorkerHandle worker : new ArrayList<>(workers.values())) {
+                if (!worker.alive || worker.channel != null) continue;
+                if (!worker.process.isAlive()) workerDied(worker, "exit code " + worker.process.exitValue());
+                else if (now - worker.startedMillis > startTimeoutMillis) workerDied(worker, "start timeout");
+            }
+        }
+
+        // Un worker vivo que no devuelve nada en taskTimeout: una iteración bloqueada o el proceso parado
+        private void checkHungWorkers() {
+            if (taskTimeoutMillis == 0) return;
+            long now = System.currentTimeMillis();
+            for (WorkerHandle worker : new ArrayList<>(workers.values())) {
+                if (!worker.alive || worker.channel == null || worker.inFlight.isEmpty()) continue;
+                if (now - worker.busySinceMillis <= taskTimeoutMillis) continue;
+                log.warn(i18n.getMessage("worker.coordinator.taskTimeout", loopName, worker.id, worker.inFlight.keySet().iterator().next(),
+                        TimeUnit.MILLISECONDS.toSeconds(taskTimeoutMillis)));
+                workerDied(worker, "task timeout");
+            }
+        }
+
+        private void fail(int index, String error) {
+            failedIterations++;
+            log.error(i18n.getMessage("executor.loop.parallelIterationError", loopName + "[" + index + "]", error));
+            ready.put(index, new WorkerProtocol.Result(index, Map.of(), Set.of(), Set.of(), error));
+        }
+
+        private void mergeReady(Map<String, Object> parentContext, BranchMerger merger) {
+            while (!ready.isEmpty() && ready.firstKey() == nextToMerge) {
+                WorkerProtocol.Result result = ready.pollFirstEntry().getValue();
+                nextToMerge++;
+                if (result.error() != null) continue;
+                ContextBranch branch = new ContextBranch(parentContext);
+                result.writes().forEach(branch::put);
+                result.removals().forEach(branch::remove);
+                try {
+                    merger.merge(branch);
+                } catch (ContextMergeConflictException e) {
+                    log.error(i18n.getMessage("executor.loop.mergeConflict", loopName, e.getMessage()));
+                    throw e;
+                }
+            }
+        }
+
+        private void launchWorker() {
+            int workerId = nextWorkerId++;
+            ProcessBuilder builder = new ProcessBuilder(workerCommand(workerId)).inheritIO();
+            builder.environment().put(WorkerProtocol.TOKEN_ENV, token);
+            try {
+                workers.put(workerId, new WorkerHandle(workerId, builder.start()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(i18n.getMessage("worker.coordinator.launchFailed", loopName, builder.command(), e.getMessage()), e);
+            }
+        }
+
+        // La misma aplicación en modo worker: el binario nativo, el jar ejecutable o el classpath actual
+        private List<String> workerCommand(int workerId) {
+            List<String> command = new ArrayList<>();
+            command.add(ProcessHandle.current().info().command().orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+            if (!NativeDetector.inNativeImage()) {
+                command.addAll(jvmArgs);
+                String classpath = System.getProperty("java.class.path", "");
+                if (classpath.endsWith(".jar") && !classpath.contains(File.pathSeparator)) {
+                    command.add("-jar");
+                    command.add(classpath);
+                } else {
+                    command.add("-cp");
+                    command.add(classpath);
+                    command.add(MainApplication.class.getName());
+                }
+            }
+            command.add(LoopWorker.CONNECT_ARG + address);
+            command.add(LoopWorker.ID_ARG + workerId);
+            return command;
+        }
+
+        // El saludo de cada conexión se lee en su propio hilo: una conexión que no envía nada no retrasa a los workers
+        private void acceptConnections() {
+            while (server.isOpen()) {
+                SocketChannel socket;
+                try {
+                    socket = server.accept();
+                } catch (IOException e) {
+                    return; // close() cerró el servidor
+                }
+                handshaking.add(socket);
+                Thread handshake = new Thread(() -> handshake(socket), "orchid-worker-handshake");
+                handshake.setDaemon(true);
+                handshake.start();
+            }
+        }
+
+        // Solo los procesos lanzados por esta sesión conocen el token, y hasta comprobarlo no se deserializa nada
+        private void handshake(SocketChannel socket) {
+            try {
+                WorkerProtocol.Hello hello = WorkerChannel.receiveHello(socket);
+                if (!MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), hello.token().getBytes(StandardCharsets.UTF_8))) {
+                    log.warn(i18n.getMessage("worker.coordinator.rejectedConnection", loopName));
+                    closeQuietly(socket);
+                    return;
+                }
+                events.add(new Connected(hello.workerId(), new WorkerChannel(socket, jobClassLoader)));
+            } catch (IOException e) {
+                log.warn(i18n.getMessage("worker.coordinator.rejectedConnection", loopName));
+                closeQuietly(socket);
+            } finally {
+                handshaking.remove(socket);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                server.close();
+            } catch (IOException ignored) {
+                // Se cierra igualmente
+            }
+            acceptor.interrupt();
+            handshaking.forEach(this::closeQuietly);
+            for (WorkerHandle worker : workers.values()) closeWorker(worker, worker.alive);
+            for (WorkerHandle worker : workers.values()) {
+                try {
+                    if (!worker.process.waitFor(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) worker.process.destroyForcibly();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    worker.process.destroyForcibly();
+                }
+            }
+            if (socketDirectory != null) {
+                try {
+                    Files.deleteIfExists(socketDirectory.resolve("orchid-workers.sock"));
+                    Files.deleteIfExists(socketDirectory);
+                } catch (IOException e) {
+                    log.debug(i18n.getMessage("worker.coordinator.cleanupFailed", socketDirectory, e.getMessage()));
+                }
+            }
+        }
+
+        private void closeWorker(WorkerHandle worker, boolean graceful) {
+            if (worker.channel != null) {
+                try {
+                    if (graceful) worker.channel.send(new WorkerProtocol.Shutdown());
+                } catch (IOException ignored) {
+                    // El worker ya no está
+                }
+                closeQuietly(worker.channel);
+            }
+            if (!graceful && worker.process.isAlive()) worker.process.destroyForcibly();
+        }
+
+        private void closeQuietly(Closeable channel) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Ya cerrado
+            }
+        }
+    }
+}
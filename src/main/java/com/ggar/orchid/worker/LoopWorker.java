@@ -0,0 +1,115 @@
+package com.ggar.orchid.worker;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ggar.orchid.bootstrap.OrchidEngine;
+import com.ggar.orchid.bootstrap.OrchidLauncher;
+import com.ggar.orchid.context.ContextBranch;
+import com.ggar.orchid.context.ScopedJobContext;
+import com.ggar.orchid.model.Action;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.service.I18nService;
+import com.ggar.orchid.service.OrchestratorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.*;
+
+// Proceso worker de un loop distribuido (DistributedLoopCoordinator). Arranca el motor ligero sin Spring Boot, se
+// conecta al coordinador, recibe el body del loop, el classpath del job y una instantánea del contexto, y ejecuta
+// las iteraciones que le llegan una a una. Cada iteración trabaja sobre su propia ContextBranch y devuelve solo
+// las claves que ha escrito o borrado, como las iteraciones paralelas dentro de un mismo proceso.
+public final class LoopWorker {
+    public static final String CONNECT_ARG = "--orchid.worker.connect=";
+    public static final String ID_ARG = "--orchid.worker.id=";
+    private static final Logger log = LoggerFactory.getLogger(LoopWorker.class);
+    private static volatile boolean workerProcess;
+
+    private LoopWorker() {
+    }
+
+    public static boolean isRequested(String[] args) {
+        return Arrays.stream(args).anyMatch(arg -> arg.startsWith(CONNECT_ARG));
+    }
+
+    // true dentro de un proceso worker: los loops con 'workers' anidados en el body se ejecutan en él, sin más procesos
+    public static boolean isWorkerProcess() {
+        return workerProcess;
+    }
+
+    public static void main(String[] args) throws Exception {
+        workerProcess = true;
+        StandardEnvironment environment = OrchidLauncher.createEnvironment(args);
+        OrchidLauncher.initializeLogging(environment);
+        String address = environment.getProperty("orchid.worker.connect");
+        int workerId = Integer.parseInt(environment.getProperty("orchid.worker.id", "0"));
+        try (OrchidEngine engine = OrchidEngine.create(environment);
+             WorkerChannel channel = WorkerChannel.open(address, new WorkerProtocol.Hello(workerId, System.getenv(WorkerProtocol.TOKEN_ENV)),
+                     LoopWorker.class.getClassLoader())) {
+            serve(channel, engine.getOrchestratorService(), engine.getI18n(), workerId);
+        }
+    }
+
+    private static void serve(WorkerChannel channel, OrchestratorService orchestratorService, I18nService i18n, int workerId) throws Exception {
+        WorkerProtocol.Setup setup = (WorkerProtocol.Setup) channel.receive();
+        ClassLoader jobClassLoader = jobClassLoader(setup.jobClasspath());
+        channel.setClassLoader(jobClassLoader);
+        List<Action> body = new ObjectMapper().readValue(setup.bodyJson(), new TypeReference<List<Action>>() {});
+        WorkerProtocol.ContextSnapshot snapshot = (WorkerProtocol.ContextSnapshot) WorkerProtocol.deserialize(setup.context(), jobClassLoader);
+        Map<String, Object> baseContext = Collections.unmodifiableMap(snapshot.values());
+        ActionExecutionLineage lineage = new ActionExecutionLineage(setup.jobRunId(), setup.rootStageName(), setup.parentActionStack());
+        log.info(i18n.getMessage("worker.ready", workerId, setup.loopName(), baseContext.size(), setup.jobClasspath().size()));
+
+        int executed = 0;
+        try {
+            while (true) {
+                Object message;
+                try {
+                    message = channel.receive();
+                } catch (EOFException e) {
+                    break; // El coordinador cerró la conexión
+                }
+                if (message instanceof WorkerProtocol.Shutdown) break;
+                WorkerProtocol.Task task = (WorkerProtocol.Task) message;
+                channel.send(execute(task, setup.iteratorVariable(), body, baseContext, snapshot.previousResult(), orchestratorService, jobClassLoader, lineage));
+                executed++;
+            }
+        } finally {
+            log.info(i18n.getMessage("worker.finished", workerId, executed));
+            if (jobClassLoader instanceof URLClassLoader urlClassLoader) urlClassLoader.close();
+        }
+    }
+
+    private static WorkerProtocol.Result execute(WorkerProtocol.Task task, String iteratorVariable, List<Action> body, Map<String, Object> baseContext,
+                                                 Object previousResult, OrchestratorService orchestratorService, ClassLoader jobClassLoader, ActionExecutionLineage lineage) {
+        ContextBranch branch = new ContextBranch(baseContext);
+        ScopedJobContext iterationScope = new ScopedJobContext(branch);
+        iterationScope.define(iteratorVariable, task.item());
+        iterationScope.define(iteratorVariable + "_index", task.index());
+        try {
+            orchestratorService.executeActions(body, iterationScope, jobClassLoader, lineage, previousResult);
+        } catch (RuntimeException e) {
+            return new WorkerProtocol.Result(task.index(), Map.of(), Set.of(), Set.of(), String.valueOf(e.getMessage()));
+        }
+        Map<String, Object> writes = new HashMap<>();
+        Set<String> dropped = new HashSet<>();
+        branch.getWrites().forEach((key, value) -> {
+            if (WorkerProtocol.isSerializable(value, jobClassLoader)) writes.put(key, value);
+            else dropped.add(key);
+        });
+        return new WorkerProtocol.Result(task.index(), writes, new HashSet<>(branch.getRemovals()), dropped, null);
+    }
+
+    // Mismo classpath que el ClassLoader del job en el coordinador; sin lib/ basta con el del propio worker
+    private static ClassLoader jobClassLoader(List<String> jobClasspath) throws IOException {
+        if (jobClasspath.isEmpty()) return LoopWorker.class.getClassLoader();
+        URL[] urls = new URL[jobClasspath.size()];
+        for (int i = 0; i < urls.length; i++) urls[i] = new URL(jobClasspath.get(i));
+        return new URLClassLoader(urls, LoopWorker.class.getClassLoader());
+    }
+}
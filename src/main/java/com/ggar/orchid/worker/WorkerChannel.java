@@ -0,0 +1,159 @@
+package com.ggar.orchid.worker;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+// Conexión de mensajes sobre un SocketChannel local. Las direcciones son "unix:<ruta del socket>" o
+// "tcp:<puerto>" (siempre en la interfaz de loopback).
+final class WorkerChannel implements Closeable {
+    private static final int MAX_TOKEN_BYTES = 256;
+    private final SocketChannel channel;
+    private final ObjectOutputStream out;
+    private final WorkerProtocol.ClassLoaderObjectInputStream in;
+
+    WorkerChannel(SocketChannel channel, ClassLoader classLoader) throws IOException {
+        this.channel = channel;
+        // La cabecera de salida se envía antes de leer la del otro extremo: los dos lados pueden crearse a la vez
+        this.out = new ObjectOutputStream(new BufferedOutputStream(new ChannelOutput(channel)));
+        this.out.flush();
+        this.in = new WorkerProtocol.ClassLoaderObjectInputStream(new BufferedInputStream(new ChannelInput(channel)), classLoader);
+    }
+
+    static ServerSocketChannel listen(String transport, Path socketDirectory) throws IOException {
+        if ("tcp".equalsIgnoreCase(transport)) {
+            ServerSocketChannel server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            return server;
+        }
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketDirectory.resolve("orchid-workers.sock")));
+        return server;
+    }
+
+    static String addressOf(ServerSocketChannel server) throws IOException {
+        if (server.getLocalAddress() instanceof UnixDomainSocketAddress unix) return "unix:" + unix.getPath();
+        return "tcp:" + ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    // Lado del worker: conecta, envía el saludo y después abre los streams de objetos
+    static WorkerChannel open(String address, WorkerProtocol.Hello hello, ClassLoader classLoader) throws IOException {
+        SocketChannel socket = connect(address);
+        try {
+            sendHello(socket, hello);
+            return new WorkerChannel(socket, classLoader);
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    // Saludo en bytes sin procesar: id del worker, longitud del token y token en UTF-8
+    static void sendHello(SocketChannel socket, WorkerProtocol.Hello hello) throws IOException {
+        byte[] token = hello.token() == null ? new byte[0] : hello.token().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer frame = ByteBuffer.allocate(2 * Integer.BYTES + token.length).putInt(hello.workerId()).putInt(token.length).put(token);
+        frame.flip();
+        while (frame.hasRemaining()) socket.write(frame);
+    }
+
+    static WorkerProtocol.Hello receiveHello(SocketChannel socket) throws IOException {
+        ByteBuffer header = readFully(socket, 2 * Integer.BYTES);
+        int workerId = header.getInt();
+        int tokenLength = header.getInt();
+        if (tokenLength < 0 || tokenLength > MAX_TOKEN_BYTES) throw new IOException("Invalid worker hello: token of " + tokenLength + " bytes");
+        return new WorkerProtocol.Hello(workerId, new String(readFully(socket, tokenLength).array(), StandardCharsets.UTF_8));
+    }
+
+    private static ByteBuffer readFully(SocketChannel socket, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (socket.read(buffer) < 0) throw new EOFException();
+        }
+        return buffer.flip();
+    }
+
+    static SocketChannel connect(String address) throws IOException {
+        if (address.startsWith("unix:")) {
+            SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.connect(UnixDomainSocketAddress.of(address.substring("unix:".length())));
+            return channel;
+        }
+        if (address.startsWith("tcp:")) {
+            return SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address.substring("tcp:".length()))));
+        }
+        throw new IllegalArgumentException("Unsupported worker address: " + address);
+    }
+
+    void setClassLoader(ClassLoader classLoader) {
+        in.setClassLoader(classLoader);
+    }
+
+    synchronized void send(Object message) throws IOException {
+        out.writeObject(message);
+        out.reset();
+        out.flush();
+    }
+
+    Object receive() throws IOException, ClassNotFoundException {
+        try {
+            return in.readObject();
+        } catch (InvalidClassException e) {
+            String rejected = in.rejectedClass();
+            if (rejected == null) throw e;
+            throw new InvalidClassException(rejected, "class not allowed in worker messages");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Channels.newInputStream/newOutputStream sincronizan lecturas y escrituras sobre el mismo cerrojo del canal, así
+    // que un hilo bloqueado leyendo impediría enviar. SocketChannel admite una lectura y una escritura concurrentes.
+    private static final class ChannelInput extends InputStream {
+        private final SocketChannel channel;
+
+        private ChannelInput(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) return 0;
+            return channel.read(ByteBuffer.wrap(buffer, offset, length));
+        }
+    }
+
+    private static final class ChannelOutput extends OutputStream {
+        private final SocketChannel channel;
+
+        private ChannelOutput(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            write(new byte[]{(byte) value}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer, offset, length);
+            while (bytes.hasRemaining()) channel.write(bytes);
+        }
+    }
+}
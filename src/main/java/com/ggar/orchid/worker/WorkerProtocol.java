@@ -0,0 +1,139 @@
+package com.ggar.orchid.worker;
+
+import java.io.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Mensajes entre el coordinador y los workers de un loop distribuido. Viajan con serialización Java sobre un
+// socket local (Unix domain o TCP de loopback), con reset() tras cada mensaje para no retener referencias.
+// Los valores del contexto y los elementos pueden ser clases de plugins: se leen con el ClassLoader del job.
+// Todos los streams de entrada llevan un ObjectInputFilter con la lista de clases permitidas (isAllowed), y lo
+// que se envía se comprueba antes con la misma lista, para que un valor no permitido se descarte en origen.
+final class WorkerProtocol {
+    static final String TOKEN_ENV = "ORCHID_WORKER_TOKEN";
+    private static final Set<String> ALLOWED_PACKAGES = Set.of("java.lang", "java.util", "java.util.concurrent",
+            "java.util.concurrent.atomic", "java.time", "java.math", "com.fasterxml.jackson.databind.node");
+    private static final String ORCHID_PACKAGE = "com.ggar.orchid";
+
+    private WorkerProtocol() {
+    }
+
+    // Primer mensaje del worker, en bytes sin procesar (WorkerChannel.sendHello): el token llega por variable de
+    // entorno, no por la línea de comandos, y se comprueba antes de crear ningún ObjectInputStream
+    record Hello(int workerId, String token) {
+    }
+
+    // bodyJson es el body del loop serializado con Jackson; context es un ContextSnapshot serializado aparte
+    // porque solo se puede leer después de crear el ClassLoader con jobClasspath
+    record Setup(String jobRunId, String rootStageName, List<String> parentActionStack, String loopName,
+                 String iteratorVariable, String bodyJson, List<String> jobClasspath, byte[] context) implements Serializable {
+    }
+
+    record ContextSnapshot(Map<String, Object> values, Object previousResult) implements Serializable {
+    }
+
+    record Task(int index, Object item) implements Serializable {
+    }
+
+    // error != null: la iteración no pudo ejecutarse; droppedKeys son escrituras que no se podían serializar
+    record Result(int index, Map<String, Object> writes, Set<String> removals, Set<String> droppedKeys, String error) implements Serializable {
+    }
+
+    record Shutdown() implements Serializable {
+    }
+
+    static byte[] serialize(Object value, ClassLoader jobClassLoader) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new AllowlistObjectOutputStream(bytes, jobClassLoader)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    static boolean isSerializable(Object value, ClassLoader jobClassLoader) {
+        if (value == null) return true;
+        if (!(value instanceof Serializable)) return false;
+        try {
+            serialize(value, jobClassLoader);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static Object deserialize(byte[] bytes, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        try (ClassLoaderObjectInputStream in = new ClassLoaderObjectInputStream(new ByteArrayInputStream(bytes), classLoader)) {
+            return in.readObject();
+        }
+    }
+
+    // Tipos habituales del JDK (sin java.lang.invoke ni java.lang.reflect), las clases de Orchid, los nodos JSON de
+    // Jackson y las clases que define el ClassLoader de plugins del job (lib/)
+    static boolean isAllowed(Class<?> type, ClassLoader jobClassLoader) {
+        while (type.isArray()) type = type.getComponentType();
+        if (type.isPrimitive()) return true;
+        String packageName = type.getPackageName();
+        if (ALLOWED_PACKAGES.contains(packageName) || packageName.equals(ORCHID_PACKAGE) || packageName.startsWith(ORCHID_PACKAGE + ".")) return true;
+        ClassLoader definingLoader = type.getClassLoader();
+        return definingLoader != null && definingLoader == jobClassLoader && definingLoader != WorkerProtocol.class.getClassLoader();
+    }
+
+    // Resuelve las clases con el ClassLoader indicado (el del job en cuanto se conoce) y rechaza las no permitidas
+    static final class ClassLoaderObjectInputStream extends ObjectInputStream {
+        private volatile ClassLoader classLoader;
+        private volatile String rejectedClass;
+
+        ClassLoaderObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+            super(in);
+            this.classLoader = classLoader;
+            setObjectInputFilter(this::checkInput);
+        }
+
+        void setClassLoader(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        // Clase rechazada por el filtro en la última lectura fallida; InvalidClassException no la indica
+        String rejectedClass() {
+            return rejectedClass;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+
+        private ObjectInputFilter.Status checkInput(ObjectInputFilter.FilterInfo info) {
+            Class<?> type = info.serialClass();
+            if (type == null) return ObjectInputFilter.Status.UNDECIDED;
+            if (isAllowed(type, classLoader)) return ObjectInputFilter.Status.ALLOWED;
+            rejectedClass = type.getName();
+            return ObjectInputFilter.Status.REJECTED;
+        }
+    }
+
+    // Falla con NotSerializableException en cuanto se escribe una clase que el otro extremo rechazaría
+    private static final class AllowlistObjectOutputStream extends ObjectOutputStream {
+        private final ClassLoader jobClassLoader;
+
+        private AllowlistObjectOutputStream(OutputStream out, ClassLoader jobClassLoader) throws IOException {
+            super(out);
+            this.jobClassLoader = jobClassLoader;
+        }
+
+        @Override
+        protected void annotateClass(Class<?> type) throws IOException {
+            if (!isAllowed(type, jobClassLoader)) throw new NotSerializableException(type.getName());
+        }
+
+        @Override
+        protected void annotateProxyClass(Class<?> type) throws IOException {
+            throw new NotSerializableException(type.getName());
+        }
+    }
+}
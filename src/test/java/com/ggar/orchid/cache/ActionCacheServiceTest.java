@@ -0,0 +1,93 @@
+package com.ggar.orchid.cache;
+
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.model.CacheDefinition;
+import com.ggar.orchid.service.I18nService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActionCacheServiceTest {
+    @TempDir
+    Path cacheDirectory;
+
+    private static final ClassLoader LOADER = ActionCacheServiceTest.class.getClassLoader();
+
+    private final I18nService i18n = new I18nService(new I18nConfig().messageSource(), "en");
+    private ActionCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        cacheService = new ActionCacheService(i18n, cacheDirectory.toString());
+    }
+
+    @Test
+    void processCachesWithTheSameNameAreSeparatePerJob() {
+        ActionResultCache first = cacheService.cacheFor("job-a", LOADER, "job-a#1", "lookup", definition(CacheDefinition.Scope.PROCESS));
+        ActionResultCache second = cacheService.cacheFor("job-b", LOADER, "job-b#1", "lookup", definition(CacheDefinition.Scope.PROCESS));
+        first.put("key", "from job-a");
+
+        assertNotSame(first, second);
+        assertNull(second.get("key", null));
+        assertSame(first, cacheService.cacheFor("job-a", LOADER, "job-a#2", "lookup", definition(CacheDefinition.Scope.PROCESS)));
+    }
+
+    @Test
+    void persistentCachesUseADirectoryPerJob() throws Exception {
+        cacheService.cacheFor("job-a", LOADER, "job-a#1", "lookup", definition(CacheDefinition.Scope.PERSISTENT)).put("key", "from job-a");
+        cacheService.cacheFor("job-b", LOADER, "job-b#1", "lookup", definition(CacheDefinition.Scope.PERSISTENT)).put("key", "from job-b");
+
+        assertTrue(Files.isDirectory(cacheDirectory.resolve("job-a").resolve("lookup")));
+        assertTrue(Files.isDirectory(cacheDirectory.resolve("job-b").resolve("lookup")));
+
+        // Un proceso nuevo lee de disco la entrada de su propio job
+        ActionCacheService restarted = new ActionCacheService(i18n, cacheDirectory.toString());
+        ActionResultCache.Entry entry = restarted.cacheFor("job-b", LOADER, "job-b#9", "lookup", definition(CacheDefinition.Scope.PERSISTENT)).get("key", null);
+        assertNotNull(entry);
+        assertEquals("from job-b", entry.value());
+    }
+
+    @Test
+    void invalidateOnlyDropsTheCachesOfThatJobAndClassLoader() throws Exception {
+        try (URLClassLoader previousVersion = new URLClassLoader(new URL[0], LOADER);
+             URLClassLoader currentVersion = new URLClassLoader(new URL[0], LOADER)) {
+            ActionResultCache retired = cacheService.cacheFor("job-a", previousVersion, "job-a#1", "lookup", definition(CacheDefinition.Scope.PROCESS));
+            cacheService.cacheFor("job-a", previousVersion, "job-a#1", "lookup", definition(CacheDefinition.Scope.PERSISTENT));
+            ActionResultCache current = cacheService.cacheFor("job-a", currentVersion, "job-a#2", "lookup", definition(CacheDefinition.Scope.PROCESS));
+            ActionResultCache other = cacheService.cacheFor("job-b", previousVersion, "job-b#1", "lookup", definition(CacheDefinition.Scope.PROCESS));
+            retired.put("key", "old instance");
+
+            assertNotSame(retired, current);
+            assertNull(current.get("key", currentVersion));
+            assertEquals(2, cacheService.invalidate("job-a", previousVersion));
+            assertEquals(0, cacheService.invalidate("job-a", previousVersion));
+
+            assertNotSame(retired, cacheService.cacheFor("job-a", previousVersion, "job-a#1", "lookup", definition(CacheDefinition.Scope.PROCESS)));
+            assertSame(current, cacheService.cacheFor("job-a", currentVersion, "job-a#2", "lookup", definition(CacheDefinition.Scope.PROCESS)));
+            assertSame(other, cacheService.cacheFor("job-b", previousVersion, "job-b#2", "lookup", definition(CacheDefinition.Scope.PROCESS)));
+        }
+    }
+
+    @Test
+    void runCachesAreReleasedWithTheirRun() {
+        ActionResultCache run = cacheService.cacheFor("job-a", LOADER, "job-a#1", "lookup", definition(CacheDefinition.Scope.RUN));
+        run.put("key", "value");
+
+        assertEquals(1, cacheService.releaseRun("job-a#1").size());
+        assertNotSame(run, cacheService.cacheFor("job-a", LOADER, "job-a#1", "lookup", definition(CacheDefinition.Scope.RUN)));
+    }
+
+    private static CacheDefinition definition(CacheDefinition.Scope scope) {
+        CacheDefinition definition = new CacheDefinition();
+        definition.setKey("#key");
+        definition.setScope(scope);
+        return definition;
+    }
+}
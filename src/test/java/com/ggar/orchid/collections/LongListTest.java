@@ -0,0 +1,108 @@
+package com.ggar.orchid.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongListTest {
+
+    @Test
+    void indexOfMatchesIntegralNumbersOfAnyType() {
+        LongList list = listOf(5, 2, 7);
+
+        assertEquals(1, list.indexOf(2L));
+        assertEquals(1, list.indexOf(2));
+        assertEquals(1, list.indexOf((short) 2));
+        assertEquals(1, list.indexOf((byte) 2));
+        assertEquals(1, list.indexOf(2.0));
+        assertEquals(1, list.indexOf(BigInteger.TWO));
+        assertEquals(1, list.indexOf(new BigDecimal("2.00")));
+    }
+
+    @Test
+    void indexOfDoesNotTruncateFractions() {
+        LongList list = listOf(5, 2, 7);
+
+        assertEquals(-1, list.indexOf(2.5));
+        assertEquals(-1, list.indexOf(2.000001f));
+        assertEquals(-1, list.indexOf(new BigDecimal("2.5")));
+        assertFalse(list.contains(7.9));
+        assertFalse(list.remove((Object) 5.5));
+        assertEquals(3, list.size());
+    }
+
+    @Test
+    void indexOfRejectsValuesOutsideTheLongRange() {
+        LongList list = listOf(Long.MAX_VALUE, Long.MIN_VALUE);
+
+        assertEquals(-1, list.indexOf(Math.pow(2, 63)));
+        assertEquals(-1, list.indexOf(Double.POSITIVE_INFINITY));
+        assertEquals(-1, list.indexOf(Double.NaN));
+        assertEquals(-1, list.indexOf(BigInteger.ONE.shiftLeft(64).add(BigInteger.valueOf(Long.MAX_VALUE))));
+        assertEquals(1, list.indexOf(-Math.pow(2, 63)));
+    }
+
+    @Test
+    void removeByValueUsesTheSameMatching() {
+        LongList list = listOf(1, 2, 3);
+
+        assertTrue(list.remove((Object) 2.0));
+        assertEquals(2, list.size());
+        assertEquals(-1, list.indexOf(2));
+    }
+
+    @Test
+    void intCollectionsOnlyMatchIntegralValues() {
+        IntList ints = new IntList();
+        ints.addInt(3);
+        IntBitSet bits = new IntBitSet();
+        bits.addInt(3);
+
+        assertEquals(0, ints.indexOf(3L));
+        assertEquals(-1, ints.indexOf(3.5));
+        assertEquals(-1, ints.indexOf(3L + (1L << 32)));
+        assertTrue(bits.contains(3.0));
+        assertFalse(bits.contains(3.5));
+        assertFalse(bits.remove(3.5));
+        assertTrue(bits.contains(3));
+    }
+
+    @Test
+    void offHeapArraysMatchIntegralNumbersLikeLongList() {
+        try (OffHeapLongArray array = new OffHeapLongArray()) {
+            array.addLong(5);
+            array.addLong(2);
+
+            assertTrue(array.contains(5));
+            assertEquals(1, array.indexOf((short) 2));
+            assertEquals(1, array.indexOf(new BigDecimal("2.00")));
+            assertEquals(-1, array.indexOf(2.5));
+            assertFalse(array.contains("5"));
+        }
+    }
+
+    @Test
+    void rangeClosedEndsAtLongMaxValue() {
+        LongList range = LongList.rangeClosed(Long.MAX_VALUE - 2, Long.MAX_VALUE);
+
+        assertEquals(3, range.size());
+        assertEquals(Long.MAX_VALUE, range.getLong(2));
+        assertEquals(0, LongList.rangeClosed(5, 4).size());
+    }
+
+    @Test
+    void rangeClosedRejectsRangesThatDoNotFitInAList() {
+        assertThrows(IllegalArgumentException.class, () -> LongList.rangeClosed(0, Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> LongList.rangeClosed(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> IntList.rangeClosed(Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
+
+    private static LongList listOf(long... values) {
+        LongList list = new LongList();
+        for (long value : values) list.addLong(value);
+        return list;
+    }
+}
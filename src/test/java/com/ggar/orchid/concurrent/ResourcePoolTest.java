@@ -0,0 +1,41 @@
+package com.ggar.orchid.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+class ResourcePoolTest {
+
+    @Test
+    void cancellingTheHeadOfTheQueueLetsTheNextWaitersThrough() {
+        ResourcePool pool = new ResourcePool("disk", 2, 0, 1);
+        assertTrue(pool.acquire(1).isDone());
+        CompletableFuture<Void> large = pool.acquire(2);
+        CompletableFuture<Void> small = pool.acquire(1);
+        assertFalse(small.isDone());
+
+        assertTrue(large.cancel(false));
+
+        assertTrue(small.isDone());
+        assertEquals(2, pool.stats().inUse());
+        assertEquals(0, pool.stats().waiting());
+    }
+
+    @Test
+    void aCancelledRateLimitedRequestNeverKeepsPermits() throws Exception {
+        ResourcePool pool = new ResourcePool("api", 1, 20, 1);
+        pool.acquire(1).get(5, TimeUnit.SECONDS);
+        pool.release(1);
+        CompletableFuture<Void> delayed = pool.acquire(1);
+        assertTrue(delayed.cancel(false));
+
+        // El siguiente token llega tras el cancel: el permiso no queda retenido por nadie
+        pool.acquire(1).get(5, TimeUnit.SECONDS);
+        assertEquals(1, pool.stats().inUse());
+    }
+}
@@ -0,0 +1,124 @@
+package com.ggar.orchid.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+class SingleFlightTest {
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final AtomicInteger coalesced = new AtomicInteger();
+
+    @Test
+    void identicalCallsInFlightRunOnceAndShareTheResult() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Object shared = new Object();
+        List<Future<Object>> results = runConcurrently("key", () -> {
+            executions.incrementAndGet();
+            await(release);
+            return shared;
+        });
+        waitForFollowers();
+        release.countDown();
+
+        for (Future<Object> result : results) assertSame(shared, result.get());
+        assertEquals(1, executions.get());
+        assertEquals(CALLERS - 1, coalesced.get());
+    }
+
+    @Test
+    void followersReceiveTheLeadersException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("upstream down");
+        List<Future<Object>> results = runConcurrently("key", () -> {
+            executions.incrementAndGet();
+            await(release);
+            throw failure;
+        });
+        waitForFollowers();
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            ExecutionException error = assertThrows(ExecutionException.class, result::get);
+            assertSame(failure, error.getCause());
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void followersAreReleasedWhenTheLeaderThrowsACheckedException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Object>> results = runConcurrently("key", () -> {
+            executions.incrementAndGet();
+            await(release);
+            return sneakyThrow(new IOException("disk"));
+        });
+        waitForFollowers();
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            ExecutionException error = assertThrows(ExecutionException.class, result::get);
+            Throwable cause = error.getCause() instanceof CompletionException wrapped ? wrapped.getCause() : error.getCause();
+            assertInstanceOf(IOException.class, cause);
+        }
+    }
+
+    @Test
+    void differentKeysDoNotCoalesce() {
+        assertEquals("a", singleFlight.execute("a", () -> "a", coalesced::incrementAndGet));
+        assertEquals("b", singleFlight.execute("b", () -> "b", coalesced::incrementAndGet));
+        assertEquals(0, coalesced.get());
+    }
+
+    @Test
+    void aFinishedCallIsNotCached() {
+        singleFlight.execute("key", executions::incrementAndGet, coalesced::incrementAndGet);
+        singleFlight.execute("key", executions::incrementAndGet, coalesced::incrementAndGet);
+
+        assertEquals(2, executions.get());
+        assertEquals(0, coalesced.get());
+    }
+
+    private List<Future<Object>> runConcurrently(String key, Supplier<Object> call) {
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        List<Future<Object>> results = new ArrayList<>();
+        try {
+            // El primero entra como líder antes de lanzar al resto
+            results.add(pool.submit(() -> singleFlight.execute(key, call, coalesced::incrementAndGet)));
+            while (executions.get() == 0) Thread.onSpinWait();
+            for (int i = 1; i < CALLERS; i++) results.add(pool.submit(() -> singleFlight.execute(key, call, coalesced::incrementAndGet)));
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    private void waitForFollowers() {
+        while (coalesced.get() < CALLERS - 1) Thread.onSpinWait();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> Object sneakyThrow(Throwable error) throws T {
+        throw (T) error;
+    }
+}
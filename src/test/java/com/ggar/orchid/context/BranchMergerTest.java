@@ -0,0 +1,80 @@
+package com.ggar.orchid.context;
+
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.service.I18nService;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BranchMergerTest {
+    private final I18nService i18n = new I18nService(new I18nConfig().messageSource(), "en");
+    private final Map<String, Object> parent = new HashMap<>(Map.of("shared", "base", "stale", "base"));
+
+    @Test
+    void aBranchReadsTheBaseUntilItWritesAndNeverWritesThrough() {
+        ContextBranch branch = new ContextBranch(parent);
+        assertEquals("base", branch.get("shared"));
+
+        branch.put("shared", "branch");
+        branch.remove("stale");
+
+        assertEquals("branch", branch.get("shared"));
+        assertFalse(branch.containsKey("stale"));
+        assertEquals(Map.of("shared", "base", "stale", "base"), parent);
+    }
+
+    @Test
+    void lastWriterWinsFollowsMergeOrder() {
+        BranchMerger merger = new BranchMerger(parent, MergePolicy.LAST_WRITER_WINS, i18n);
+
+        merger.merge(writing("shared", "first"));
+        merger.merge(writing("shared", "second"));
+
+        assertEquals("second", parent.get("shared"));
+    }
+
+    @Test
+    void firstWriterWinsKeepsTheEarliestWriteAndRemoval() {
+        BranchMerger merger = new BranchMerger(parent, MergePolicy.FIRST_WRITER_WINS, i18n);
+        ContextBranch removing = new ContextBranch(parent);
+        removing.remove("stale");
+
+        merger.merge(writing("shared", "first"));
+        merger.merge(removing);
+        merger.merge(writing("shared", "second"));
+        merger.merge(writing("stale", "late"));
+
+        assertEquals("first", parent.get("shared"));
+        assertFalse(parent.containsKey("stale"));
+    }
+
+    @Test
+    void failOnConflictRejectsTheSecondWriterWithoutApplyingIt() {
+        BranchMerger merger = new BranchMerger(parent, MergePolicy.FAIL_ON_CONFLICT, i18n);
+        ContextBranch conflicting = writing("shared", "second");
+        conflicting.put("other", "value");
+
+        merger.merge(writing("shared", "first"));
+
+        ContextMergeConflictException conflict = assertThrows(ContextMergeConflictException.class, () -> merger.merge(conflicting));
+        assertEquals(i18n.getMessage("context.merge.conflict.runtime", "shared", 0, 1), conflict.getMessage());
+        assertEquals("first", parent.get("shared"));
+        assertFalse(parent.containsKey("other"));
+    }
+
+    @Test
+    void aNullWriteRemovesTheKey() {
+        new BranchMerger(parent, null, i18n).merge(writing("shared", null));
+
+        assertFalse(parent.containsKey("shared"));
+    }
+
+    private ContextBranch writing(String key, Object value) {
+        ContextBranch branch = new ContextBranch(parent);
+        branch.put(key, value);
+        return branch;
+    }
+}
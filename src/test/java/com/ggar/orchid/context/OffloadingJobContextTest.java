@@ -0,0 +1,162 @@
+package com.ggar.orchid.context;
+
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.service.I18nService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffloadingJobContextTest {
+    private static final int THRESHOLD = 1024;
+
+    @TempDir
+    Path spillDirectory;
+
+    private LargeValueStore store;
+    private Map<String, Object> context;
+
+    @BeforeEach
+    void setUp() {
+        store = new LargeValueStore("test-job", THRESHOLD, LargeValueStore.Mode.DIRECT, spillDirectory);
+        context = new OffloadingJobContext(store);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void largeValuesAreMovedOffHeap() {
+        context.put("small", new byte[THRESHOLD - 1]);
+        context.put("large", new byte[THRESHOLD]);
+
+        assertInstanceOf(byte[].class, context.get("small"));
+        OffHeapBytes large = assertInstanceOf(OffHeapBytes.class, context.get("large"));
+        assertEquals(THRESHOLD, large.size());
+        assertEquals(1, store.getLiveCount());
+    }
+
+    @Test
+    void overwritingAKeyReleasesThePreviousValue() {
+        for (int i = 0; i < 10; i++) context.put("page", filled(THRESHOLD, (byte) i));
+        OffHeapBytes first = (OffHeapBytes) context.get("page");
+
+        context.put("page", filled(THRESHOLD, (byte) 42));
+
+        assertThrows(IllegalStateException.class, first::toByteArray);
+        assertEquals(1, store.getLiveCount());
+        assertEquals(11, store.getOffloadedCount());
+        assertEquals(42, ((OffHeapBytes) context.get("page")).toByteArray()[0]);
+    }
+
+    @Test
+    void removingAKeyReleasesItsValue() {
+        context.put("page", new byte[THRESHOLD]);
+        OffHeapBytes page = (OffHeapBytes) context.get("page");
+
+        context.remove("page");
+
+        assertThrows(IllegalStateException.class, page::asByteBuffer);
+        assertEquals(0, store.getLiveCount());
+    }
+
+    @Test
+    void puttingNullReleasesTheValue() {
+        context.put("page", new byte[THRESHOLD]);
+        OffHeapBytes page = (OffHeapBytes) context.get("page");
+
+        context.put("page", null);
+
+        assertFalse(context.containsKey("page"));
+        assertThrows(IllegalStateException.class, page::toByteArray);
+    }
+
+    @Test
+    void aHandleSharedByTwoKeysLivesUntilBothAreGone() {
+        context.put("a", filled(THRESHOLD, (byte) 7));
+        OffHeapBytes shared = (OffHeapBytes) context.get("a");
+        context.put("b", shared);
+
+        context.remove("a");
+        assertEquals(7, shared.toByteArray()[0]);
+
+        context.put("b", "replaced");
+        assertThrows(IllegalStateException.class, shared::toByteArray);
+    }
+
+    @Test
+    void aRetainedHandleOutlivesItsKey() {
+        context.put("page", filled(THRESHOLD, (byte) 3));
+        OffHeapBytes page = (OffHeapBytes) context.get("page");
+        assertTrue(page.retain());
+
+        context.put("page", new byte[THRESHOLD]);
+        assertEquals(3, page.toByteArray()[THRESHOLD - 1]);
+
+        page.release();
+        assertThrows(IllegalStateException.class, page::toByteArray);
+        assertFalse(page.retain());
+    }
+
+    @Test
+    void aBranchKeepsACopiedHandleAliveUntilItIsMerged() {
+        context.put("page", filled(THRESHOLD, (byte) 5));
+        ContextBranch overwriting = new ContextBranch(context);
+        ContextBranch copying = new ContextBranch(context);
+        overwriting.put("page", new byte[THRESHOLD]);
+        copying.put("copy", copying.get("page"));
+
+        BranchMerger merger = new BranchMerger(context, MergePolicy.LAST_WRITER_WINS, new I18nService(new I18nConfig().messageSource(), "en"));
+        merger.merge(overwriting);
+        merger.merge(copying);
+
+        assertEquals(5, ((OffHeapBytes) context.get("copy")).toByteArray()[0]);
+        assertEquals(2, store.getLiveCount());
+    }
+
+    @Test
+    void closingTheStoreReleasesEverythingStillReferenced() throws Exception {
+        LargeValueStore fileStore = new LargeValueStore("test-job", THRESHOLD, LargeValueStore.Mode.MAPPED_FILE, spillDirectory);
+        Map<String, Object> fileContext = new OffloadingJobContext(fileStore);
+        fileContext.put("a", new byte[THRESHOLD]);
+        fileContext.put("b", new byte[THRESHOLD * 2]);
+        OffHeapBytes a = (OffHeapBytes) fileContext.get("a");
+        assertTrue(a.retain());
+
+        fileStore.close();
+
+        assertEquals(0, fileStore.getLiveCount());
+        assertThrows(IllegalStateException.class, a::toByteArray);
+        try (var files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+        // Devolver una referencia después de cerrar no vuelve a liberar nada
+        assertDoesNotThrow(a::release);
+    }
+
+    @Test
+    void clearReleasesAllValues() {
+        context.put("a", new byte[THRESHOLD]);
+        context.put("b", new byte[THRESHOLD]);
+        context.put("c", "text");
+
+        context.clear();
+
+        assertTrue(context.isEmpty());
+        assertEquals(0, store.getLiveCount());
+    }
+
+    private static byte[] filled(int size, byte value) {
+        byte[] bytes = new byte[size];
+        java.util.Arrays.fill(bytes, value);
+        return bytes;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ggar.orchid.evaluator;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobContextEvaluationContextTest {
+
+    @Test
+    void registeredFunctionsStayVisible() throws NoSuchMethodException {
+        SpelExpressionEvaluator.JobContextEvaluationContext context = new SpelExpressionEvaluator.JobContextEvaluationContext(new HashMap<>());
+        Method abs = Math.class.getMethod("abs", int.class);
+        context.registerFunction("abs", abs);
+
+        assertSame(abs, context.lookupVariable("abs"));
+    }
+
+    @Test
+    void explicitVariablesShadowContextKeys() {
+        Map<String, Object> jobContext = new HashMap<>(Map.of("total", 1, "previousResult", "from context"));
+        SpelExpressionEvaluator.JobContextEvaluationContext context = new SpelExpressionEvaluator.JobContextEvaluationContext(jobContext);
+        context.setVariable("total", 2);
+        context.setVariable("previousResult", null);
+
+        assertEquals(2, context.lookupVariable("total"));
+        assertNull(context.lookupVariable("previousResult"));
+
+        context.setVariable("previousResult", "explicit");
+        assertEquals("explicit", context.lookupVariable("previousResult"));
+    }
+
+    @Test
+    void unknownVariablesFallBackToTheContextMap() {
+        SpelExpressionEvaluator.JobContextEvaluationContext context = new SpelExpressionEvaluator.JobContextEvaluationContext(Map.of("page", "body"));
+
+        assertEquals("body", context.lookupVariable("page"));
+        assertNull(context.lookupVariable("missing"));
+    }
+}
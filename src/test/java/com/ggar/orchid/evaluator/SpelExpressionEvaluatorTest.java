@@ -0,0 +1,73 @@
+package com.ggar.orchid.evaluator;
+
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.profiling.ExpressionProfiler;
+import com.ggar.orchid.service.I18nService;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpelExpressionEvaluatorTest {
+    private final I18nService i18n = new I18nService(new I18nConfig().messageSource(), "en");
+    private final SpelExpressionEvaluator evaluator = new SpelExpressionEvaluator(i18n, new ExpressionProfiler(i18n, false, 0));
+
+    @Test
+    void preparedExpressionsAreParsedOncePerClassLoader() throws Exception {
+        ClassLoader jobClassLoader = getClass().getClassLoader();
+        try (URLClassLoader otherJobClassLoader = new URLClassLoader(new URL[0], jobClassLoader)) {
+            evaluator.prepare("#item * 2", Map.of(), Map.of(), jobClassLoader);
+            evaluator.prepare("#item * 2", Map.of(), Map.of(), jobClassLoader);
+            assertEquals(1, evaluator.compiledExpressionCount());
+
+            evaluator.prepare("#item * 2", Map.of(), Map.of(), otherJobClassLoader);
+            assertEquals(2, evaluator.compiledExpressionCount());
+        }
+    }
+
+    @Test
+    void evictingAClassLoaderKeepsTheExpressionsOfOtherLoaders() throws Exception {
+        ClassLoader sharedClassLoader = getClass().getClassLoader();
+        try (URLClassLoader retiredClassLoader = new URLClassLoader(new URL[0], sharedClassLoader)) {
+            evaluator.prepare("#item * 2", Map.of(), Map.of(), retiredClassLoader);
+            evaluator.prepare("#item * 3", Map.of(), Map.of(), retiredClassLoader);
+            evaluator.prepare("#item * 2", Map.of(), Map.of(), sharedClassLoader);
+            evaluator.evaluate("#item", Map.of("item", 1), Map.of(), retiredClassLoader);
+            evaluator.evaluate("#item", Map.of("item", 1), Map.of(), sharedClassLoader);
+
+            assertEquals(3, evaluator.evictClassLoader(retiredClassLoader));
+            assertEquals(1, evaluator.compiledExpressionCount());
+            assertEquals(0, evaluator.evictClassLoader(retiredClassLoader));
+            assertEquals(2, evaluator.evictClassLoader(sharedClassLoader));
+        }
+    }
+
+    @Test
+    void concurrentEvaluationsDoNotShareVariables() throws Exception {
+        Map<String, Object> context = new ConcurrentHashMap<>();
+        SpelExpressionEvaluator.PreparedExpression doubled = evaluator.prepare("#item * 2", context, Map.of(), getClass().getClassLoader());
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            long sum = pool.submit(() -> LongStream.rangeClosed(1, 100_000).parallel()
+                    .map(item -> ((Number) doubled.evaluate("item", item)).longValue())
+                    .sum()).get();
+            assertEquals(100_000L * 100_001L, sum);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void explicitVariablesAreVisibleToPreparedExpressions() {
+        SpelExpressionEvaluator.PreparedExpression factor = evaluator.prepare("#factor", Map.of(), Map.of("factor", 7), getClass().getClassLoader());
+
+        assertEquals(7, factor.evaluate("item", 1));
+        assertEquals(7, factor.evaluate("item", 2));
+    }
+}
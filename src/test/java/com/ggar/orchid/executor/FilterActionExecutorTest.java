@@ -0,0 +1,78 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.FilterAction;
+import com.ggar.orchid.profiling.ExpressionProfiler;
+import com.ggar.orchid.service.I18nService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterActionExecutorTest {
+    private final I18nService i18n = new I18nService(new I18nConfig().messageSource(), "en");
+    private final AtomicBoolean sourceClosed = new AtomicBoolean();
+    private final ExecutorService workerPool = Executors.newFixedThreadPool(2);
+    // '#source' es un Stream de 1 a 5 que anota si se ha cerrado; el predicado conserva los pares y falla en el 3 con '#failing'
+    private final SpelExpressionEvaluator evaluator = new SpelExpressionEvaluator(i18n, new ExpressionProfiler(i18n, false, 0)) {
+        @Override
+        public Object evaluate(String expression, Map<String, Object> contextMap, Map<String, Object> additionalVariables, ClassLoader jobSpecificClassLoader) {
+            if (expression.equals("#source")) return Stream.of(1, 2, 3, 4, 5).onClose(() -> sourceClosed.set(true));
+            int item = (Integer) contextMap.get("item");
+            if (expression.equals("#failing") && item == 3) throw new IllegalStateException("predicate failed");
+            return item % 2 == 0;
+        }
+    };
+    private final FilterActionExecutor executor = new FilterActionExecutor(evaluator, i18n, workerPool);
+
+    @AfterEach
+    void tearDown() {
+        workerPool.shutdownNow();
+    }
+
+    @Test
+    void aStreamSourceIsClosedOnceFiltered() {
+        Object result = executor.execute(newTarget("#even", 1), new HashMap<>(), null, null, lineage(), new HashMap<>());
+
+        assertEquals(List.of(2, 4), result);
+        assertTrue(sourceClosed.get());
+    }
+
+    @Test
+    void aStreamSourceIsClosedWhenThePredicateFailsMidway() {
+        assertThrows(IllegalStateException.class, () -> executor.execute(newTarget("#failing", 1), new HashMap<>(), null, null, lineage(), new HashMap<>()));
+
+        assertTrue(sourceClosed.get());
+    }
+
+    @Test
+    void aStreamSourceIsClosedWhenAParallelPredicateFails() {
+        assertThrows(RuntimeException.class, () -> executor.execute(newTarget("#failing", 2), new HashMap<>(), null, null, lineage(), new HashMap<>()));
+
+        assertTrue(sourceClosed.get());
+    }
+
+    private static FilterAction newTarget(String predicate, int parallelism) {
+        FilterAction action = new FilterAction();
+        action.setName("evens");
+        action.setCollection("#source");
+        action.setPredicate(predicate);
+        action.setMode(FilterAction.Mode.NEW_TARGET);
+        action.setParallelism(parallelism);
+        return action;
+    }
+
+    private static ActionExecutionLineage lineage() {
+        return new ActionExecutionLineage("test-job#1", "stage");
+    }
+}
@@ -0,0 +1,165 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.context.LargeValueStore;
+import com.ggar.orchid.context.OffloadingJobContext;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.HttpAction;
+import com.ggar.orchid.profiling.ExpressionProfiler;
+import com.ggar.orchid.service.FileWriteService;
+import com.ggar.orchid.service.HttpClientService;
+import com.ggar.orchid.service.I18nService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpActionExecutorTest {
+    @TempDir
+    Path spillDirectory;
+
+    private final I18nService i18n = new I18nService(new I18nConfig().messageSource(), "en");
+    private final Map<String, Object> expressionValues = new HashMap<>();
+    private final List<byte[]> receivedBodies = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private HttpServer server;
+    private FileWriteService fileWriteService;
+    private HttpActionExecutor executor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Responde 503 a las primeras failuresLeft peticiones y después devuelve el cuerpo recibido
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/echo", exchange -> {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            receivedBodies.add(body);
+            boolean fail = failuresLeft.getAndDecrement() > 0;
+            exchange.sendResponseHeaders(fail ? 503 : 200, fail ? -1 : body.length);
+            if (!fail) exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        expressionValues.put("#url", "http://127.0.0.1:" + server.getAddress().getPort() + "/echo");
+
+        // Las expresiones de la acción se resuelven con valores fijos del test; '#broken' falla al evaluarse
+        SpelExpressionEvaluator evaluator = new SpelExpressionEvaluator(i18n, new ExpressionProfiler(i18n, false, 0)) {
+            @Override
+            public Object evaluate(String expression, Map<String, Object> contextMap, Map<String, Object> additionalVariables, ClassLoader jobSpecificClassLoader) {
+                if (expression.equals("#broken")) throw new IllegalStateException("broken expression");
+                return expressionValues.containsKey(expression) ? expressionValues.get(expression) : contextMap.get(expression);
+            }
+        };
+        fileWriteService = new FileWriteService(i18n, 1, 1);
+        executor = new HttpActionExecutor(evaluator, i18n, new HttpClientService(i18n, 5, HttpClient.Version.HTTP_1_1), fileWriteService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        fileWriteService.shutdown();
+    }
+
+    @Test
+    void aByteArrayBodyIsSentAgainOnRetry() {
+        byte[] payload = "retry me".getBytes();
+        expressionValues.put("#payload", payload);
+        failuresLeft.set(1);
+
+        Object response = executor.execute(post(2), new HashMap<>(), null, null, lineage(), Map.of());
+
+        assertArrayEquals(payload, (byte[]) response);
+        assertEquals(2, receivedBodies.size());
+        assertArrayEquals(payload, receivedBodies.get(1));
+    }
+
+    @Test
+    void anOffHeapBodyIsSentAgainOnRetry() {
+        byte[] payload = new byte[4096];
+        Arrays.fill(payload, (byte) 'x');
+        try (LargeValueStore store = new LargeValueStore("test-job", 1024, LargeValueStore.Mode.DIRECT, spillDirectory)) {
+            Map<String, Object> context = new OffloadingJobContext(store);
+            context.put("#payload", payload);
+            failuresLeft.set(2);
+
+            Object response = executor.execute(post(2), context, null, null, lineage(), Map.of());
+
+            assertArrayEquals(payload, (byte[]) response);
+            assertEquals(3, receivedBodies.size());
+            for (byte[] received : receivedBodies) assertArrayEquals(payload, received);
+        }
+    }
+
+    @Test
+    void aStreamBodyIsNotRetried() {
+        byte[] payload = "only once".getBytes();
+        expressionValues.put("#payload", new ByteArrayInputStream(payload));
+        failuresLeft.set(1);
+
+        assertThrows(RuntimeException.class, () -> executor.execute(post(3), new HashMap<>(), null, null, lineage(), Map.of()));
+
+        assertEquals(1, receivedBodies.size());
+        assertArrayEquals(payload, receivedBodies.get(0));
+    }
+
+    @Test
+    void aStreamBodyIsSentWhenNoRetryIsNeeded() {
+        byte[] payload = "streamed".getBytes();
+        expressionValues.put("#payload", new ByteArrayInputStream(payload));
+
+        Object response = executor.execute(post(3), new HashMap<>(), null, null, lineage(), Map.of());
+
+        assertArrayEquals(payload, (byte[]) response);
+    }
+
+    @Test
+    void anOffHeapBodyIsNotLeftRetainedWhenTheRequestCannotBeBuilt() {
+        try (LargeValueStore store = new LargeValueStore("test-job", 1024, LargeValueStore.Mode.DIRECT, spillDirectory)) {
+            Map<String, Object> context = new OffloadingJobContext(store);
+            context.put("#payload", new byte[4096]);
+            HttpAction brokenHeader = post(0);
+            brokenHeader.setHeaders(Map.of("X-Trace", "#broken"));
+            HttpAction missingTarget = post(0);
+            missingTarget.setResponseType(HttpAction.ResponseType.FILE);
+
+            assertThrows(IllegalStateException.class, () -> executor.execute(brokenHeader, context, null, null, lineage(), Map.of()));
+            assertThrows(IllegalArgumentException.class, () -> executor.execute(missingTarget, context, null, null, lineage(), Map.of()));
+            context.remove("#payload");
+
+            assertEquals(0, store.getLiveCount());
+            assertTrue(receivedBodies.isEmpty());
+        }
+    }
+
+    private static HttpAction post(int retries) {
+        HttpAction action = new HttpAction();
+        action.setName("upload");
+        action.setUrl("#url");
+        action.setMethod("POST");
+        action.setBody("#payload");
+        action.setResponseType(HttpAction.ResponseType.BYTES);
+        action.setRetries(retries);
+        action.setRetryBackoffMillis(1);
+        action.setTimeoutSeconds(10);
+        return action;
+    }
+
+    private static ActionExecutionLineage lineage() {
+        return new ActionExecutionLineage("test-job#1", "stage");
+    }
+}
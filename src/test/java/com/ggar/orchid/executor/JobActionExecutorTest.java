@@ -0,0 +1,156 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.cache.ActionCacheService;
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.context.LargeValueStore;
+import com.ggar.orchid.context.LargeValueStoreFactory;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.JobAction;
+import com.ggar.orchid.model.JobDefinition;
+import com.ggar.orchid.profiling.ExpressionProfiler;
+import com.ggar.orchid.registry.JobRegistry;
+import com.ggar.orchid.registry.LoadedJob;
+import com.ggar.orchid.service.FileWriteService;
+import com.ggar.orchid.service.I18nService;
+import com.ggar.orchid.service.OrchestratorService;
+import com.ggar.orchid.service.ResourcePoolService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobActionExecutorTest {
+    private static final int THRESHOLD = 1024 * 1024;
+
+    @TempDir
+    Path cacheDirectory;
+
+    private final I18nService i18n = new I18nService(new I18nConfig().messageSource(), "en");
+    private final ExpressionProfiler profiler = new ExpressionProfiler(i18n, false, 0);
+    // '#nombre' devuelve la variable SpEL con ese nombre
+    private final SpelExpressionEvaluator evaluator = new SpelExpressionEvaluator(i18n, profiler) {
+        @Override
+        public Object evaluate(String expression, Map<String, Object> contextMap, Map<String, Object> additionalVariables, ClassLoader jobSpecificClassLoader) {
+            return additionalVariables.get(expression.substring(1));
+        }
+    };
+    private final ExecutorService workerPool = Executors.newFixedThreadPool(2);
+    private final FileWriteService fileWriteService = new FileWriteService(i18n, 1, 4);
+
+    @AfterEach
+    void tearDown() {
+        workerPool.shutdownNow();
+        fileWriteService.shutdown();
+    }
+
+    @Test
+    void largeOutputsOutliveTheSubJobsOffHeapStore() {
+        byte[] payload = payload(2 * THRESHOLD, 7);
+        JobAction action = invocation(Map.of("result", "payload"));
+
+        Object result = executor().execute(action, new HashMap<>(), orchestrator(), null, lineage(), Map.of("payload", payload));
+
+        Object output = assertInstanceOf(Map.class, result).get("result");
+        assertArrayEquals(payload, assertInstanceOf(byte[].class, output));
+    }
+
+    @Test
+    void withoutOutputsTheWholeFinalContextIsReadable() {
+        byte[] payload = payload(THRESHOLD + 1, 3);
+        JobAction action = invocation(null);
+
+        Object result = executor().execute(action, new HashMap<>(), orchestrator(), null, lineage(), Map.of("payload", payload));
+
+        assertArrayEquals(payload, assertInstanceOf(byte[].class, assertInstanceOf(Map.class, result).get("payload")));
+    }
+
+    @Test
+    void fanOutResultsKeepTheirLargeOutputs() {
+        List<byte[]> chunks = List.of(payload(2 * THRESHOLD, 1), payload(2 * THRESHOLD, 2));
+        JobAction action = invocation(Map.of("result", "payload"));
+        action.setCollection("#chunks");
+        action.setParameters(Map.of("payload", "#item"));
+        action.setParallelism(2);
+
+        Object result = executor().execute(action, new HashMap<>(), orchestrator(), null, lineage(), Map.of("chunks", chunks));
+
+        List<?> results = assertInstanceOf(List.class, result);
+        assertEquals(2, results.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            assertArrayEquals(chunks.get(i), assertInstanceOf(byte[].class, assertInstanceOf(Map.class, results.get(i)).get("result")));
+        }
+    }
+
+    @Test
+    void onlyASequentialInvocationKeepsTheCallersHeldResources() {
+        Set<Set<String>> heldBySubJobs = ConcurrentHashMap.newKeySet();
+        OrchestratorService recording = new OrchestratorService(null, i18n, evaluator, null, null, null, profiler, null) {
+            @Override
+            public <T> T executeJob(JobDefinition jobDef, Map<String, Object> initialParameters, ClassLoader jobSpecificClassLoader,
+                                    Set<String> heldResources, Function<Map<String, Object>, T> resultExtractor) {
+                heldBySubJobs.add(heldResources);
+                return null;
+            }
+        };
+        ActionExecutionLineage holdingApi = lineage().holding(Set.of("api"));
+        JobAction single = invocation(null);
+        JobAction sequentialFanOut = invocation(null);
+        sequentialFanOut.setCollection("#chunks");
+        JobAction parallelFanOut = invocation(null);
+        parallelFanOut.setCollection("#chunks");
+        parallelFanOut.setParallelism(2);
+        Map<String, Object> variables = Map.of("chunks", List.of(1, 2, 3), "payload", 0);
+
+        executor().execute(single, new HashMap<>(), recording, null, holdingApi, variables);
+        executor().execute(sequentialFanOut, new HashMap<>(), recording, null, holdingApi, variables);
+        assertEquals(Set.of(Set.of("api")), heldBySubJobs);
+
+        heldBySubJobs.clear();
+        executor().execute(parallelFanOut, new HashMap<>(), recording, null, holdingApi, variables);
+        assertEquals(Set.of(Set.of()), heldBySubJobs);
+    }
+
+    private JobActionExecutor executor() {
+        JobRegistry registry = new JobRegistry(i18n, evaluator, new ActionCacheService(i18n, cacheDirectory.toString()));
+        JobDefinition definition = new JobDefinition();
+        definition.setId("producer");
+        definition.setStages(List.of());
+        registry.register(new LoadedJob(definition, registry.nextVersion(), Map.of(), getClass().getClassLoader(), false, null));
+        return new JobActionExecutor(evaluator, i18n, registry, workerPool);
+    }
+
+    // El sub-job no tiene acciones: el factory de executors no se llega a usar
+    private OrchestratorService orchestrator() {
+        return new OrchestratorService(null, i18n, evaluator, new LargeValueStoreFactory(THRESHOLD, LargeValueStore.Mode.DIRECT, ""),
+                fileWriteService, new ActionCacheService(i18n, cacheDirectory.toString()), profiler, new ResourcePoolService(i18n, 0));
+    }
+
+    private static JobAction invocation(Map<String, String> outputs) {
+        JobAction action = new JobAction();
+        action.setName("produce");
+        action.setJobId("producer");
+        action.setInheritParameters(false);
+        action.setParameters(Map.of("payload", "#payload"));
+        action.setOutputs(outputs);
+        return action;
+    }
+
+    private static byte[] payload(int size, int seed) {
+        byte[] payload = new byte[size];
+        new Random(seed).nextBytes(payload);
+        return payload;
+    }
+
+    private static ActionExecutionLineage lineage() {
+        return new ActionExecutionLineage("caller#1", "stage");
+    }
+}
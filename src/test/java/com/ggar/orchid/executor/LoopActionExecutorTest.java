@@ -0,0 +1,336 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.context.ContextMergeConflictException;
+import com.ggar.orchid.context.LargeValueStore;
+import com.ggar.orchid.context.MergePolicy;
+import com.ggar.orchid.context.OffloadingJobContext;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.model.Action;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.LoopAction;
+import com.ggar.orchid.model.SpelAction;
+import com.ggar.orchid.profiling.ExpressionProfiler;
+import com.ggar.orchid.service.I18nService;
+import com.ggar.orchid.service.OrchestratorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+class LoopActionExecutorTest {
+    private static final int THRESHOLD = 1024;
+
+    @TempDir
+    Path spillDirectory;
+
+    private final I18nService i18n = new I18nService(new I18nConfig().messageSource(), "en");
+    private final ExecutorService workerPool = Executors.newFixedThreadPool(16);
+    private Object items = List.of();
+    // La colección del loop es siempre 'items'
+    private final SpelExpressionEvaluator evaluator = new SpelExpressionEvaluator(i18n, new ExpressionProfiler(i18n, false, 0)) {
+        @Override
+        public Object evaluate(String expression, Map<String, Object> contextMap, Map<String, Object> additionalVariables, ClassLoader jobSpecificClassLoader) {
+            return items;
+        }
+    };
+    // Cada acción del body se ejecuta con la función del test, que recibe la acción y el contexto de la iteración
+    private BiFunction<Action, Map<String, Object>, Object> body = (action, context) -> null;
+    private final Set<Set<String>> heldByBody = ConcurrentHashMap.newKeySet();
+    private final OrchestratorService orchestrator = new OrchestratorService(null, i18n, evaluator, null, null, null, null, null) {
+        @Override
+        public Object executeActions(List<Action> actions, Map<String, Object> jobContext, ClassLoader jobSpecificClassLoader, ActionExecutionLineage lineage, Object initialPreviousResult) {
+            heldByBody.add(lineage.heldResources());
+            Object result = initialPreviousResult;
+            for (Action action : actions) result = body.apply(action, jobContext);
+            return result;
+        }
+    };
+    private final LoopActionExecutor executor = new LoopActionExecutor(evaluator, i18n, workerPool, null);
+
+    @AfterEach
+    void tearDown() {
+        workerPool.shutdownNow();
+    }
+
+    @Test
+    void iterationsOfABatchOnlySeeTheirOwnWrites() {
+        items = List.of(0, 1, 2, 3);
+        CyclicBarrier allWritten = new CyclicBarrier(4);
+        Map<Object, Object> seen = new ConcurrentHashMap<>();
+        body = (action, context) -> {
+            context.put("shared", context.get("item"));
+            await(allWritten);
+            seen.put(context.get("item"), context.get("shared"));
+            return null;
+        };
+        Map<String, Object> context = new HashMap<>();
+
+        run(parallelLoop(4, MergePolicy.LAST_WRITER_WINS), context);
+
+        assertEquals(Map.of(0, 0, 1, 1, 2, 2, 3, 3), seen);
+        assertEquals(3, context.get("shared"));
+    }
+
+    @Test
+    void branchesMergeInIterationOrderWhateverOrderTheyFinish() {
+        items = List.of(0, 1, 2, 3);
+        body = (action, context) -> {
+            int item = (Integer) context.get("item");
+            sleep((3 - item) * 40L); // La primera iteración termina la última
+            context.put("winner", item);
+            return null;
+        };
+        Map<String, Object> lastWins = new HashMap<>();
+        Map<String, Object> firstWins = new HashMap<>();
+
+        run(parallelLoop(4, MergePolicy.LAST_WRITER_WINS), lastWins);
+        run(parallelLoop(4, MergePolicy.FIRST_WRITER_WINS), firstWins);
+
+        assertEquals(3, lastWins.get("winner"));
+        assertEquals(0, firstWins.get("winner"));
+    }
+
+    @Test
+    void aBatchStartsFromTheMergedWritesOfThePreviousOne() {
+        items = List.of(0, 1, 2, 3);
+        body = (action, context) -> {
+            context.put("sum", (Integer) context.getOrDefault("sum", 0) + (Integer) context.get("item"));
+            return null;
+        };
+        Map<String, Object> context = new HashMap<>();
+
+        run(parallelLoop(2, MergePolicy.LAST_WRITER_WINS), context);
+
+        // Tanda 1: 0+0 y 0+1 -> 1. Tanda 2: 1+2 y 1+3 -> 4
+        assertEquals(4, context.get("sum"));
+    }
+
+    @Test
+    void conflictingWritesFailTheLoopUnderFailOnConflict() {
+        items = List.of(0, 1);
+        body = (action, context) -> context.put("shared", context.get("item"));
+
+        assertThrows(ContextMergeConflictException.class, () -> run(parallelLoop(2, MergePolicy.FAIL_ON_CONFLICT), new HashMap<>()));
+    }
+
+    @Test
+    void aFailedIterationReleasesTheHandlesItRetained() {
+        try (LargeValueStore store = new LargeValueStore("test-job", THRESHOLD, LargeValueStore.Mode.DIRECT, spillDirectory)) {
+            Map<String, Object> context = new OffloadingJobContext(store);
+            context.put("page", new byte[THRESHOLD]);
+            items = List.of(0, 1);
+            body = (action, iteration) -> {
+                iteration.put("copy" + iteration.get("item"), iteration.get("page"));
+                if (Integer.valueOf(0).equals(iteration.get("item"))) throw new IllegalStateException("boom");
+                return null;
+            };
+
+            run(parallelLoop(2, MergePolicy.LAST_WRITER_WINS), context);
+            assertFalse(context.containsKey("copy0"));
+            context.remove("page");
+            context.remove("copy1");
+
+            assertEquals(0, store.getLiveCount());
+        }
+    }
+
+    @Test
+    void branchesLeftAfterAConflictReleaseTheHandlesTheyRetained() {
+        try (LargeValueStore store = new LargeValueStore("test-job", THRESHOLD, LargeValueStore.Mode.DIRECT, spillDirectory)) {
+            Map<String, Object> context = new OffloadingJobContext(store);
+            context.put("page", new byte[THRESHOLD]);
+            items = List.of(0, 1, 2);
+            body = (action, iteration) -> {
+                if (Integer.valueOf(2).equals(iteration.get("item"))) return iteration.put("copy", iteration.get("page"));
+                return iteration.put("shared", iteration.get("item"));
+            };
+
+            assertThrows(ContextMergeConflictException.class, () -> run(parallelLoop(3, MergePolicy.FAIL_ON_CONFLICT), context));
+            context.remove("page");
+
+            assertEquals(0, store.getLiveCount());
+        }
+    }
+
+    @Test
+    void aSlowStageHoldsBackTheSourceThroughTheBoundedQueues() throws Exception {
+        AtomicInteger pulled = new AtomicInteger();
+        items = countingIterator(100, pulled);
+        CountDownLatch slowStageEntered = new CountDownLatch(1);
+        CountDownLatch releaseSlowStage = new CountDownLatch(1);
+        Set<Object> finished = ConcurrentHashMap.newKeySet();
+        body = (stage, context) -> {
+            if (stage.getName().equals("slow")) {
+                slowStageEntered.countDown();
+                await(releaseSlowStage);
+                finished.add(context.get("item"));
+            }
+            return null;
+        };
+        LoopAction loop = loop("fast", "slow");
+        loop.setPipeline(true);
+        loop.setPipelineQueueCapacity(1);
+
+        CompletableFuture<Void> running = CompletableFuture.runAsync(() -> run(loop, new HashMap<>()));
+        assertTrue(slowStageEntered.await(10, TimeUnit.SECONDS));
+        Thread.sleep(300);
+
+        // En vuelo como mucho: uno en la etapa lenta, uno por cola, uno en la etapa rápida y uno en el productor
+        assertTrue(pulled.get() <= 5, "pulled " + pulled.get());
+        releaseSlowStage.countDown();
+        running.get(10, TimeUnit.SECONDS);
+        assertEquals(100, finished.size());
+    }
+
+    @Test
+    void everyIterationReachesTheLastStageWithSeveralWorkersPerStage() {
+        items = countingIterator(200, new AtomicInteger());
+        Map<String, Set<Object>> seenByStage = new ConcurrentHashMap<>();
+        body = (stage, context) -> {
+            seenByStage.computeIfAbsent(stage.getName(), name -> ConcurrentHashMap.newKeySet()).add(context.get("item"));
+            return null;
+        };
+        LoopAction loop = loop("parse", "enrich", "store");
+        loop.setPipeline(true);
+        loop.setStageWorkers(3);
+        loop.setPipelineQueueCapacity(2);
+
+        run(loop, new HashMap<>());
+
+        for (String stage : List.of("parse", "enrich", "store")) assertEquals(200, seenByStage.get(stage).size(), stage);
+    }
+
+    @Test
+    void aFailingStageAbortsThePipelineAndStopsReadingTheSource() {
+        AtomicInteger pulled = new AtomicInteger();
+        items = countingIterator(10_000, pulled);
+        Set<Object> stored = ConcurrentHashMap.newKeySet();
+        body = (stage, context) -> {
+            if (stage.getName().equals("parse") && Integer.valueOf(5).equals(context.get("item"))) throw new IllegalStateException("bad record");
+            if (stage.getName().equals("store")) stored.add(context.get("item"));
+            return null;
+        };
+        LoopAction loop = loop("parse", "store");
+        loop.setPipeline(true);
+        loop.setStageWorkers(2);
+
+        run(loop, new HashMap<>());
+
+        assertFalse(stored.contains(5));
+        assertTrue(pulled.get() < 10_000, "pulled " + pulled.get());
+    }
+
+    @Test
+    void plainReturnToContextAsKeysStayLocalToEachIteration() {
+        items = countingIterator(100, new AtomicInteger());
+        List<Object> mismatches = Collections.synchronizedList(new ArrayList<>());
+        body = (stage, context) -> {
+            int item = (Integer) context.get("item");
+            if (stage.getName().equals("double")) context.put("doubled", item * 2);
+            else if (!Integer.valueOf(item * 2).equals(context.get("doubled"))) mismatches.add(item);
+            return null;
+        };
+        LoopAction loop = loop("double", "check");
+        loop.getBody().get(0).setReturnToContextAs("doubled");
+        loop.setPipeline(true);
+        loop.setStageWorkers(4);
+        Map<String, Object> context = new HashMap<>();
+
+        run(loop, context);
+
+        assertEquals(List.of(), mismatches);
+        assertFalse(context.containsKey("doubled"));
+    }
+
+    @Test
+    void onlySequentialIterationsInheritTheResourcesTheLoopHolds() {
+        items = List.of(1, 2, 3);
+        ActionExecutionLineage holdingApi = new ActionExecutionLineage("test-job#1", "stage").holding(Set.of("api"));
+        LoopAction pipelined = loop("fetch", "store");
+        pipelined.setPipeline(true);
+
+        executor.execute(loop(), new HashMap<>(), orchestrator, null, holdingApi, new HashMap<>());
+        assertEquals(Set.of(Set.of("api")), heldByBody);
+
+        heldByBody.clear();
+        executor.execute(parallelLoop(2, MergePolicy.LAST_WRITER_WINS), new HashMap<>(), orchestrator, null, holdingApi, new HashMap<>());
+        executor.execute(pipelined, new HashMap<>(), orchestrator, null, holdingApi, new HashMap<>());
+        assertEquals(Set.of(Set.of()), heldByBody);
+    }
+
+    private void run(LoopAction loop, Map<String, Object> context) {
+        executor.execute(loop, context, orchestrator, null, new ActionExecutionLineage("test-job#1", "stage"), new HashMap<>());
+    }
+
+    private static LoopAction parallelLoop(int parallelism, MergePolicy policy) {
+        LoopAction loop = loop();
+        loop.setParallelism(parallelism);
+        loop.setMergePolicy(policy);
+        return loop;
+    }
+
+    private static LoopAction loop(String... stageNames) {
+        List<Action> stages = new ArrayList<>();
+        for (String stageName : stageNames.length == 0 ? new String[]{"body"} : stageNames) {
+            SpelAction stage = new SpelAction();
+            stage.setName(stageName);
+            stages.add(stage);
+        }
+        LoopAction loop = new LoopAction();
+        loop.setName("loop");
+        loop.setCollection("#items");
+        loop.setIteratorVariable("item");
+        loop.setBody(stages);
+        return loop;
+    }
+
+    private static Iterator<Integer> countingIterator(int size, AtomicInteger pulled) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return pulled.get() < size;
+            }
+
+            @Override
+            public Integer next() {
+                return pulled.getAndIncrement();
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.io.ReadMode;
+import com.ggar.orchid.io.RecordFormat;
+import com.ggar.orchid.io.RecordSource;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.PipelineAction;
+import com.ggar.orchid.model.PipelineStage;
+import com.ggar.orchid.profiling.ExpressionProfiler;
+import com.ggar.orchid.service.I18nService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PipelineActionExecutorTest {
+    private static final Path OPEN_FILES = Path.of("/proc/self/fd");
+    private final I18nService i18n = new I18nService(new I18nConfig().messageSource(), "en");
+    @TempDir
+    Path directory;
+    private Path file;
+    private RecordSource source;
+
+    @BeforeEach
+    void writeRecords() throws IOException {
+        // Solo se puede comprobar qué ficheros siguen abiertos donde existe /proc
+        assumeTrue(Files.isDirectory(OPEN_FILES));
+        file = Files.writeString(directory.resolve("records.jsonl"), "1\nnull\n2\n3\n");
+        source = RecordSource.open(file, new RecordSource.Options(RecordFormat.JSONL, ReadMode.CHUNKED, "UTF-8", ',', false, 16));
+    }
+
+    @Test
+    void closingAShortCircuitedStreamClosesTheFile() throws IOException {
+        Stream<Object> stream = PipelineActionExecutor.toStream(source);
+        assertEquals(1, stream.findFirst().orElseThrow());
+        assertEquals(1, openHandles());
+
+        stream.close();
+
+        assertEquals(0, openHandles());
+    }
+
+    @Test
+    void nullRecordsReachTheTerminalOperation() throws IOException {
+        PipelineAction action = pipeline(List.of());
+        action.setCollect(PipelineAction.Collector.COUNT);
+
+        assertEquals(4L, executor().execute(action, new HashMap<>(), null, null, lineage(), new HashMap<>()));
+        assertEquals(0, openHandles());
+    }
+
+    @Test
+    void anInvalidStageClosesTheSourceFile() throws IOException {
+        PipelineAction action = pipeline(List.of(new PipelineStage()));
+
+        assertThrows(IllegalArgumentException.class, () -> executor().execute(action, new HashMap<>(), null, null, lineage(), new HashMap<>()));
+        assertEquals(0, openHandles());
+    }
+
+    // El origen del pipeline es siempre la RecordSource del test
+    private PipelineActionExecutor executor() {
+        SpelExpressionEvaluator evaluator = new SpelExpressionEvaluator(i18n, new ExpressionProfiler(i18n, false, 0)) {
+            @Override
+            public Object evaluate(String expression, Map<String, Object> contextMap, Map<String, Object> additionalVariables, ClassLoader jobSpecificClassLoader) {
+                return source;
+            }
+        };
+        return new PipelineActionExecutor(evaluator, i18n, ForkJoinPool.commonPool());
+    }
+
+    private static PipelineAction pipeline(List<PipelineStage> stages) {
+        PipelineAction action = new PipelineAction();
+        action.setName("records");
+        action.setSource("#records");
+        action.setStages(stages);
+        return action;
+    }
+
+    private static ActionExecutionLineage lineage() {
+        return new ActionExecutionLineage("test-job#1", "stage");
+    }
+
+    private long openHandles() throws IOException {
+        Path target = file.toRealPath();
+        try (Stream<Path> handles = Files.list(OPEN_FILES)) {
+            return handles.filter(handle -> {
+                try {
+                    return Files.readSymbolicLink(handle).equals(target);
+                } catch (IOException e) {
+                    return false; // El descriptor se ha cerrado mientras se listaba
+                }
+            }).count();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ggar.orchid.executor;
+
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.SwitchAction;
+import com.ggar.orchid.model.SwitchCase;
+import com.ggar.orchid.profiling.ExpressionProfiler;
+import com.ggar.orchid.service.I18nService;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwitchActionExecutorTest {
+    private final I18nService i18n = new I18nService(new I18nConfig().messageSource(), "en");
+    private final IllegalStateException evaluationFailure = new IllegalStateException("no such property");
+    // '#broken' falla al evaluarse; cualquier otra expresión devuelve su propio texto
+    private final SpelExpressionEvaluator evaluator = new SpelExpressionEvaluator(i18n, new ExpressionProfiler(i18n, false, 0)) {
+        @Override
+        public Object evaluate(String expression, Map<String, Object> contextMap, Map<String, Object> additionalVariables, ClassLoader jobSpecificClassLoader) {
+            if (expression.equals("#broken")) throw evaluationFailure;
+            return expression;
+        }
+    };
+    private final SwitchActionExecutor executor = new SwitchActionExecutor(evaluator, i18n);
+
+    @Test
+    void aDiscriminatorThatFailsToEvaluateFailsTheAction() {
+        SwitchAction action = switchOn("#broken");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> executor.execute(action, new HashMap<>(), null, null, lineage(), new HashMap<>()));
+        assertSame(evaluationFailure, error.getCause());
+    }
+
+    @Test
+    void aDiscriminatorWithoutMatchingCaseOrDefaultReturnsNull() {
+        SwitchAction action = switchOn("unknown");
+
+        assertNull(executor.execute(action, new HashMap<>(), null, null, lineage(), new HashMap<>()));
+    }
+
+    @Test
+    void aMissingDiscriminatorIsRejected() {
+        SwitchAction action = switchOn(" ");
+
+        assertThrows(IllegalArgumentException.class, () -> executor.execute(action, new HashMap<>(), null, null, lineage(), new HashMap<>()));
+    }
+
+    private static SwitchAction switchOn(String discriminator) {
+        SwitchCase known = new SwitchCase();
+        known.setWhen("known");
+        known.setActions(List.of());
+        SwitchAction action = new SwitchAction();
+        action.setName("route");
+        action.setDiscriminator(discriminator);
+        action.setCases(List.of(known));
+        return action;
+    }
+
+    private static ActionExecutionLineage lineage() {
+        return new ActionExecutionLineage("test-job#1", "stage");
+    }
+}
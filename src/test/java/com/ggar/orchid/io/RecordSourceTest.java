@@ -0,0 +1,58 @@
+package com.ggar.orchid.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordSourceTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void aNullJsonlRecordIsReturnedInsteadOfEndingTheIteration() throws Exception {
+        Path file = Files.writeString(directory.resolve("records.jsonl"), "{\"id\":1}\nnull\n\n{\"id\":2}\n");
+
+        List<Object> records = new ArrayList<>();
+        RecordSource.RecordIterator iterator = jsonl(file).iterator();
+        while (iterator.hasNext()) records.add(iterator.next());
+
+        assertEquals(Arrays.asList(Map.of("id", 1), null, Map.of("id", 2)), records);
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void splitsKeepNullRecordsExactlyOnce() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 50; i++) content.append(i % 5 == 0 ? "null" : String.valueOf(i)).append('\n');
+        Path file = Files.writeString(directory.resolve("numbers.jsonl"), content);
+
+        List<Object> records = new ArrayList<>();
+        for (RecordSource split : jsonl(file).split(7)) split.forEach(records::add);
+
+        assertEquals(50, records.size());
+        assertEquals(10, records.stream().filter(record -> record == null).count());
+    }
+
+    @Test
+    void aLeadingNullRecordDoesNotHideTheRest() throws Exception {
+        Path file = Files.writeString(directory.resolve("leading.jsonl"), "null\nnull\n3\n");
+
+        List<Object> records = new ArrayList<>();
+        jsonl(file).forEach(records::add);
+
+        assertEquals(Arrays.asList(null, null, 3), records);
+    }
+
+    private static RecordSource jsonl(Path file) throws Exception {
+        return RecordSource.open(file, new RecordSource.Options(RecordFormat.JSONL, ReadMode.CHUNKED, "UTF-8", ',', false, 16));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ggar.orchid.registry;
+
+import com.ggar.orchid.cache.ActionCacheService;
+import com.ggar.orchid.cache.ActionResultCache;
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.model.CacheDefinition;
+import com.ggar.orchid.model.JobDefinition;
+import com.ggar.orchid.profiling.ExpressionProfiler;
+import com.ggar.orchid.service.I18nService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobRegistryTest {
+    private static final ClassLoader APPLICATION_CLASS_LOADER = JobRegistryTest.class.getClassLoader();
+
+    @TempDir
+    Path cacheDirectory;
+
+    private final I18nService i18n = new I18nService(new I18nConfig().messageSource(), "en");
+    private final SpelExpressionEvaluator evaluator = new SpelExpressionEvaluator(i18n, new ExpressionProfiler(i18n, false, 0));
+    private ActionCacheService cacheService;
+    private JobRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        cacheService = new ActionCacheService(i18n, cacheDirectory.toString());
+        registry = new JobRegistry(i18n, evaluator, cacheService);
+    }
+
+    @Test
+    void retiringAVersionDropsOnlyItsOwnCachesAndExpressions() {
+        URLClassLoader firstVersionLoader = new URLClassLoader(new URL[0], APPLICATION_CLASS_LOADER);
+        registry.register(version("job-a", firstVersionLoader, true));
+        registry.register(version("job-b", APPLICATION_CLASS_LOADER, false));
+        ActionResultCache retiredCache = processCache("job-a", firstVersionLoader);
+        ActionResultCache otherJobCache = processCache("job-b", APPLICATION_CLASS_LOADER);
+        evaluator.prepare("#item * 2", Map.of(), Map.of(), firstVersionLoader);
+        evaluator.prepare("#item * 2", Map.of(), Map.of(), APPLICATION_CLASS_LOADER);
+
+        registry.register(version("job-a", new URLClassLoader(new URL[0], APPLICATION_CLASS_LOADER), true));
+
+        assertNotSame(retiredCache, processCache("job-a", firstVersionLoader));
+        assertSame(otherJobCache, processCache("job-b", APPLICATION_CLASS_LOADER));
+        assertEquals(1, evaluator.evictClassLoader(APPLICATION_CLASS_LOADER));
+    }
+
+    @Test
+    void cachesRefilledByARunningOldVersionAreDroppedWhenItsLastRunEnds() {
+        URLClassLoader firstVersionLoader = new URLClassLoader(new URL[0], APPLICATION_CLASS_LOADER);
+        LoadedJob firstVersion = version("job-a", firstVersionLoader, true);
+        registry.register(firstVersion);
+        ActionResultCache refilled;
+        try (JobRegistry.Lease lease = registry.acquire("job-a")) {
+            registry.register(version("job-a", new URLClassLoader(new URL[0], APPLICATION_CLASS_LOADER), true));
+            assertFalse(lease.job().isClosed());
+            // La ejecución en curso sigue usando la versión antigua y vuelve a crear su caché
+            refilled = processCache("job-a", firstVersionLoader);
+        }
+
+        assertTrue(firstVersion.isClosed());
+        assertNotSame(refilled, processCache("job-a", firstVersionLoader));
+    }
+
+    @Test
+    void aSharedClassLoaderKeepsItsExpressionsWhenAVersionIsRetired() {
+        registry.register(version("job-a", APPLICATION_CLASS_LOADER, false));
+        evaluator.prepare("#item * 2", Map.of(), Map.of(), APPLICATION_CLASS_LOADER);
+
+        registry.register(version("job-a", APPLICATION_CLASS_LOADER, false));
+
+        assertEquals(1, evaluator.evictClassLoader(APPLICATION_CLASS_LOADER));
+    }
+
+    private ActionResultCache processCache(String jobId, ClassLoader classLoader) {
+        CacheDefinition definition = new CacheDefinition();
+        definition.setKey("#key");
+        definition.setScope(CacheDefinition.Scope.PROCESS);
+        return cacheService.cacheFor(jobId, classLoader, jobId + "#1", "lookup", definition);
+    }
+
+    private LoadedJob version(String jobId, ClassLoader classLoader, boolean ownsClassLoader) {
+        JobDefinition definition = new JobDefinition();
+        definition.setId(jobId);
+        return new LoadedJob(definition, registry.nextVersion(), Map.of(), classLoader, ownsClassLoader, null);
+    }
+}
@@ -0,0 +1,117 @@
+package com.ggar.orchid.service;
+
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.context.LargeValueStore;
+import com.ggar.orchid.context.OffHeapBytes;
+import com.ggar.orchid.context.OffloadingJobContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileWriteServiceTest {
+    private static final int THRESHOLD = 1024;
+
+    @TempDir
+    Path directory;
+
+    private FileWriteService fileWriteService;
+    private LargeValueStore store;
+
+    @BeforeEach
+    void setUp() {
+        fileWriteService = new FileWriteService(new I18nService(new I18nConfig().messageSource(), "en"), 1, 4);
+        store = new LargeValueStore("test-job", THRESHOLD, LargeValueStore.Mode.DIRECT, directory.resolve("spill"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+        fileWriteService.shutdown();
+    }
+
+    @Test
+    void aQueuedWriteKeepsItsOffHeapContentAfterTheKeyIsOverwritten() throws IOException {
+        Map<String, Object> context = new OffloadingJobContext(store);
+        byte[] original = new byte[THRESHOLD * 4];
+        Arrays.fill(original, (byte) 9);
+        context.put("page", original);
+        OffHeapBytes page = (OffHeapBytes) context.get("page");
+
+        // El único hilo de escritura queda ocupado hasta que se sobrescribe la clave
+        CountDownLatch overwritten = new CountDownLatch(1);
+        fileWriteService.writeAsync("job#1", directory.resolve("first.bin"), blockingStream(overwritten), false, false);
+        fileWriteService.writeAsync("job#1", directory.resolve("page.bin"), page, false, false);
+        context.put("page", new byte[THRESHOLD]);
+        overwritten.countDown();
+
+        assertEquals(0, fileWriteService.awaitPendingWrites("job#1"));
+        assertArrayEquals(original, Files.readAllBytes(directory.resolve("page.bin")));
+        // La escritura devolvió su referencia: el valor sobrescrito ya está liberado
+        assertThrows(IllegalStateException.class, page::toByteArray);
+        assertEquals(1, store.getLiveCount());
+    }
+
+    @Test
+    void writingAReleasedValueFailsWhenQueued() {
+        Map<String, Object> context = new OffloadingJobContext(store);
+        context.put("page", new byte[THRESHOLD]);
+        OffHeapBytes page = (OffHeapBytes) context.get("page");
+        context.remove("page");
+
+        assertThrows(IllegalStateException.class, () -> fileWriteService.writeAsync("job#1", directory.resolve("page.bin"), page, false, false));
+    }
+
+    @Test
+    void aRunOnlyWaitsForItsOwnWrites() throws Exception {
+        fileWriteService.shutdown();
+        fileWriteService = new FileWriteService(new I18nService(new I18nConfig().messageSource(), "en"), 2, 4);
+        CountDownLatch otherRunMayFinish = new CountDownLatch(1);
+        CompletableFuture<Path> otherRun = fileWriteService.writeAsync("other#1", directory.resolve("other.bin"), blockingStream(otherRunMayFinish), false, false);
+        fileWriteService.writeAsync("job#1", directory.resolve("own.txt"), "own", false, false);
+
+        assertEquals(0, fileWriteService.awaitPendingWrites("job#1"));
+        assertEquals("own", Files.readString(directory.resolve("own.txt")));
+        assertFalse(otherRun.isDone());
+
+        otherRunMayFinish.countDown();
+        assertEquals(0, fileWriteService.awaitPendingWrites("other#1"));
+        assertTrue(otherRun.isDone());
+    }
+
+    @Test
+    void failedWritesAreCountedForTheirRun() {
+        fileWriteService.writeAsync("job#1", directory.resolve("bad.bin"), new Object(), false, false);
+        fileWriteService.writeAsync("job#2", directory.resolve("good.txt"), "ok", false, false);
+
+        assertEquals(0, fileWriteService.awaitPendingWrites("job#2"));
+        assertEquals(1, fileWriteService.awaitPendingWrites("job#1"));
+        assertEquals(0, fileWriteService.awaitPendingWrites("job#1"));
+    }
+
+    private static InputStream blockingStream(CountDownLatch latch) {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                return -1;
+            }
+        };
+    }
+}
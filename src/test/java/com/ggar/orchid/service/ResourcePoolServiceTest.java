@@ -0,0 +1,188 @@
+package com.ggar.orchid.service;
+
+import com.ggar.orchid.bootstrap.ApplicationContextProvider;
+import com.ggar.orchid.concurrent.ResourceStats;
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.evaluator.SpelExpressionEvaluator;
+import com.ggar.orchid.executor.ActionExecutor;
+import com.ggar.orchid.executor.LoopActionExecutor;
+import com.ggar.orchid.factory.ActionExecutorFactory;
+import com.ggar.orchid.model.Action;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.LoopAction;
+import com.ggar.orchid.model.ResourceDefinition;
+import com.ggar.orchid.model.SpelAction;
+import com.ggar.orchid.profiling.ExpressionProfiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+class ResourcePoolServiceTest {
+    private final I18nService i18n = new I18nService(new I18nConfig().messageSource(), "en");
+    private final ExecutorService workerPool = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        workerPool.shutdownNow();
+    }
+
+    @Test
+    void nestedAcquireOfAResourceTheLineageHoldsDoesNotWait() {
+        ResourcePoolService service = service(0, "db");
+        ActionExecutionLineage lineage = new ActionExecutionLineage("job#1", "stage");
+
+        ResourcePoolService.Lease loop = service.acquire(Map.of("db", 1), "loop", lineage.heldResources());
+        ActionExecutionLineage body = lineage.holding(Set.of("db")).dive("loop");
+        ResourcePoolService.Lease iteration = service.acquire(Map.of("db", 1), "body", body.heldResources());
+        assertEquals(1, stats(service, "db").inUse());
+        iteration.close();
+        assertEquals(1, stats(service, "db").inUse());
+        loop.close();
+        assertEquals(0, stats(service, "db").inUse());
+    }
+
+    @Test
+    void nestedAcquireStillRequestsTheResourcesNotHeld() {
+        ResourcePoolService service = service(0, "api", "db");
+        Set<String> held = new ActionExecutionLineage("job#1", "stage").holding(Set.of("db")).heldResources();
+
+        ResourcePoolService.Lease lease = service.acquire(Map.of("db", 1, "api", 1), "body", held);
+        assertEquals(1, stats(service, "api").inUse());
+        assertEquals(0, stats(service, "db").inUse());
+        lease.close();
+        assertEquals(0, stats(service, "api").inUse());
+    }
+
+    @Test
+    void waitingLongerThanTheTimeoutFailsAndLeavesTheQueue() {
+        ResourcePoolService service = service(1, "db");
+        ResourcePoolService.Lease holder = service.acquire(Map.of("db", 1), "holder", Set.of());
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> service.acquire(Map.of("db", 1), "waiter", Set.of()));
+        assertEquals(i18n.getMessage("resources.acquireTimeout.runtime", "db", "waiter", 1L), error.getMessage());
+        assertEquals(0, stats(service, "db").waiting());
+
+        // El permiso del holder vuelve al pool y nadie más lo reclama
+        holder.close();
+        assertEquals(0, stats(service, "db").inUse());
+        ResourcePoolService.Lease next = service.acquire(Map.of("db", 1), "next", Set.of());
+        assertEquals(1, stats(service, "db").inUse());
+        next.close();
+    }
+
+    @Test
+    void timeoutOnALaterResourceReturnsTheOnesAlreadyGranted() {
+        ResourcePoolService service = service(1, "a", "b");
+        ResourcePoolService.Lease holder = service.acquire(Map.of("b", 1), "holder", Set.of());
+
+        assertThrows(IllegalStateException.class, () -> service.acquire(Map.of("a", 1, "b", 1), "waiter", Set.of()));
+        assertEquals(0, stats(service, "a").inUse());
+        assertEquals(1, stats(service, "b").inUse());
+        holder.close();
+    }
+
+    @Test
+    void requestingMoreThanTheCapacityReturnsTheOnesAlreadyGranted() {
+        ResourcePoolService service = service(1, "a", "b");
+        assertThrows(IllegalArgumentException.class, () -> service.acquire(Map.of("a", 1, "b", 2), "greedy", Set.of()));
+        assertEquals(0, stats(service, "a").inUse());
+    }
+
+    @Test
+    void parallelBranchesOfALoopDoNotShareTheLoopsPermit() {
+        // El loop se queda uno de los 2 permisos: al body le queda capacidad 1 para sus 8 ramas
+        ResourcePoolService service = service(10, 2, "api");
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger calls = new AtomicInteger();
+
+        runLoop(service, 8, running, maxRunning, calls);
+
+        assertEquals(8, calls.get());
+        assertEquals(1, maxRunning.get());
+        assertEquals(0, stats(service, "api").inUse());
+    }
+
+    @Test
+    void aSequentialLoopBodyStillReusesTheLoopsPermit() {
+        ResourcePoolService service = service(1, 1, "api");
+        AtomicInteger calls = new AtomicInteger();
+
+        runLoop(service, 1, new AtomicInteger(), new AtomicInteger(), calls);
+
+        assertEquals(8, calls.get());
+        assertEquals(0, stats(service, "api").inUse());
+    }
+
+    // Un loop con acquires {api: 1} y 8 iteraciones cuyo body también pide {api: 1}
+    private void runLoop(ResourcePoolService service, int parallelism, AtomicInteger running, AtomicInteger maxRunning, AtomicInteger calls) {
+        ExpressionProfiler profiler = new ExpressionProfiler(i18n, false, 0);
+        SpelExpressionEvaluator evaluator = new SpelExpressionEvaluator(i18n, profiler) {
+            @Override
+            public Object evaluate(String expression, Map<String, Object> contextMap, Map<String, Object> additionalVariables, ClassLoader jobSpecificClassLoader) {
+                return List.of(1, 2, 3, 4, 5, 6, 7, 8);
+            }
+        };
+        ActionExecutor call = (action, jobContext, orchestratorService, classLoader, lineage, variables) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return calls.incrementAndGet();
+        };
+        ActionExecutorFactory factory = new ActionExecutorFactory((ApplicationContextProvider) null, evaluator, i18n, workerPool, null, null, null, null, null) {
+            @Override
+            public ActionExecutor getExecutor(String type) {
+                return type.equals("loop") ? new LoopActionExecutor(evaluator, i18n, workerPool, null) : call;
+            }
+        };
+        OrchestratorService orchestrator = new OrchestratorService(factory, i18n, evaluator, null, null, null, profiler, service);
+
+        SpelAction body = new SpelAction();
+        body.setName("call");
+        body.setType("spel");
+        body.setAcquires(Map.of("api", 1));
+        LoopAction loop = new LoopAction();
+        loop.setName("loop");
+        loop.setType("loop");
+        loop.setCollection("#items");
+        loop.setIteratorVariable("item");
+        loop.setParallelism(parallelism);
+        loop.setAcquires(Map.of("api", 1));
+        loop.setBody(List.<Action>of(body));
+
+        orchestrator.executeActions(List.of(loop), new HashMap<>(), null, new ActionExecutionLineage("job#1", "stage"), null);
+    }
+
+    private ResourcePoolService service(long timeoutSeconds, String... names) {
+        return service(timeoutSeconds, 1, names);
+    }
+
+    private ResourcePoolService service(long timeoutSeconds, int capacity, String... names) {
+        ResourcePoolService service = new ResourcePoolService(i18n, timeoutSeconds);
+        ResourceDefinition definition = new ResourceDefinition();
+        definition.setCapacity(capacity);
+        for (String name : names) service.configure(Map.of(name, definition));
+        return service;
+    }
+
+    private static ResourceStats stats(ResourcePoolService service, String name) {
+        return service.getStatistics().stream().filter(stats -> stats.name().equals(name)).findFirst().orElseThrow();
+    }
+}
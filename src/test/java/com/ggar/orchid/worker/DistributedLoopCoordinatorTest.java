@@ -0,0 +1,194 @@
+package com.ggar.orchid.worker;
+
+import com.ggar.orchid.config.I18nConfig;
+import com.ggar.orchid.model.ActionExecutionLineage;
+import com.ggar.orchid.model.JavaMethodAction;
+import com.ggar.orchid.model.LoopAction;
+import com.ggar.orchid.service.I18nService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Lanza procesos worker reales con el classpath de los tests
+@Timeout(value = 120, unit = TimeUnit.SECONDS)
+class DistributedLoopCoordinatorTest {
+    private static final String MARKER_DIR_PROPERTY = "orchid.test.markers";
+    private static final String HANG_PROPERTY = "orchid.test.hang";
+    private static final int ITEMS = 12;
+    private static final int HUNG_ITEM = 2;
+
+    @TempDir
+    Path markers;
+
+    private final I18nService i18n = new I18nService(new I18nConfig().messageSource(), "en");
+
+    // Body del loop: deja una marca al empezar y otra al terminar cada iteración, con el pid del worker. Con
+    // HANG_PROPERTY, el primer worker que recibe HUNG_ITEM se queda bloqueado en él
+    public static final class SlowDouble {
+        public int apply(Integer item) throws Exception {
+            Path directory = Path.of(System.getProperty(MARKER_DIR_PROPERTY));
+            long pid = ProcessHandle.current().pid();
+            Files.createFile(directory.resolve("started-" + item + "-" + pid));
+            if (item == HUNG_ITEM && Boolean.getBoolean(HANG_PROPERTY) && Files.notExists(directory.resolve("hung"))) {
+                Files.writeString(directory.resolve("hung"), String.valueOf(pid));
+                Thread.sleep(Long.MAX_VALUE);
+            }
+            Thread.sleep(300);
+            Files.createFile(directory.resolve("done-" + item + "-" + pid));
+            return item * 2;
+        }
+    }
+
+    @Test
+    void iterationsOfAKilledWorkerAreReassignedAndMerged() throws Exception {
+        DistributedLoopCoordinator coordinator = new DistributedLoopCoordinator(i18n, "tcp", 60,
+                "-D" + MARKER_DIR_PROPERTY + "=" + markers, 2, 600);
+        Map<String, Object> context = new HashMap<>();
+        List<Integer> items = IntStream.range(0, ITEMS).boxed().toList();
+
+        Thread killer = new Thread(this::killTheFirstWorkerMidIteration);
+        killer.setDaemon(true);
+        killer.start();
+        coordinator.run(loop(), "double", context, items.iterator(), null, null, getClass().getClassLoader(),
+                new ActionExecutionLineage("workers#1", "stage"));
+        killer.join(TimeUnit.SECONDS.toMillis(30));
+
+        long killedPid = killedPid();
+        Set<Integer> interrupted = markerItems("started-", killedPid);
+        interrupted.removeAll(markerItems("done-", killedPid));
+        assertFalse(interrupted.isEmpty());
+        for (int item : items) {
+            assertFalse(markerPids("done-" + item + "-").isEmpty(), "iteration " + item + " never finished");
+        }
+        for (int item : interrupted) {
+            assertFalse(markerPids("done-" + item + "-").contains(killedPid));
+        }
+        // Las escrituras se unen en orden de índice: la última iteración es la que queda
+        assertEquals(2 * (ITEMS - 1), context.get("doubled"));
+    }
+
+    @Test
+    void aWorkerStuckInAnIterationIsStoppedAfterTheTaskTimeout() throws Exception {
+        DistributedLoopCoordinator coordinator = new DistributedLoopCoordinator(i18n, "tcp", 60,
+                "-D" + MARKER_DIR_PROPERTY + "=" + markers + " -D" + HANG_PROPERTY + "=true", 2, 3);
+        Map<String, Object> context = new HashMap<>();
+        List<Integer> items = IntStream.range(0, ITEMS).boxed().toList();
+
+        coordinator.run(loop(), "double", context, items.iterator(), null, null, getClass().getClassLoader(),
+                new ActionExecutionLineage("workers#1", "stage"));
+
+        long hungPid = Long.parseLong(Files.readString(markers.resolve("hung")));
+        // El worker colgado se detuvo: si no, la iteración no habría terminado y run() no habría vuelto
+        ProcessHandle.of(hungPid).ifPresent(process -> process.onExit().orTimeout(10, TimeUnit.SECONDS).join());
+        for (int item : items) {
+            assertFalse(markerPids("done-" + item + "-").isEmpty(), "iteration " + item + " never finished");
+        }
+        assertEquals(2 * (ITEMS - 1), context.get("doubled"));
+    }
+
+    @Test
+    void aBodyThatAcquiresResourcesIsRejectedBeforeAnyWorkerStarts() throws Exception {
+        DistributedLoopCoordinator coordinator = new DistributedLoopCoordinator(i18n, "tcp", 60,
+                "-D" + MARKER_DIR_PROPERTY + "=" + markers, 2, 600);
+        JavaMethodAction limited = new JavaMethodAction();
+        limited.setName("limitedCall");
+        limited.setType("javaMethod");
+        limited.setBeanName(SlowDouble.class.getName());
+        limited.setMethod("apply");
+        limited.setArgs(List.of("#item"));
+        limited.setAcquires(Map.of("api", 1));
+        LoopAction inner = new LoopAction();
+        inner.setName("inner");
+        inner.setType("loop");
+        inner.setBody(List.of(limited));
+        LoopAction loop = loop();
+        loop.setBody(List.of(loop.getBody().get(0), inner));
+        Map<String, Object> context = new HashMap<>();
+        Iterator<Integer> items = IntStream.range(0, ITEMS).boxed().iterator();
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> coordinator.run(loop, "double", context,
+                items, null, null, getClass().getClassLoader(), new ActionExecutionLineage("workers#1", "stage")));
+
+        assertEquals(i18n.getMessage("worker.coordinator.acquiresNotSupported.runtime", "double", List.of("limitedCall")), error.getMessage());
+        assertTrue(items.hasNext() && items.next() == 0, "no item should have been taken");
+        try (Stream<Path> files = Files.list(markers)) {
+            assertEquals(0, files.count(), "no worker should have run an iteration");
+        }
+        assertTrue(context.isEmpty());
+    }
+
+    private static LoopAction loop() {
+        JavaMethodAction body = new JavaMethodAction();
+        body.setName("slowDouble");
+        body.setType("javaMethod");
+        body.setBeanName(SlowDouble.class.getName());
+        body.setMethod("apply");
+        body.setArgs(List.of("#item"));
+        body.setReturnToContextAs("doubled");
+        LoopAction loop = new LoopAction();
+        loop.setName("double");
+        loop.setType("loop");
+        loop.setIteratorVariable("item");
+        loop.setWorkers(2);
+        loop.setBody(List.of(body));
+        return loop;
+    }
+
+    // Mata al primer worker que empieza una iteración, mientras la está ejecutando
+    private void killTheFirstWorkerMidIteration() {
+        try {
+            while (true) {
+                Optional<Path> started;
+                try (Stream<Path> files = Files.list(markers)) {
+                    started = files.filter(file -> file.getFileName().toString().startsWith("started-")).findFirst();
+                }
+                if (started.isPresent()) {
+                    String name = started.get().getFileName().toString();
+                    long pid = Long.parseLong(name.substring(name.lastIndexOf('-') + 1));
+                    Files.writeString(markers.resolve("killed"), String.valueOf(pid));
+                    ProcessHandle.of(pid).ifPresent(ProcessHandle::destroyForcibly);
+                    return;
+                }
+                Thread.sleep(20);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long killedPid() throws IOException {
+        return Long.parseLong(Files.readString(markers.resolve("killed")));
+    }
+
+    private Set<Integer> markerItems(String prefix, long pid) throws IOException {
+        try (Stream<Path> files = Files.list(markers)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith("-" + pid))
+                    .map(name -> Integer.parseInt(name.substring(prefix.length(), name.lastIndexOf('-'))))
+                    .collect(Collectors.toCollection(HashSet::new));
+        }
+    }
+
+    private Set<Long> markerPids(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(markers)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix))
+                    .map(name -> Long.parseLong(name.substring(prefix.length())))
+                    .collect(Collectors.toSet());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.ggar.orchid.worker;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+class WorkerChannelTest {
+    private static final ClassLoader CLASS_LOADER = WorkerChannelTest.class.getClassLoader();
+    static final AtomicBoolean deserialized = new AtomicBoolean();
+
+    // Marca cuándo se deserializa: un saludo que traiga un objeto no debe llegar a leerse
+    static final class Tripwire implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            deserialized.set(true);
+        }
+    }
+
+    @Test
+    void helloIsExchangedAsRawBytesBeforeTheObjectStreams() throws Exception {
+        try (ServerSocketChannel server = WorkerChannel.listen("tcp", null)) {
+            Thread worker = new Thread(() -> {
+                try (WorkerChannel channel = WorkerChannel.open(WorkerChannel.addressOf(server), new WorkerProtocol.Hello(3, "secret"), CLASS_LOADER)) {
+                    channel.send(new WorkerProtocol.Task(0, "item"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            worker.start();
+            try (SocketChannel socket = server.accept()) {
+                WorkerProtocol.Hello hello = WorkerChannel.receiveHello(socket);
+                assertEquals(new WorkerProtocol.Hello(3, "secret"), hello);
+                try (WorkerChannel channel = new WorkerChannel(socket, CLASS_LOADER)) {
+                    assertEquals(new WorkerProtocol.Task(0, "item"), channel.receive());
+                }
+            }
+            worker.join();
+        }
+    }
+
+    @Test
+    void aSerializedObjectInPlaceOfTheHelloIsNeverDeserialized() throws Exception {
+        deserialized.set(false);
+        try (ServerSocketChannel server = WorkerChannel.listen("tcp", null);
+             SocketChannel client = WorkerChannel.connect(WorkerChannel.addressOf(server));
+             SocketChannel socket = server.accept()) {
+            ByteBuffer payload = ByteBuffer.wrap(WorkerProtocol.serialize(new Tripwire(), CLASS_LOADER));
+            while (payload.hasRemaining()) client.write(payload);
+            client.shutdownOutput();
+
+            assertThrows(IOException.class, () -> WorkerChannel.receiveHello(socket));
+            assertFalse(deserialized.get());
+        }
+    }
+
+    @Test
+    void classesOutsideTheAllowlistAreRejectedWhenRead() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(Map.of("endpoint", URI.create("http://localhost")));
+        }
+
+        assertThrows(InvalidClassException.class, () -> WorkerProtocol.deserialize(bytes.toByteArray(), CLASS_LOADER));
+    }
+
+    @Test
+    void valuesThatTheOtherEndWouldRejectAreNotSerializable() {
+        assertTrue(WorkerProtocol.isSerializable(Map.of("count", 1, "names", List.of("a", "b")), CLASS_LOADER));
+        assertTrue(WorkerProtocol.isSerializable(new int[]{1, 2}, CLASS_LOADER));
+        assertFalse(WorkerProtocol.isSerializable(List.of(URI.create("http://localhost")), CLASS_LOADER));
+        assertFalse(WorkerProtocol.isSerializable(new Object(), CLASS_LOADER));
+    }
+
+    @Test
+    void theRejectedClassIsNamedWhenAMessageCannotBeRead() throws Exception {
+        try (ServerSocketChannel server = WorkerChannel.listen("tcp", null)) {
+            Thread sender = new Thread(() -> {
+                try (SocketChannel socket = WorkerChannel.connect(WorkerChannel.addressOf(server));
+                     ObjectOutputStream out = new ObjectOutputStream(Channels.newOutputStream(socket))) {
+                    out.flush();
+                    out.writeObject(URI.create("http://localhost"));
+                    out.flush();
+                    // El otro extremo lee la cabecera de este flujo antes de cerrar
+                    new ObjectInputStream(Channels.newInputStream(socket));
+                } catch (IOException ignored) {
+                    // El receptor cierra la conexión al rechazar el mensaje
+                }
+            });
+            sender.start();
+            try (SocketChannel socket = server.accept(); WorkerChannel channel = new WorkerChannel(socket, CLASS_LOADER)) {
+                InvalidClassException error = assertThrows(InvalidClassException.class, channel::receive);
+                assertEquals(URI.class.getName(), error.classname);
+            }
+            sender.join();
+        }
+    }
+}